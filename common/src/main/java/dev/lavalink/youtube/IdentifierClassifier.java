@@ -0,0 +1,375 @@
+package dev.lavalink.youtube;
+
+import dev.lavalink.youtube.UrlTools.UrlInfo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Classifies identifiers in a single pass over their characters, without regular expressions or a full URI
+ * parse. Identifiers that can't refer to YouTube are rejected by looking at their first few characters, so
+ * links meant for other source managers cost next to nothing.
+ * <p>
+ * Links containing characters outside of the plain URL character set fall back to {@link UrlTools#getUrlInfo},
+ * so they are decoded (or rejected) exactly as before.
+ */
+public final class IdentifierClassifier {
+    public enum Kind {
+        /** A {@code /watch} link with a {@code v} parameter. */
+        WATCH,
+        /** A {@code /playlist} link with a {@code list} parameter. */
+        PLAYLIST,
+        /** A {@code /watch_videos} link with a {@code video_ids} parameter. */
+        WATCH_VIDEOS,
+        /** A bare video ID. */
+        VIDEO_ID,
+        /** A bare {@code PL} or {@code UU} playlist ID. */
+        PLAYLIST_ID,
+        /** A {@code youtu.be} link, or a {@code /live/}, {@code /embed/} or {@code /shorts/} link. */
+        SHORT_URL,
+        UNKNOWN
+    }
+
+    public static final Classification UNKNOWN = new Classification(Kind.UNKNOWN, null, null);
+
+    private static final String HTTPS = "https://";
+    private static final String HTTP = "http://";
+    private static final String MAIN_DOMAIN = "youtube.com/";
+    private static final String SHORT_DOMAIN = "youtu.be/";
+    private static final String[] SHORT_PATHS = { "live/", "embed/", "shorts/" };
+
+    private IdentifierClassifier() {
+
+    }
+
+    /**
+     * @param identifier           The identifier to classify. Must not be a search query.
+     * @param allowDirectVideoIds    Whether bare video IDs should be recognised.
+     * @param allowDirectPlaylistIds Whether bare playlist IDs should be recognised.
+     * @return The classification, {@link #UNKNOWN} if the identifier isn't meant for YouTube.
+     * @throws com.sedmelluq.discord.lavaplayer.tools.FriendlyException If the identifier is a youtube.com link,
+     *                                                                   but not a valid URL.
+     */
+    @NotNull
+    public static Classification classify(@NotNull String identifier,
+                                          boolean allowDirectVideoIds,
+                                          boolean allowDirectPlaylistIds) {
+        int hostStart = identifier.startsWith(HTTPS) ? HTTPS.length() : identifier.startsWith(HTTP) ? HTTP.length() : 0;
+        int mainPathStart = matchMainDomain(identifier, hostStart);
+
+        if (mainPathStart >= 0 && !hasLineTerminator(identifier, mainPathStart)) {
+            Classification classification = classifyMainDomainUrl(identifier, mainPathStart);
+
+            if (classification != null) {
+                return classification;
+            }
+        }
+
+        if (allowDirectVideoIds && isVideoId(identifier)) {
+            return new Classification(Kind.VIDEO_ID, identifier, null);
+        }
+
+        if (allowDirectPlaylistIds && isPlaylistId(identifier)) {
+            return new Classification(Kind.PLAYLIST_ID, null, identifier);
+        }
+
+        int shortIdStart = -1;
+
+        if (mainPathStart >= 0) {
+            for (String path : SHORT_PATHS) {
+                if (identifier.startsWith(path, mainPathStart + 1)) {
+                    shortIdStart = mainPathStart + 1 + path.length();
+                    break;
+                }
+            }
+        } else {
+            int shortHostStart = identifier.startsWith("www.", hostStart) ? hostStart + 4 : hostStart;
+
+            if (identifier.startsWith(SHORT_DOMAIN, shortHostStart)) {
+                shortIdStart = shortHostStart + SHORT_DOMAIN.length();
+            }
+        }
+
+        if (shortIdStart >= 0 && !hasLineTerminator(identifier, shortIdStart)) {
+            return new Classification(Kind.SHORT_URL, identifier.substring(shortIdStart), null);
+        }
+
+        return UNKNOWN;
+    }
+
+    /**
+     * @return Whether the value is exactly 11 characters of the video ID alphabet.
+     */
+    public static boolean isVideoId(@NotNull String value) {
+        return value.length() == 11 && isIdAlphabet(value, 0);
+    }
+
+    /**
+     * @return Whether the value is a {@code PL} or {@code UU} playlist ID.
+     */
+    public static boolean isPlaylistId(@NotNull String value) {
+        return value.length() > 2 && (value.startsWith("PL") || value.startsWith("UU")) && isIdAlphabet(value, 2);
+    }
+
+    private static boolean isIdAlphabet(@NotNull String value, int start) {
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '-')) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return The index of the slash following the youtube.com host, or -1 if the host isn't youtube.com.
+     */
+    private static int matchMainDomain(@NotNull String identifier, int hostStart) {
+        int domainStart = hostStart;
+
+        if (identifier.startsWith("www.", hostStart)) {
+            domainStart += 4;
+        } else if (identifier.startsWith("m.", hostStart)) {
+            domainStart += 2;
+        } else if (identifier.startsWith("music.", hostStart)) {
+            domainStart += 6;
+        }
+
+        return identifier.startsWith(MAIN_DOMAIN, domainStart) ? domainStart + MAIN_DOMAIN.length() - 1 : -1;
+    }
+
+    /**
+     * The previous patterns matched the remainder of a link with {@code .*}, which stops at line terminators.
+     */
+    private static boolean hasLineTerminator(@NotNull String identifier, int start) {
+        for (int i = start; i < identifier.length(); i++) {
+            char c = identifier.charAt(i);
+
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Nullable
+    private static Classification classifyMainDomainUrl(@NotNull String identifier, int pathStart) {
+        int length = identifier.length();
+        int pathEnd = length;
+        int queryEnd = length;
+
+        for (int i = pathStart; i < length; i++) {
+            char c = identifier.charAt(i);
+
+            if (c == '?' && pathEnd == length) {
+                pathEnd = i;
+            } else if (c == '#') {
+                if (queryEnd != length) {
+                    return classifyParsedUrl(UrlTools.getUrlInfo(identifier, false));
+                }
+
+                queryEnd = i;
+
+                if (pathEnd == length) {
+                    pathEnd = i;
+                }
+            } else if (!isPlainUrlChar(c) || c == '%' && !isEscape(identifier, i)) {
+                return classifyParsedUrl(UrlTools.getUrlInfo(identifier, false));
+            }
+        }
+
+        int queryStart = pathEnd < queryEnd ? pathEnd + 1 : queryEnd;
+
+        if (pathEquals(identifier, pathStart, pathEnd, "/watch")) {
+            String videoId = findParameter(identifier, queryStart, queryEnd, "v");
+
+            if (videoId != null) {
+                return new Classification(Kind.WATCH, videoId, findParameter(identifier, queryStart, queryEnd, "list"));
+            }
+        } else if (pathEquals(identifier, pathStart, pathEnd, "/playlist")) {
+            String playlistId = findParameter(identifier, queryStart, queryEnd, "list");
+
+            if (playlistId != null) {
+                return new Classification(Kind.PLAYLIST, null, playlistId);
+            }
+        } else if (pathEquals(identifier, pathStart, pathEnd, "/watch_videos")) {
+            String videoIds = findParameter(identifier, queryStart, queryEnd, "video_ids");
+
+            if (videoIds != null) {
+                return new Classification(Kind.WATCH_VIDEOS, videoIds, null);
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private static Classification classifyParsedUrl(@NotNull UrlInfo urlInfo) {
+        if ("/watch".equals(urlInfo.path)) {
+            String videoId = urlInfo.parameters.get("v");
+
+            if (videoId != null) {
+                return new Classification(Kind.WATCH, videoId, urlInfo.parameters.get("list"));
+            }
+        } else if ("/playlist".equals(urlInfo.path)) {
+            String playlistId = urlInfo.parameters.get("list");
+
+            if (playlistId != null) {
+                return new Classification(Kind.PLAYLIST, null, playlistId);
+            }
+        } else if ("/watch_videos".equals(urlInfo.path)) {
+            String videoIds = urlInfo.parameters.get("video_ids");
+
+            if (videoIds != null) {
+                return new Classification(Kind.WATCH_VIDEOS, videoIds, null);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Characters which {@link java.net.URI} accepts anywhere after the host without escaping them.
+     */
+    private static boolean isPlainUrlChar(char c) {
+        if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9') {
+            return true;
+        }
+
+        switch (c) {
+            case '-': case '_': case '.': case '~': case '!': case '*': case '\'': case '(': case ')':
+            case ';': case '/': case '?': case ':': case '@': case '&': case '=': case '+': case '$': case ',':
+            case '%':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isEscape(@NotNull String value, int index) {
+        return index + 2 < value.length() && hexValue(value.charAt(index + 1)) >= 0 && hexValue(value.charAt(index + 2)) >= 0;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    private static boolean pathEquals(@NotNull String identifier, int start, int end, @NotNull String expected) {
+        int escape = identifier.indexOf('%', start);
+
+        if (escape >= 0 && escape < end) {
+            return expected.equals(decode(identifier, start, end, false));
+        }
+
+        return end - start == expected.length() && identifier.startsWith(expected, start);
+    }
+
+    /**
+     * Finds the first parameter with the given name. Like {@code URLEncodedUtils}, both {@code &} and {@code ;}
+     * separate parameters, and parameters without a value are ignored.
+     */
+    @Nullable
+    private static String findParameter(@NotNull String identifier, int start, int end, @NotNull String name) {
+        int pairStart = start;
+
+        while (pairStart < end) {
+            int pairEnd = pairStart;
+            int equals = -1;
+
+            while (pairEnd < end) {
+                char c = identifier.charAt(pairEnd);
+
+                if (c == '&' || c == ';') {
+                    break;
+                } else if (c == '=' && equals < 0) {
+                    equals = pairEnd;
+                }
+
+                pairEnd++;
+            }
+
+            if (equals >= 0 && nameEquals(identifier, pairStart, equals, name)) {
+                return decode(identifier, equals + 1, pairEnd, true);
+            }
+
+            pairStart = pairEnd + 1;
+        }
+
+        return null;
+    }
+
+    private static boolean nameEquals(@NotNull String identifier, int start, int end, @NotNull String name) {
+        for (int i = start; i < end; i++) {
+            char c = identifier.charAt(i);
+
+            if (c == '%' || c == '+') {
+                return name.equals(decode(identifier, start, end, true));
+            }
+        }
+
+        return end - start == name.length() && identifier.startsWith(name, start);
+    }
+
+    /**
+     * Decodes percent escapes as UTF-8, only copying when there is something to decode. Escapes have already been
+     * validated by the caller.
+     */
+    @NotNull
+    private static String decode(@NotNull String value, int start, int end, boolean plusAsSpace) {
+        int first = start;
+
+        while (first < end && value.charAt(first) != '%' && !(plusAsSpace && value.charAt(first) == '+')) {
+            first++;
+        }
+
+        if (first == end) {
+            return value.substring(start, end);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(end - start);
+
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+
+            if (c == '%') {
+                bytes.write(hexValue(value.charAt(i + 1)) << 4 | hexValue(value.charAt(i + 2)));
+                i += 2;
+            } else if (c == '+' && plusAsSpace) {
+                bytes.write(' ');
+            } else {
+                bytes.write(c);
+            }
+        }
+
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    public static class Classification {
+        public final Kind kind;
+        /**
+         * The video ID for {@link Kind#WATCH} and {@link Kind#VIDEO_ID}, the remainder of the link for
+         * {@link Kind#SHORT_URL} and the comma separated IDs for {@link Kind#WATCH_VIDEOS}. Only bare video IDs
+         * are validated.
+         */
+        public final @Nullable String videoId;
+        /**
+         * The playlist ID for {@link Kind#PLAYLIST} and {@link Kind#PLAYLIST_ID}, and the optional {@code list}
+         * parameter for {@link Kind#WATCH}.
+         */
+        public final @Nullable String playlistId;
+
+        private Classification(@NotNull Kind kind, @Nullable String videoId, @Nullable String playlistId) {
+            this.kind = kind;
+            this.videoId = videoId;
+            this.playlistId = playlistId;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the results of {@link YoutubeAudioSourceManager#loadVideos} as they come in. Exactly one method is called
+ * for every distinct video ID. Methods may be called from several threads at once.
+ */
+public interface VideoLoadListener {
+    void videoLoaded(@NotNull String videoId, @NotNull AudioTrack track);
+
+    /**
+     * Called if the video does not exist, or the ID is not a valid video ID.
+     */
+    void noMatches(@NotNull String videoId);
+
+    void loadFailed(@NotNull String videoId, @NotNull FriendlyException exception);
+}
@@ -2,6 +2,7 @@ package dev.lavalink.youtube;
 
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.source.AudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
 import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
 import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
@@ -10,11 +11,20 @@ import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
 import com.sedmelluq.discord.lavaplayer.track.AudioReference;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.BasicAudioPlaylist;
 import dev.lavalink.youtube.UrlTools.UrlInfo;
+import dev.lavalink.youtube.cache.BoundedCache;
+import dev.lavalink.youtube.cache.CachedItem;
+import dev.lavalink.youtube.cache.ItemCache;
+import dev.lavalink.youtube.cache.RouteKey;
+import dev.lavalink.youtube.cache.ContainerIndexCache;
+import dev.lavalink.youtube.cache.StreamUrlCache;
 import dev.lavalink.youtube.cipher.LocalSignatureCipherManager;
+import dev.lavalink.youtube.cipher.PlayerScriptRefresher;
 import dev.lavalink.youtube.cipher.RemoteCipherManager;
 import dev.lavalink.youtube.cipher.CipherManager;
 import dev.lavalink.youtube.clients.*;
@@ -22,6 +32,14 @@ import dev.lavalink.youtube.clients.skeleton.Client;
 import dev.lavalink.youtube.http.YoutubeAccessTokenTracker;
 import dev.lavalink.youtube.http.YoutubeHttpContextFilter;
 import dev.lavalink.youtube.http.YoutubeOauth2Handler;
+import dev.lavalink.youtube.polyfill.VirtualThreads;
+import dev.lavalink.youtube.scheduler.CircuitBreakers;
+import dev.lavalink.youtube.scheduler.CircuitOpenException;
+import dev.lavalink.youtube.scheduler.ClientOperation;
+import dev.lavalink.youtube.scheduler.ClientScheduler;
+import dev.lavalink.youtube.scheduler.InnertubeEndpoint;
+import dev.lavalink.youtube.track.ChunkSizeStrategy;
+import dev.lavalink.youtube.track.PrefetchedFormat;
 import dev.lavalink.youtube.track.YoutubeAudioTrack;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -34,10 +52,26 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity.SUSPICIOUS;
 
@@ -50,6 +84,12 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
     private static final Logger log = LoggerFactory.getLogger(YoutubeAudioSourceManager.class);
     public static final String SEARCH_PREFIX = "ytsearch:";
     public static final String MUSIC_SEARCH_PREFIX = "ytmsearch:";
+    public static final int DEFAULT_BULK_LOAD_PARALLELISM = 4;
+    // The most IDs a watch_videos link may have.
+    private static final int BULK_LOAD_CHUNK_SIZE = 50;
+    private static final int PREFETCH_CACHE_SIZE = 100;
+    // Prefetched formats that aren't played within this time are dropped.
+    private static final long PREFETCH_TTL_MS = TimeUnit.MINUTES.toMillis(10);
 
     public static final Client[] DEFAULT_CLIENTS = new Client[] {
         new Music(), new AndroidVr(), new Web(), new WebEmbedded()
@@ -57,27 +97,30 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
 
     private static boolean loggedOauthClientNoAccountWarning = false;
 
-    private static final String PROTOCOL_REGEX = "(?:http://|https://|)";
-    private static final String DOMAIN_REGEX = "(?:www\\.|m\\.|music\\.|)youtube\\.com";
-    private static final String SHORT_DOMAIN_REGEX = "(?:www\\.|)youtu\\.be";
-    private static final String VIDEO_ID_REGEX = "(?<v>[a-zA-Z0-9_-]{11})";
-    private static final String PLAYLIST_ID_REGEX = "(?<list>(PL|UU)[a-zA-Z0-9_-]+)";
-
-    private static final Pattern directVideoIdPattern = Pattern.compile("^" + VIDEO_ID_REGEX + "$");
-    private static final Pattern directPlaylistIdPattern = Pattern.compile("^" + PLAYLIST_ID_REGEX + "$");
-    private static final Pattern mainDomainPattern = Pattern.compile("^" + PROTOCOL_REGEX + DOMAIN_REGEX + "/.*");
-    private static final Pattern shortHandPattern = Pattern.compile("^" + PROTOCOL_REGEX + "(?:" + DOMAIN_REGEX + "/(?:live|embed|shorts)|" + SHORT_DOMAIN_REGEX + ")/(?<videoId>.*)");
-
     protected final HttpInterfaceManager httpInterfaceManager;
 
     protected final boolean allowSearch;
     protected final boolean allowDirectVideoIds;
     protected final boolean allowDirectPlaylistIds;
     protected final Client[] clients;
+    protected final long hedgedLoadDelayMs;
+    protected final boolean streamReadAhead;
+    protected final ChunkSizeStrategy chunkSizeStrategy;
+    protected final ClientScheduler clientScheduler;
+    protected final CircuitBreakers circuitBreakers;
 
     protected YoutubeOauth2Handler oauth2Handler;
     protected YoutubeHttpContextFilter contextFilter;
     protected CipherManager cipherManager;
+    protected PlayerScriptRefresher playerScriptRefresher;
+    protected final ExecutorService loadExecutor;
+    private final boolean ownsLoadExecutor;
+    protected volatile ItemCache itemCache;
+    protected volatile StreamUrlCache streamUrlCache;
+    protected volatile ContainerIndexCache containerIndexCache;
+    private final BoundedCache<String, PrefetchedFormat> prefetchedFormats = new BoundedCache<>(PREFETCH_CACHE_SIZE, PREFETCH_TTL_MS);
+    private final Set<RouteKey> revalidatingRoutes = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<RouteKey, CompletableFuture<AudioItem>> inflightLoads = new ConcurrentHashMap<>();
 
     public YoutubeAudioSourceManager() {
         this(true);
@@ -145,18 +188,63 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
         this.allowDirectVideoIds = options.isAllowDirectVideoIds();
         this.allowDirectPlaylistIds = options.isAllowDirectPlaylistIds();
         this.clients = clients;
+        this.hedgedLoadDelayMs = options.getHedgedLoadDelayMs();
+        this.streamReadAhead = options.isStreamReadAhead();
+        this.chunkSizeStrategy = options.getChunkSizeStrategy();
+        this.clientScheduler = new ClientScheduler(options.isAdaptiveClientOrdering());
+        this.circuitBreakers = new CircuitBreakers(options.getCircuitBreakerFailureThreshold(), options.getCircuitBreakerOpenDurationMs());
         this.oauth2Handler = new YoutubeOauth2Handler(httpInterfaceManager);
 
         contextFilter = new YoutubeHttpContextFilter();
         contextFilter.setTokenTracker(new YoutubeAccessTokenTracker(httpInterfaceManager));
         contextFilter.setOauth2Handler(oauth2Handler);
+        contextFilter.setCircuitBreakers(circuitBreakers);
         httpInterfaceManager.setHttpContextFilter(contextFilter);
 
         if (!DataFormatTools.isNullOrEmpty(options.getRemoteCipherUrl())) {
-            contextFilter.setCipherConfig(options.getRemoteCipherPassword(), options.getRemoteCipherUserAgent(), YoutubeSource.VERSION);
-            this.cipherManager = new RemoteCipherManager(options.getRemoteCipherUrl());
+            this.cipherManager = new RemoteCipherManager(
+                httpInterfaceManager,
+                options.getRemoteCipherUrl(),
+                options.getRemoteCipherPassword(),
+                options.getRemoteCipherUserAgent(),
+                options.getRemoteCipherRequestTimeoutMs(),
+                options.getRemoteCipherMaxConcurrentRequests()
+            );
         } else {
-            this.cipherManager = new LocalSignatureCipherManager();
+            LocalSignatureCipherManager localCipherManager = new LocalSignatureCipherManager();
+
+            if (!DataFormatTools.isNullOrEmpty(options.getCipherCacheDirectory())) {
+                try {
+                    localCipherManager.setPersistentCacheDirectory(Paths.get(options.getCipherCacheDirectory()));
+                } catch (IOException e) {
+                    log.warn("Unable to use cipher cache directory {}, ciphers will not be persisted", options.getCipherCacheDirectory(), e);
+                }
+            }
+
+            this.cipherManager = localCipherManager;
+        }
+
+        if (options.getPlayerScriptRefreshIntervalMs() > 0) {
+            // Started on first use, so the refresher never sees a partially constructed source manager.
+            this.playerScriptRefresher = new PlayerScriptRefresher(this::getCipherManager, httpInterfaceManager, options.getPlayerScriptRefreshIntervalMs());
+        }
+
+        this.itemCache = options.getItemCache();
+        this.streamUrlCache = options.getStreamUrlCache();
+        this.containerIndexCache = options.getContainerIndexCache();
+
+        if (options.getLoadExecutor() != null) {
+            this.loadExecutor = options.getLoadExecutor();
+            this.ownsLoadExecutor = false;
+        } else {
+            ExecutorService virtualThreadExecutor = options.isUseVirtualThreads() ? VirtualThreads.newVirtualThreadExecutor("yt-load-") : null;
+
+            if (virtualThreadExecutor != null) {
+                log.debug("Using virtual threads for loading");
+            }
+
+            this.loadExecutor = virtualThreadExecutor != null ? virtualThreadExecutor : Executors.newCachedThreadPool(new DaemonThreadFactory("yt-load"));
+            this.ownsLoadExecutor = true;
         }
     }
 
@@ -199,6 +287,13 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
     @Override
     @Nullable
     public AudioItem loadItem(@NotNull AudioPlayerManager manager, @NotNull AudioReference reference) {
+        return loadItemRetrying(reference);
+    }
+
+    @Nullable
+    private AudioItem loadItemRetrying(@NotNull AudioReference reference) {
+        startPlayerScriptRefresher();
+
         try {
             return loadItemOnce(reference);
         } catch (FriendlyException exception) {
@@ -213,8 +308,199 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
 
     @Nullable
     protected AudioItem loadItemOnce(@NotNull AudioReference reference) {
-        Throwable lastException = null;
+        return loadItemOnce(reference, false);
+    }
+
+    /**
+     * Loads an item on the {@link #loadExecutor}, rather than blocking the calling thread. With virtual threads,
+     * many concurrent loads don't need as many platform threads.
+     * @return A future completed with the loaded item, {@code null} if the identifier isn't handled by this source,
+     *         or completed exceptionally with a {@link FriendlyException} if loading failed.
+     */
+    @NotNull
+    public CompletableFuture<AudioItem> loadItemAsync(@NotNull AudioReference reference) {
+        return CompletableFuture.supplyAsync(() -> loadItemRetrying(reference), loadExecutor);
+    }
+
+    /**
+     * Resolves the format and signed URL of a track ahead of playback, on the {@link #loadExecutor}. This is
+     * meant for the next track in a queue, so that it starts playing without a gap.
+     * @see #prefetch(AudioTrack, boolean)
+     */
+    @NotNull
+    public CompletableFuture<Void> prefetch(@NotNull AudioTrack track) {
+        return prefetch(track, false);
+    }
+
+    /**
+     * Resolves the format and signed URL of a track ahead of playback, on the {@link #loadExecutor}. This is
+     * meant for the next track in a queue, so that it starts playing without a gap.
+     * @param track The track to prefetch. Tracks of other sources are ignored.
+     * @param checkUrl Whether to also request the first byte of the stream, to check that the media server accepts
+     *                 the URL.
+     * @return A future completed once the track was prefetched, or completed exceptionally if it could not be.
+     * @see YoutubeAudioTrack#warmUp(boolean)
+     */
+    @NotNull
+    public CompletableFuture<Void> prefetch(@NotNull AudioTrack track, boolean checkUrl) {
+        if (!(track instanceof YoutubeAudioTrack) || track.getSourceManager() != this) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return CompletableFuture.runAsync(() -> ((YoutubeAudioTrack) track).warmUp(checkUrl), loadExecutor);
+    }
+
+    /**
+     * Resolves the formats and signed URLs of many tracks ahead of playback, on the {@link #loadExecutor}. The URLs
+     * of tracks that share a player script are deciphered together, so prefetching the next few tracks of a queue
+     * costs one cipher call instead of one per track.
+     * @param tracks The tracks to prefetch. Tracks of other sources are ignored.
+     * @param checkUrl Whether to also request the first byte of every stream, to check that the media server accepts
+     *                 the URL.
+     * @return A future completed once all tracks were tried. Tracks that could not be prefetched are loaded as usual
+     *         once played.
+     * @see YoutubeAudioTrack#warmUp(YoutubeAudioSourceManager, List, boolean)
+     */
+    @NotNull
+    public CompletableFuture<Void> prefetch(@NotNull Collection<? extends AudioTrack> tracks, boolean checkUrl) {
+        List<YoutubeAudioTrack> youtubeTracks = new ArrayList<>();
+
+        for (AudioTrack track : tracks) {
+            if (track instanceof YoutubeAudioTrack && track.getSourceManager() == this) {
+                youtubeTracks.add((YoutubeAudioTrack) track);
+            }
+        }
+
+        if (youtubeTracks.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return CompletableFuture.runAsync(() -> YoutubeAudioTrack.warmUp(this, youtubeTracks, checkUrl), loadExecutor);
+    }
+
+    /**
+     * Keeps a prefetched format until the video is played. Used by {@link YoutubeAudioTrack#warmUp(boolean)}.
+     */
+    public void storePrefetchedFormat(@NotNull String videoId, @NotNull PrefetchedFormat prefetched) {
+        long ttlMs = PREFETCH_TTL_MS;
+        long expiresAtMs = prefetched.format.getExpiresAtMs();
+
+        if (expiresAtMs != -1) {
+            ttlMs = Math.min(ttlMs, expiresAtMs - StreamUrlCache.DEFAULT_EXPIRY_MARGIN_MS - System.currentTimeMillis());
+        }
+
+        prefetchedFormats.put(videoId, prefetched, ttlMs);
+    }
+
+    /**
+     * @return The format prefetched for a video, if any. It is removed, so every prefetch is used once at most.
+     */
+    @Nullable
+    public PrefetchedFormat takePrefetchedFormat(@NotNull String videoId) {
+        return prefetchedFormats.remove(videoId);
+    }
+
+    /**
+     * Loads many videos by their IDs, using {@link #DEFAULT_BULK_LOAD_PARALLELISM} requests at most at a time.
+     * @see #loadVideos(Collection, int, VideoLoadListener)
+     */
+    @NotNull
+    public CompletableFuture<Void> loadVideos(@NotNull Collection<String> videoIds, @NotNull VideoLoadListener listener) {
+        return loadVideos(videoIds, DEFAULT_BULK_LOAD_PARALLELISM, listener);
+    }
+
+    /**
+     * Loads many videos by their IDs. Videos are loaded in chunks of up to 50 through a temporary playlist built by
+     * YouTube's {@code watch_videos} link, which takes a single playlist request per chunk. Videos missing from
+     * that playlist, usually because they are unavailable, are loaded one by one. Results are passed to the
+     * listener as soon as they are available, in no particular order.
+     * @param videoIds    The IDs to load. Duplicates are loaded, and reported, once.
+     * @param parallelism The maximum number of chunks loaded at the same time.
+     * @param listener    Receives the result of every video.
+     * @return A future completed once every video has been reported to the listener, or completed exceptionally if
+     *         the listener throws.
+     */
+    @NotNull
+    public CompletableFuture<Void> loadVideos(@NotNull Collection<String> videoIds,
+                                              int parallelism,
+                                              @NotNull VideoLoadListener listener) {
+        List<String> validIds = new ArrayList<>();
+
+        for (String videoId : new LinkedHashSet<>(videoIds)) {
+            if (IdentifierClassifier.isVideoId(videoId)) {
+                validIds.add(videoId);
+            } else {
+                listener.noMatches(videoId);
+            }
+        }
+
+        Queue<List<String>> chunks = new ConcurrentLinkedQueue<>();
+
+        for (int i = 0; i < validIds.size(); i += BULK_LOAD_CHUNK_SIZE) {
+            chunks.add(validIds.subList(i, Math.min(i + BULK_LOAD_CHUNK_SIZE, validIds.size())));
+        }
+
+        int workerCount = Math.max(1, Math.min(parallelism, chunks.size()));
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[workerCount];
+
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = CompletableFuture.runAsync(() -> {
+                List<String> chunk;
+
+                while ((chunk = chunks.poll()) != null) {
+                    loadVideoChunk(chunk, listener);
+                }
+            }, loadExecutor);
+        }
+
+        return CompletableFuture.allOf(workers);
+    }
+
+    private void loadVideoChunk(@NotNull List<String> videoIds, @NotNull VideoLoadListener listener) {
+        Set<String> remaining = new LinkedHashSet<>(videoIds);
+
+        if (videoIds.size() > 1) {
+            try {
+                AudioItem item = loadItemRetrying(new AudioReference("https://www.youtube.com/watch_videos?video_ids=" + String.join(",", videoIds), null));
+
+                if (item instanceof AudioPlaylist) {
+                    for (AudioTrack track : ((AudioPlaylist) item).getTracks()) {
+                        if (remaining.remove(track.getIdentifier())) {
+                            listener.videoLoaded(track.getIdentifier(), track);
+                        }
+                    }
+                }
+            } catch (FriendlyException e) {
+                log.debug("Failed to load {} videos through watch_videos, loading them one by one", videoIds.size(), e);
+            }
+        }
+
+        for (String videoId : remaining) {
+            AudioItem item;
+
+            try {
+                item = loadItemRetrying(new AudioReference("https://www.youtube.com/watch?v=" + videoId, null));
+            } catch (FriendlyException e) {
+                listener.loadFailed(videoId, e);
+                continue;
+            } catch (RuntimeException e) {
+                listener.loadFailed(videoId, ExceptionTools.wrapUnfriendlyExceptions("This video cannot be loaded.", SUSPICIOUS, e));
+                continue;
+            }
 
+            if (item instanceof AudioTrack) {
+                listener.videoLoaded(videoId, (AudioTrack) item);
+            } else {
+                listener.noMatches(videoId);
+            }
+        }
+    }
+
+    /**
+     * @param revalidate Whether to skip looking up the item cache. The loaded item is still stored in it.
+     */
+    @Nullable
+    private AudioItem loadItemOnce(@NotNull AudioReference reference, boolean revalidate) {
         try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
             Router router = getRouter(httpInterface, reference.identifier);
 
@@ -226,38 +512,186 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
                 return AudioReference.NO_TRACK;
             }
 
-            for (Client client : clients) {
-                if (!client.canHandleRequest(reference.identifier)) {
-                    continue;
+            ItemCache cache = itemCache;
+            RouteKey routeKey = router instanceof KeyedRouter ? ((KeyedRouter) router).key : null;
+
+            if (routeKey == null) {
+                return loadFromClients(reference, httpInterface, router);
+            }
+
+            if (cache != null && !revalidate) {
+                CachedItem cached = cache.get(routeKey);
+
+                if (cached != null) {
+                    if (cached.isStale()) {
+                        revalidateInBackground(reference, routeKey);
+                    }
+
+                    log.debug("Loaded {} from the item cache", routeKey);
+                    return cached.toAudioItem(this::buildAudioTrack);
                 }
+            }
 
-                boolean shouldLogOauthWarning = client.supportsOAuth() && !loggedOauthClientNoAccountWarning &&
-                    !oauth2Handler.hasAccessToken() && client.getOptions().getPlayback();
+            return loadCoalesced(reference, httpInterface, router, routeKey, cache);
+        } catch (IOException e) {
+            throw ExceptionTools.toRuntimeException(e);
+        }
+    }
+
+    /**
+     * Loads a route unless a load of the same route is already in flight, in which case that load's result, or
+     * exception, is shared. Callers joining a load get their own copies of the loaded tracks.
+     */
+    @Nullable
+    private AudioItem loadCoalesced(@NotNull AudioReference reference,
+                                    @NotNull HttpInterface httpInterface,
+                                    @NotNull Router router,
+                                    @NotNull RouteKey routeKey,
+                                    @Nullable ItemCache cache) {
+        CompletableFuture<AudioItem> load = new CompletableFuture<>();
+        CompletableFuture<AudioItem> inflight = inflightLoads.putIfAbsent(routeKey, load);
+
+        if (inflight != null) {
+            log.debug("Joining in-flight load of {}", routeKey);
+            return copyItem(awaitLoad(inflight));
+        }
+
+        try {
+            AudioItem item = loadFromClients(reference, httpInterface, router);
+
+            if (cache != null && item != null) {
+                // Stored before the load completes, so no caller can miss both the in-flight load and the cache.
+                cache.put(routeKey, item);
+            }
+
+            load.complete(item);
+            return item;
+        } catch (Throwable t) {
+            load.completeExceptionally(t);
+            throw t;
+        } finally {
+            inflightLoads.remove(routeKey, load);
+        }
+    }
 
-                if (shouldLogOauthWarning) {
-                    loggedOauthClientNoAccountWarning = true;
-                    log.warn("!!! You are using an OAuth-enabled client without a valid OAuth token! This client may not play videos!");
+    @Nullable
+    private static AudioItem awaitLoad(@NotNull CompletableFuture<AudioItem> load) {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FriendlyException("Interrupted while loading the item.", Severity.COMMON, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Builds new track instances for an item, so that the same item can be handed to multiple callers.
+     */
+    @Nullable
+    private AudioItem copyItem(@Nullable AudioItem item) {
+        if (item instanceof AudioTrack) {
+            return buildAudioTrack(((AudioTrack) item).getInfo());
+        }
+
+        if (item instanceof AudioPlaylist) {
+            AudioPlaylist playlist = (AudioPlaylist) item;
+            List<AudioTrack> tracks = new ArrayList<>(playlist.getTracks().size());
+            AudioTrack selectedTrack = null;
+
+            for (AudioTrack track : playlist.getTracks()) {
+                AudioTrack copy = buildAudioTrack(track.getInfo());
+
+                if (track == playlist.getSelectedTrack()) {
+                    selectedTrack = copy;
                 }
 
-                log.debug("Attempting to load {} with client \"{}\"", reference.identifier, client.getIdentifier());
-                httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+                tracks.add(copy);
+            }
 
-                try {
-                    AudioItem item = router.route(client);
+            return new BasicAudioPlaylist(playlist.getName(), tracks, selectedTrack, playlist.isSearchResult());
+        }
 
-                    if (item != null) {
-                        return item;
-                    }
-                } catch (CannotBeLoaded cbl) {
-                    throw ExceptionTools.wrapUnfriendlyExceptions("This video cannot be loaded.", Severity.SUSPICIOUS, cbl.getCause());
+        return item;
+    }
+
+    private void revalidateInBackground(@NotNull AudioReference reference, @NotNull RouteKey routeKey) {
+        if (!revalidatingRoutes.add(routeKey)) {
+            return;
+        }
+
+        try {
+            loadExecutor.execute(() -> {
+                try {
+                    loadItemOnce(reference, true);
                 } catch (Throwable t) {
-                    log.debug("Client \"{}\" threw a non-fatal exception, storing and proceeding...", client.getIdentifier(), t);
-                    t.addSuppressed(ClientInformation.create(client));
-                    lastException = t;
+                    // The stale item keeps being served until it expires.
+                    log.debug("Failed to revalidate cached item {}", routeKey, t);
+                } finally {
+                    revalidatingRoutes.remove(routeKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            revalidatingRoutes.remove(routeKey);
+        }
+    }
+
+    @Nullable
+    private AudioItem loadFromClients(@NotNull AudioReference reference,
+                                      @NotNull HttpInterface httpInterface,
+                                      @NotNull Router router) {
+        ClientOperation operation = operationOf(router);
+        InnertubeEndpoint endpoint = operation != null ? InnertubeEndpoint.of(operation) : null;
+        List<Client> orderedClients = operation != null ? clientScheduler.order(clients, operation) : Arrays.asList(clients);
+
+        if (hedgedLoadDelayMs >= 0 && router instanceof KeyedRouter) {
+            return loadItemHedged(reference, (KeyedRouter) router, orderedClients);
+        }
+
+        Throwable lastException = null;
+
+        for (Client client : orderedClients) {
+            if (!client.canHandleRequest(reference.identifier)) {
+                continue;
+            }
+
+            if (endpoint != null && !circuitBreakers.tryAcquire(client.getIdentifier(), endpoint)) {
+                log.debug("Skipping client \"{}\" for {}, its {} circuit breaker is open", client.getIdentifier(), reference.identifier, endpoint);
+
+                if (lastException == null) {
+                    lastException = new CircuitOpenException(client.getIdentifier(), endpoint);
                 }
+
+                continue;
+            }
+
+            logOauthWarningIfNeeded(client);
+            log.debug("Attempting to load {} with client \"{}\"", reference.identifier, client.getIdentifier());
+            httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+            httpInterface.getContext().setAttribute(Client.IDENTIFIER_ATTRIBUTE, client.getIdentifier());
+            long startTime = System.nanoTime();
+
+            try {
+                AudioItem item = router.route(client);
+
+                if (item != null) {
+                    recordOutcome(client, operation, true, startTime);
+                    return item;
+                }
+            } catch (CannotBeLoaded cbl) {
+                recordOutcome(client, operation, true, startTime);
+                throw ExceptionTools.wrapUnfriendlyExceptions("This video cannot be loaded.", Severity.SUSPICIOUS, cbl.getCause());
+            } catch (Throwable t) {
+                recordOutcome(client, operation, false, startTime);
+                log.debug("Client \"{}\" threw a non-fatal exception, storing and proceeding...", client.getIdentifier(), t);
+                t.addSuppressed(ClientInformation.create(client));
+                lastException = t;
             }
-        } catch (IOException e) {
-            throw ExceptionTools.toRuntimeException(e);
         }
 
         if (lastException != null) {
@@ -268,85 +702,220 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
     }
 
     @Nullable
-    protected Router getRouter(@NotNull HttpInterface httpInterface, @NotNull String identifier) {
-        if (identifier.startsWith(SEARCH_PREFIX)) {
-            if (allowSearch) {
-                String trimmed = identifier.substring(SEARCH_PREFIX.length()).trim();
+    private static ClientOperation operationOf(@NotNull Router router) {
+        return router instanceof KeyedRouter ? ClientOperation.of(((KeyedRouter) router).key.getType()) : null;
+    }
 
-                if (trimmed.isEmpty()) {
-                    return Router.none; // Equivalent to returning AudioReference.NO_TRACK.
-                }
+    private void recordOutcome(@NotNull Client client, @Nullable ClientOperation operation, boolean success, long startTime) {
+        if (operation == null) {
+            return;
+        }
 
-                return (client) -> client.loadSearch(this, httpInterface, identifier.substring(SEARCH_PREFIX.length()).trim());
-            }
-        } else if (identifier.startsWith(MUSIC_SEARCH_PREFIX)) {
-            if (allowSearch) {
-                String trimmed = identifier.substring(MUSIC_SEARCH_PREFIX.length()).trim();
+        if (success) {
+            clientScheduler.recordSuccess(client, operation, System.nanoTime() - startTime);
+        } else {
+            clientScheduler.recordFailure(client, operation, System.nanoTime() - startTime);
+        }
+    }
 
-                if (trimmed.isEmpty()) {
-                    return Router.none; // Equivalent to returning AudioReference.NO_TRACK.
-                }
+    /**
+     * Loads an item by racing clients against each other. The first eligible client starts right away, and every
+     * time a client fails, or has not finished within {@link #hedgedLoadDelayMs}, the next eligible client starts
+     * in parallel on its own {@link HttpInterface}. The first client to load the item wins, and the others are
+     * cancelled. As with sequential loading, a {@link CannotBeLoaded} from any client is final.
+     * @param router The route of the identifier, which is resolved once and shared by all attempts.
+     */
+    @Nullable
+    protected AudioItem loadItemHedged(@NotNull AudioReference reference, @NotNull KeyedRouter router) {
+        return loadItemHedged(reference, router, Arrays.asList(clients));
+    }
 
-                return (client) -> client.loadSearchMusic(this, httpInterface, identifier.substring(MUSIC_SEARCH_PREFIX.length()).trim());
+    @Nullable
+    private AudioItem loadItemHedged(@NotNull AudioReference reference,
+                                     @NotNull KeyedRouter router,
+                                     @NotNull List<Client> orderedClients) {
+        List<Client> eligibleClients = new ArrayList<>();
+
+        for (Client client : orderedClients) {
+            if (client.canHandleRequest(reference.identifier)) {
+                eligibleClients.add(client);
             }
-        } else {
-            Matcher mainDomainMatcher = mainDomainPattern.matcher(identifier);
+        }
 
-            if (mainDomainMatcher.matches()) {
-                UrlInfo urlInfo = UrlTools.getUrlInfo(identifier, false);
+        if (eligibleClients.isEmpty()) {
+            return null;
+        }
 
-                if ("/watch".equals(urlInfo.path)) {
-                    String videoId = urlInfo.parameters.get("v");
+        CompletionService<AudioItem> completionService = new ExecutorCompletionService<>(loadExecutor);
+        List<Future<AudioItem>> attempts = new ArrayList<>();
+        Throwable lastException = null;
+        int nextClient = 0;
+        int running = 0;
 
-                    if (videoId != null) return routeFromVideoId(httpInterface, videoId, urlInfo);
-                } else if ("/playlist".equals(urlInfo.path)) {
-                    String playlistId = urlInfo.parameters.get("list");
+        try {
+            do {
+                Client client = eligibleClients.get(nextClient++);
+                attempts.add(completionService.submit(() -> loadWithClient(client, reference.identifier, router)));
+                running++;
 
-                    if (playlistId != null) {
-                        if (playlistId.startsWith("RD")) { // mix handling
-                            String videoId = playlistId.substring(2);
-                            return (client) -> client.loadMix(this, httpInterface, playlistId, videoId);
-                        }
+                while (running > 0) {
+                    boolean canHedge = nextClient < eligibleClients.size();
+                    Future<AudioItem> finished = canHedge
+                        ? completionService.poll(hedgedLoadDelayMs, TimeUnit.MILLISECONDS)
+                        : completionService.take();
 
-                        return (client) -> client.loadPlaylist(this, httpInterface, playlistId, null);
-                    }
-                } else if ("/watch_videos".equals(urlInfo.path)) {
-                    String videoIds = urlInfo.parameters.get("video_ids");
+                    if (finished != null) {
+                        running--;
 
-                    if (videoIds != null) {
-                        try (CloseableHttpResponse response = httpInterface.execute(new HttpGet("https://www.youtube.com/watch_videos?video_ids=" + videoIds))) {
-                            HttpClientTools.assertSuccessWithContent(response, "playlist response");
-                            List<URI> redirects = httpInterface.getContext().getRedirectLocations();
+                        try {
+                            AudioItem item = finished.get();
 
-                            if (redirects != null && !redirects.isEmpty()) {
-                                return getRouter(httpInterface, redirects.get(0).toString());
+                            if (item != null) {
+                                return item;
+                            }
+                        } catch (ExecutionException e) {
+                            if (e.getCause() instanceof UnloadableItemException) {
+                                throw ExceptionTools.wrapUnfriendlyExceptions("This video cannot be loaded.", Severity.SUSPICIOUS, e.getCause().getCause().getCause());
                             }
 
-                            throw new FriendlyException("Unable to process youtube watch_videos link", SUSPICIOUS,
-                                new IllegalStateException("Expected youtube to redirect watch_videos link to a watch?v={id}&list={list_id} link, but it did not redirect at all"));
-                        } catch (Exception e) {
-                            throw ExceptionTools.wrapUnfriendlyExceptions(e);
+                            lastException = e.getCause();
                         }
+                    } else {
+                        log.debug("Clients are slow to load {}, starting client \"{}\" in parallel",
+                            reference.identifier, eligibleClients.get(nextClient).getIdentifier());
+                    }
+
+                    if (canHedge) {
+                        // Either a client failed, or the delay passed. Both start the next client.
+                        break;
                     }
                 }
+            } while (running > 0 || nextClient < eligibleClients.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FriendlyException("Interrupted while loading the item.", Severity.COMMON, e);
+        } finally {
+            for (Future<AudioItem> attempt : attempts) {
+                attempt.cancel(true);
             }
+        }
 
-            Matcher directVideoIdMatcher = directVideoIdPattern.matcher(identifier);
+        if (lastException != null) {
+            throw ExceptionTools.wrapUnfriendlyExceptions("This video cannot be loaded.", SUSPICIOUS, lastException);
+        }
 
-            if (allowDirectVideoIds && directVideoIdMatcher.matches()) {
-                return routeFromVideoId(httpInterface, identifier, null);
+        return null;
+    }
+
+    /**
+     * Loads a routed identifier with one client, on an interface of its own.
+     */
+    @Nullable
+    private AudioItem loadWithClient(@NotNull Client client,
+                                     @NotNull String identifier,
+                                     @NotNull KeyedRouter router) throws UnloadableItemException, IOException {
+        logOauthWarningIfNeeded(client);
+        log.debug("Attempting to load {} with client \"{}\"", identifier, client.getIdentifier());
+
+        ClientOperation operation = operationOf(router);
+        long startTime = System.nanoTime();
+
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+            if (operation != null && !circuitBreakers.tryAcquire(client.getIdentifier(), InnertubeEndpoint.of(operation))) {
+                throw new CircuitOpenException(client.getIdentifier(), InnertubeEndpoint.of(operation));
             }
 
-            Matcher playlistIdMatcher = directPlaylistIdPattern.matcher(identifier);
+            httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+            httpInterface.getContext().setAttribute(Client.IDENTIFIER_ATTRIBUTE, client.getIdentifier());
+            AudioItem item = router.on(httpInterface).route(client);
 
-            if (allowDirectPlaylistIds && playlistIdMatcher.matches()) {
-                return (client) -> client.loadPlaylist(this, httpInterface, identifier, null);
+            if (item != null) {
+                recordOutcome(client, operation, true, startTime);
             }
 
-            Matcher shortHandMatcher = shortHandPattern.matcher(identifier);
+            return item;
+        } catch (CannotBeLoaded cbl) {
+            recordOutcome(client, operation, true, startTime);
+            throw new UnloadableItemException(cbl);
+        } catch (Throwable t) {
+            if (!(t instanceof CircuitOpenException) && !Thread.currentThread().isInterrupted()) {
+                // Attempts that lost the race are interrupted, which says nothing about the client.
+                recordOutcome(client, operation, false, startTime);
+            }
 
-            if (shortHandMatcher.matches()) {
-                return routeFromVideoId(httpInterface, shortHandMatcher.group("videoId"), null);
+            log.debug("Client \"{}\" threw a non-fatal exception, storing and proceeding...", client.getIdentifier(), t);
+            t.addSuppressed(ClientInformation.create(client));
+            throw t;
+        }
+    }
+
+    private void logOauthWarningIfNeeded(@NotNull Client client) {
+        boolean shouldLogOauthWarning = client.supportsOAuth() && !loggedOauthClientNoAccountWarning &&
+            !oauth2Handler.hasAccessToken() && client.getOptions().getPlayback();
+
+        if (shouldLogOauthWarning) {
+            loggedOauthClientNoAccountWarning = true;
+            log.warn("!!! You are using an OAuth-enabled client without a valid OAuth token! This client may not play videos!");
+        }
+    }
+
+    @Nullable
+    protected Router getRouter(@NotNull HttpInterface httpInterface, @NotNull String identifier) {
+        if (identifier.startsWith(SEARCH_PREFIX)) {
+            if (allowSearch) {
+                String trimmed = identifier.substring(SEARCH_PREFIX.length()).trim();
+
+                if (trimmed.isEmpty()) {
+                    return Router.none; // Equivalent to returning AudioReference.NO_TRACK.
+                }
+
+                return keyed(RouteKey.search(trimmed), httpInterface, (client, routeInterface) -> client.loadSearch(this, routeInterface, trimmed));
+            }
+        } else if (identifier.startsWith(MUSIC_SEARCH_PREFIX)) {
+            if (allowSearch) {
+                String trimmed = identifier.substring(MUSIC_SEARCH_PREFIX.length()).trim();
+
+                if (trimmed.isEmpty()) {
+                    return Router.none; // Equivalent to returning AudioReference.NO_TRACK.
+                }
+
+                return keyed(RouteKey.musicSearch(trimmed), httpInterface, (client, routeInterface) -> client.loadSearchMusic(this, routeInterface, trimmed));
+            }
+        } else {
+            IdentifierClassifier.Classification classification = IdentifierClassifier.classify(identifier, allowDirectVideoIds, allowDirectPlaylistIds);
+
+            switch (classification.kind) {
+                case WATCH:
+                case VIDEO_ID:
+                case SHORT_URL:
+                    return routeFromVideoId(httpInterface, classification.videoId, classification.playlistId);
+                case PLAYLIST:
+                    String playlistId = classification.playlistId;
+
+                    if (playlistId.startsWith("RD")) { // mix handling
+                        String videoId = playlistId.substring(2);
+                        return keyed(RouteKey.mix(playlistId, videoId), httpInterface, (client, routeInterface) -> client.loadMix(this, routeInterface, playlistId, videoId));
+                    }
+
+                    return keyed(RouteKey.playlist(playlistId, null), httpInterface, (client, routeInterface) -> client.loadPlaylist(this, routeInterface, playlistId, null));
+                case PLAYLIST_ID:
+                    return keyed(RouteKey.playlist(identifier, null), httpInterface, (client, routeInterface) -> client.loadPlaylist(this, routeInterface, identifier, null));
+                case WATCH_VIDEOS:
+                    try (CloseableHttpResponse response = httpInterface.execute(new HttpGet("https://www.youtube.com/watch_videos?video_ids=" + classification.videoId))) {
+                        HttpClientTools.assertSuccessWithContent(response, "playlist response");
+                        List<URI> redirects = httpInterface.getContext().getRedirectLocations();
+
+                        if (redirects != null && !redirects.isEmpty()) {
+                            return getRouter(httpInterface, redirects.get(0).toString());
+                        }
+
+                        throw new FriendlyException("Unable to process youtube watch_videos link", SUSPICIOUS,
+                            new IllegalStateException("Expected youtube to redirect watch_videos link to a watch?v={id}&list={list_id} link, but it did not redirect at all"));
+                    } catch (Exception e) {
+                        throw ExceptionTools.wrapUnfriendlyExceptions(e);
+                    }
+                default:
+                    break;
             }
         }
 
@@ -357,25 +926,33 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
     protected Router routeFromVideoId(@NotNull HttpInterface httpInterface,
                                       @NotNull String videoId,
                                       @Nullable UrlInfo urlInfo) {
+        return routeFromVideoId(httpInterface, videoId, urlInfo != null ? urlInfo.parameters.get("list") : null);
+    }
+
+    /**
+     * @param playlistId The {@code list} parameter of the link the video ID was taken from, if any.
+     */
+    @Nullable
+    protected Router routeFromVideoId(@NotNull HttpInterface httpInterface,
+                                      @NotNull String videoId,
+                                      @Nullable String playlistId) {
         String trimmedId = videoId.length() > 11 ? videoId.substring(0, 11) : videoId;
 
-        if (!directVideoIdPattern.matcher(trimmedId).matches()) {
+        if (!IdentifierClassifier.isVideoId(trimmedId)) {
             return Router.none;
-        } else if (urlInfo != null && urlInfo.parameters.containsKey("list")) {
-            String playlistId = urlInfo.parameters.get("list");
-
+        } else if (playlistId != null) {
             if (playlistId.startsWith("RD")) {
-                return (client) -> client.loadMix(this, httpInterface, playlistId, trimmedId);
+                return keyed(RouteKey.mix(playlistId, trimmedId), httpInterface, (client, routeInterface) -> client.loadMix(this, routeInterface, playlistId, trimmedId));
             }
 
             if (!playlistId.startsWith("LL") && // Liked videos (requires logged-in user)
                 !playlistId.startsWith("WL") && // Watch later (requires logged-in user)
                 !playlistId.startsWith("LM")) { // Liked music (requires logged-in user)
-                return (client) -> client.loadPlaylist(this, httpInterface, playlistId, trimmedId);
+                return keyed(RouteKey.playlist(playlistId, trimmedId), httpInterface, (client, routeInterface) -> client.loadPlaylist(this, routeInterface, playlistId, trimmedId));
             }
         }
 
-        return (client) -> client.loadVideo(this, httpInterface, trimmedId);
+        return keyed(RouteKey.video(trimmedId), httpInterface, (client, routeInterface) -> client.loadVideo(this, routeInterface, trimmedId));
     }
 
     @NotNull
@@ -405,6 +982,45 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
         this.cipherManager = cipherManager;
     }
 
+    @Nullable
+    public ItemCache getItemCache() {
+        return itemCache;
+    }
+
+    /**
+     * @param itemCache The cache to serve repeated loads of the same identifiers from, or {@code null} to
+     *                  always query YouTube.
+     */
+    public void setItemCache(@Nullable ItemCache itemCache) {
+        this.itemCache = itemCache;
+    }
+
+    @Nullable
+    public StreamUrlCache getStreamUrlCache() {
+        return streamUrlCache;
+    }
+
+    /**
+     * @param streamUrlCache The cache to reuse signed stream URLs from when replaying videos, or {@code null} to
+     *                       always load formats from YouTube.
+     */
+    public void setStreamUrlCache(@Nullable StreamUrlCache streamUrlCache) {
+        this.streamUrlCache = streamUrlCache;
+    }
+
+    @Nullable
+    public ContainerIndexCache getContainerIndexCache() {
+        return containerIndexCache;
+    }
+
+    /**
+     * @param containerIndexCache The cache to serve container headers and indexes from when seeking or resuming
+     *                            streams, or {@code null} to always request them.
+     */
+    public void setContainerIndexCache(@Nullable ContainerIndexCache containerIndexCache) {
+        this.containerIndexCache = containerIndexCache;
+    }
+
     /**
      * Returns a client by the given type, if registered.
      * @param cls The class of the client to return.
@@ -421,6 +1037,39 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
         return null;
     }
 
+    /**
+     * @return The executor that asynchronous, hedged and bulk loads, prefetches and stream read-ahead run on.
+     */
+    @NotNull
+    public ExecutorService getLoadExecutor() {
+        return loadExecutor;
+    }
+
+    public boolean isStreamReadAhead() {
+        return streamReadAhead;
+    }
+
+    @NotNull
+    public ChunkSizeStrategy getChunkSizeStrategy() {
+        return chunkSizeStrategy;
+    }
+
+    /**
+     * @return The scheduler that orders clients, and tracks their recent success rate and latency.
+     */
+    @NotNull
+    public ClientScheduler getClientScheduler() {
+        return clientScheduler;
+    }
+
+    /**
+     * @return The circuit breakers that pause clients on InnerTube endpoints which keep rejecting them.
+     */
+    @NotNull
+    public CircuitBreakers getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
     @NotNull
     public Client[] getClients() {
         return clients;
@@ -459,14 +1108,83 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
     @Override
     @NotNull
     public AudioTrack decodeTrack(@NotNull AudioTrackInfo trackInfo, @NotNull DataInput input) {
+        startPlayerScriptRefresher();
         return new YoutubeAudioTrack(trackInfo, this);
     }
 
+    private void startPlayerScriptRefresher() {
+        if (playerScriptRefresher != null) {
+            playerScriptRefresher.start();
+        }
+    }
+
     @Override
     public void shutdown() {
+        if (playerScriptRefresher != null) {
+            playerScriptRefresher.close();
+        }
+
+        if (ownsLoadExecutor) {
+            loadExecutor.shutdownNow();
+        }
+
+        if (cipherManager instanceof AutoCloseable) {
+            ExceptionTools.closeWithWarnings((AutoCloseable) cipherManager);
+        }
+
         ExceptionTools.closeWithWarnings(httpInterfaceManager);
     }
 
+    /**
+     * Carries a {@link CannotBeLoaded} out of a hedged load attempt, as it is not an {@link Exception}.
+     */
+    private static class UnloadableItemException extends Exception {
+        private UnloadableItemException(@NotNull CannotBeLoaded cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+    }
+
+    @NotNull
+    protected static Router keyed(@NotNull RouteKey key, @NotNull HttpInterface httpInterface, @NotNull InterfaceRoute route) {
+        return new KeyedRouter(key, httpInterface, route);
+    }
+
+    /**
+     * A router that knows what its identifier resolves to, which allows caching its results. Its requests can be
+     * moved to another interface, so the identifier only needs to be routed once for loads running in parallel.
+     */
+    protected static class KeyedRouter implements Router {
+        protected final RouteKey key;
+        private final HttpInterface httpInterface;
+        private final InterfaceRoute route;
+
+        protected KeyedRouter(@NotNull RouteKey key, @NotNull HttpInterface httpInterface, @NotNull InterfaceRoute route) {
+            this.key = key;
+            this.httpInterface = httpInterface;
+            this.route = route;
+        }
+
+        /**
+         * @return The same route, sending its requests on the given interface.
+         */
+        @NotNull
+        protected KeyedRouter on(@NotNull HttpInterface other) {
+            return new KeyedRouter(key, other, route);
+        }
+
+        @Override
+        @Nullable
+        public AudioItem route(@NotNull Client client) throws CannotBeLoaded, IOException {
+            return route.route(client, httpInterface);
+        }
+    }
+
+    @FunctionalInterface
+    protected interface InterfaceRoute {
+        @Nullable
+        AudioItem route(@NotNull Client client, @NotNull HttpInterface httpInterface) throws CannotBeLoaded, IOException;
+    }
+
     @FunctionalInterface
     protected interface Router {
         Router none = (unused) -> AudioReference.NO_TRACK;
@@ -1,7 +1,16 @@
 package dev.lavalink.youtube;
 
+import dev.lavalink.youtube.cipher.RemoteCipherManager;
+import dev.lavalink.youtube.cache.ItemCache;
+import dev.lavalink.youtube.cache.ContainerIndexCache;
+import dev.lavalink.youtube.cache.StreamUrlCache;
+import dev.lavalink.youtube.scheduler.CircuitBreakers;
+import dev.lavalink.youtube.track.ChunkSizeStrategy;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.ExecutorService;
+
 public class YoutubeSourceOptions {
     private boolean allowSearch = true;
     private boolean allowDirectVideoIds = true;
@@ -9,6 +18,21 @@ public class YoutubeSourceOptions {
     private String remoteCipherUrl;
     private String remoteCipherPassword;
     private String remoteCipherUserAgent;
+    private long remoteCipherRequestTimeoutMs = RemoteCipherManager.DEFAULT_REQUEST_TIMEOUT_MS;
+    private int remoteCipherMaxConcurrentRequests = RemoteCipherManager.DEFAULT_MAX_CONCURRENT_REQUESTS;
+    private long playerScriptRefreshIntervalMs = 0;
+    private String cipherCacheDirectory;
+    private long hedgedLoadDelayMs = -1;
+    private ItemCache itemCache;
+    private StreamUrlCache streamUrlCache;
+    private ContainerIndexCache containerIndexCache;
+    private boolean adaptiveClientOrdering = false;
+    private int circuitBreakerFailureThreshold = CircuitBreakers.DEFAULT_FAILURE_THRESHOLD;
+    private long circuitBreakerOpenDurationMs = CircuitBreakers.DEFAULT_OPEN_DURATION_MS;
+    private ExecutorService loadExecutor;
+    private boolean useVirtualThreads = false;
+    private boolean streamReadAhead = false;
+    private ChunkSizeStrategy chunkSizeStrategy = ChunkSizeStrategy.fixed(ChunkSizeStrategy.THROTTLING_THRESHOLD);
 
     public boolean isAllowSearch() {
         return allowSearch;
@@ -57,5 +81,222 @@ public class YoutubeSourceOptions {
         return remoteCipherUserAgent;
     }
 
+    public long getRemoteCipherRequestTimeoutMs() {
+        return remoteCipherRequestTimeoutMs;
+    }
+
+    /**
+     * @param remoteCipherRequestTimeoutMs The deadline of a single request to the remote cipher service, in milliseconds.
+     *                                     This includes the time a request spends waiting for a free connection.
+     */
+    public YoutubeSourceOptions setRemoteCipherRequestTimeoutMs(long remoteCipherRequestTimeoutMs) {
+        this.remoteCipherRequestTimeoutMs = remoteCipherRequestTimeoutMs;
+        return this;
+    }
+
+    public int getRemoteCipherMaxConcurrentRequests() {
+        return remoteCipherMaxConcurrentRequests;
+    }
+
+    /**
+     * @param remoteCipherMaxConcurrentRequests The maximum number of requests in flight to the remote cipher service.
+     *                                          Further requests are queued until a connection is free.
+     */
+    public YoutubeSourceOptions setRemoteCipherMaxConcurrentRequests(int remoteCipherMaxConcurrentRequests) {
+        this.remoteCipherMaxConcurrentRequests = remoteCipherMaxConcurrentRequests;
+        return this;
+    }
+
+    public long getPlayerScriptRefreshIntervalMs() {
+        return playerScriptRefreshIntervalMs;
+    }
+
+    /**
+     * @param playerScriptRefreshIntervalMs How often to check for a new player script in the background, in milliseconds.
+     *                                      A new script is loaded and parsed before being swapped in, so player
+     *                                      script rotation doesn't delay track loading. {@code 0} disables this,
+     *                                      in which case the script is refreshed when a request finds it expired.
+     *                                      Refreshing starts with the first item that is loaded or decoded.
+     */
+    public YoutubeSourceOptions setPlayerScriptRefreshIntervalMs(long playerScriptRefreshIntervalMs) {
+        this.playerScriptRefreshIntervalMs = playerScriptRefreshIntervalMs;
+        return this;
+    }
+
+    @Nullable
+    public String getCipherCacheDirectory() {
+        return cipherCacheDirectory;
+    }
+
+    /**
+     * @param cipherCacheDirectory A directory to persist extracted ciphers and the current player script in, so they
+     *                             survive restarts.
+     *                             Only used with local ciphers. {@code null} disables this.
+     */
+    public YoutubeSourceOptions setCipherCacheDirectory(@Nullable String cipherCacheDirectory) {
+        this.cipherCacheDirectory = cipherCacheDirectory;
+        return this;
+    }
+
+    public long getHedgedLoadDelayMs() {
+        return hedgedLoadDelayMs;
+    }
+
+    /**
+     * @param hedgedLoadDelayMs How long to wait for a client to load an item before also starting the next
+     *                          eligible client in parallel, in milliseconds. The next client also starts as soon as
+     *                          the previous one fails, and the first client to load the item wins. A negative value
+     *                          (the default) disables this, in which case clients are tried strictly one by one.
+     */
+    public YoutubeSourceOptions setHedgedLoadDelayMs(long hedgedLoadDelayMs) {
+        this.hedgedLoadDelayMs = hedgedLoadDelayMs;
+        return this;
+    }
+
+    @Nullable
+    public ItemCache getItemCache() {
+        return itemCache;
+    }
+
+    /**
+     * @param itemCache A cache for the results of loading videos, playlists, mixes and searches, so repeated
+     *                  loads of the same identifier don't query YouTube. {@code null} (the default) disables this.
+     * @see dev.lavalink.youtube.cache.InMemoryItemCache
+     */
+    public YoutubeSourceOptions setItemCache(@Nullable ItemCache itemCache) {
+        this.itemCache = itemCache;
+        return this;
+    }
+
+    @Nullable
+    public StreamUrlCache getStreamUrlCache() {
+        return streamUrlCache;
+    }
 
+    /**
+     * @param streamUrlCache A cache for the signed stream URLs of played videos, so replaying a video while its
+     *                       URL is valid needs no requests to YouTube. {@code null} (the default) disables this.
+     */
+    public YoutubeSourceOptions setStreamUrlCache(@Nullable StreamUrlCache streamUrlCache) {
+        this.streamUrlCache = streamUrlCache;
+        return this;
+    }
+
+    @Nullable
+    public ContainerIndexCache getContainerIndexCache() {
+        return containerIndexCache;
+    }
+
+    /**
+     * @param containerIndexCache A cache for the container headers and indexes of played formats, so seeking and
+     *                            resuming expired streams need fewer range requests. {@code null} (the default)
+     *                            disables this.
+     */
+    public YoutubeSourceOptions setContainerIndexCache(@Nullable ContainerIndexCache containerIndexCache) {
+        this.containerIndexCache = containerIndexCache;
+        return this;
+    }
+
+    public boolean isAdaptiveClientOrdering() {
+        return adaptiveClientOrdering;
+    }
+
+    /**
+     * @param adaptiveClientOrdering Whether to try clients in order of their recent success rate and latency,
+     *                               instead of their configured order. Clients that keep failing are tried last
+     *                               for a while. Disabled by default.
+     * @see dev.lavalink.youtube.scheduler.ClientScheduler
+     */
+    public YoutubeSourceOptions setAdaptiveClientOrdering(boolean adaptiveClientOrdering) {
+        this.adaptiveClientOrdering = adaptiveClientOrdering;
+        return this;
+    }
+
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    /**
+     * @param circuitBreakerFailureThreshold How many 400, 403 or 429 responses in a row a client may get from an
+     *                                       InnerTube endpoint before it stops sending requests there for a while,
+     *                                       and the next client is used instead. 0 or less disables this.
+     */
+    public YoutubeSourceOptions setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+        return this;
+    }
+
+    public long getCircuitBreakerOpenDurationMs() {
+        return circuitBreakerOpenDurationMs;
+    }
+
+    /**
+     * @param circuitBreakerOpenDurationMs How long a client stops sending requests to an endpoint that keeps
+     *                                     rejecting it, in milliseconds. A single request is then sent to check if
+     *                                     the endpoint recovered, and if it didn't, the pause doubles.
+     */
+    public YoutubeSourceOptions setCircuitBreakerOpenDurationMs(long circuitBreakerOpenDurationMs) {
+        this.circuitBreakerOpenDurationMs = circuitBreakerOpenDurationMs;
+        return this;
+    }
+
+    @Nullable
+    public ExecutorService getLoadExecutor() {
+        return loadExecutor;
+    }
+
+    /**
+     * @param loadExecutor The executor to run asynchronous loads, hedged loads, bulk loads and cache revalidation on.
+     *                     Loads may wait for other tasks on the same executor, so it must not be bounded below the
+     *                     expected number of concurrent loads. The executor is not shut down with the source manager.
+     *                     {@code null} (the default) uses a cached thread pool, or virtual threads if enabled
+     *                     with {@link #setUseVirtualThreads(boolean)}.
+     */
+    public YoutubeSourceOptions setLoadExecutor(@Nullable ExecutorService loadExecutor) {
+        this.loadExecutor = loadExecutor;
+        return this;
+    }
+
+    public boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    /**
+     * @param useVirtualThreads Whether the default load executor should use virtual threads when running on Java 21 or
+     *                          newer. Ignored if a load executor is set. Disabled by default, as some loads block
+     *                          on network I/O while holding a monitor, which pins the carrier thread before
+     *                          Java 24.
+     */
+    public YoutubeSourceOptions setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+        return this;
+    }
+
+    public boolean isStreamReadAhead() {
+        return streamReadAhead;
+    }
+
+    /**
+     * @param streamReadAhead Whether to request the next range of a playing stream on the load executor shortly
+     *                        before the current one ends, so playback doesn't wait for a new connection at range
+     *                        boundaries. Disabled by default.
+     */
+    public YoutubeSourceOptions setStreamReadAhead(boolean streamReadAhead) {
+        this.streamReadAhead = streamReadAhead;
+        return this;
+    }
+
+    @NotNull
+    public ChunkSizeStrategy getChunkSizeStrategy() {
+        return chunkSizeStrategy;
+    }
+
+    /**
+     * @param chunkSizeStrategy Decides how many bytes of a stream are requested per connection. Defaults to
+     *                          {@link ChunkSizeStrategy#THROTTLING_THRESHOLD} bytes.
+     */
+    public YoutubeSourceOptions setChunkSizeStrategy(@NotNull ChunkSizeStrategy chunkSizeStrategy) {
+        this.chunkSizeStrategy = chunkSizeStrategy;
+        return this;
+    }
 }
@@ -0,0 +1,207 @@
+package dev.lavalink.youtube.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * A thread-safe LRU cache bounded by both the number of entries and their total weight, where every entry
+ * also expires after a fixed time since it was written. Expired entries are dropped lazily on lookup and
+ * periodically on writes.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class BoundedCache<K, V> {
+    private static final long SWEEP_INTERVAL_MS = 60_000;
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long defaultTtlMs;
+    private final Weigher<? super K, ? super V> weigher;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long totalWeight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long lastSweepMs;
+
+    /**
+     * @param maxEntries   The maximum number of entries.
+     * @param maxWeight    The maximum total weight of all entries, as measured by the weigher.
+     * @param defaultTtlMs How long an entry lives after being written, in milliseconds.
+     * @param weigher      Computes the weight of an entry. An entry heavier than maxWeight is never stored.
+     */
+    public BoundedCache(int maxEntries,
+                        long maxWeight,
+                        long defaultTtlMs,
+                        @NotNull Weigher<? super K, ? super V> weigher) {
+        if (maxEntries <= 0 || maxWeight <= 0 || defaultTtlMs <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        }
+
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.defaultTtlMs = defaultTtlMs;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Creates a cache that is only bounded by its entry count.
+     */
+    public BoundedCache(int maxEntries, long defaultTtlMs) {
+        this(maxEntries, Long.MAX_VALUE, defaultTtlMs, (key, value) -> 1);
+    }
+
+    @Nullable
+    public synchronized V get(@NotNull K key) {
+        Entry<V> entry = entries.get(key);
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        if (entry.isExpired(System.currentTimeMillis())) {
+            removeEntry(key, entry);
+            evictions++;
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.value;
+    }
+
+    public void put(@NotNull K key, @NotNull V value) {
+        put(key, value, defaultTtlMs);
+    }
+
+    /**
+     * Stores an entry with its own time to live, replacing any previous entry for the key.
+     */
+    public synchronized void put(@NotNull K key, @NotNull V value, long ttlMs) {
+        long now = System.currentTimeMillis();
+        long weight = Math.max(0, weigher.weigh(key, value));
+
+        Entry<V> previous = entries.remove(key);
+
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        }
+
+        if (weight > maxWeight || ttlMs <= 0) {
+            return;
+        }
+
+        entries.put(key, new Entry<>(value, weight, now + ttlMs));
+        totalWeight += weight;
+
+        if (now - lastSweepMs >= SWEEP_INTERVAL_MS) {
+            lastSweepMs = now;
+            removeIf((k, v) -> false, now);
+        }
+
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = iterator.next();
+            iterator.remove();
+            totalWeight -= eldest.getValue().weight;
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes the entry for a key.
+     * @return The removed value, or {@code null} if there was no entry or it had expired.
+     */
+    @Nullable
+    public synchronized V remove(@NotNull K key) {
+        Entry<V> entry = entries.remove(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        totalWeight -= entry.weight;
+
+        if (entry.isExpired(System.currentTimeMillis())) {
+            evictions++;
+            return null;
+        }
+
+        return entry.value;
+    }
+
+    /**
+     * Removes all entries matching the predicate. Expired entries are removed regardless.
+     */
+    public synchronized void removeIf(@NotNull BiPredicate<? super K, ? super V> predicate) {
+        removeIf(predicate, System.currentTimeMillis());
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @NotNull
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, entries.size(), totalWeight);
+    }
+
+    private void removeIf(@NotNull BiPredicate<? super K, ? super V> predicate, long now) {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            boolean expired = entry.getValue().isExpired(now);
+
+            if (expired || predicate.test(entry.getKey(), entry.getValue().value)) {
+                iterator.remove();
+                totalWeight -= entry.getValue().weight;
+
+                if (expired) {
+                    evictions++;
+                }
+            }
+        }
+    }
+
+    private void removeEntry(@NotNull K key, @NotNull Entry<V> entry) {
+        entries.remove(key);
+        totalWeight -= entry.weight;
+    }
+
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+        long weigh(@NotNull K key, @NotNull V value);
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long expiresAtMs;
+
+        private Entry(V value, long weight, long expiresAtMs) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAtMs;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package dev.lavalink.youtube.cache;
+
+/**
+ * An immutable snapshot of the counters of a {@link BoundedCache}.
+ */
+public class CacheStats {
+    public static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0);
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+    private final long weight;
+
+    public CacheStats(long hits, long misses, long evictions, int size, long weight) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    /**
+     * @return The number of lookups that found a live entry.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of lookups that found no entry, or only an expired one.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The number of entries removed because of expiry or the cache bounds.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return The number of entries in the cache at the time of the snapshot.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return The total weight of the entries in the cache at the time of the snapshot.
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return The ratio of hits to lookups, or 0 if there were no lookups.
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+            "hits=" + hits +
+            ", misses=" + misses +
+            ", evictions=" + evictions +
+            ", size=" + size +
+            ", weight=" + weight +
+            '}';
+    }
+}
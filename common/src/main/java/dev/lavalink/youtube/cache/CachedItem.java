@@ -0,0 +1,134 @@
+package dev.lavalink.youtube.cache;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.BasicAudioPlaylist;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An immutable snapshot of a loaded {@link AudioItem}. Only the {@link AudioTrackInfo} of tracks is kept, so
+ * every lookup builds fresh track instances and a cached item never shares playback state between players.
+ */
+public class CachedItem {
+    public enum Kind {
+        TRACK,
+        PLAYLIST,
+        NO_TRACK
+    }
+
+    private final Kind kind;
+    private final List<AudioTrackInfo> tracks;
+    private final @Nullable String playlistName;
+    private final int selectedTrack;
+    private final boolean searchResult;
+    private final long freshUntilMs;
+
+    private CachedItem(@NotNull Kind kind,
+                       @NotNull List<AudioTrackInfo> tracks,
+                       @Nullable String playlistName,
+                       int selectedTrack,
+                       boolean searchResult,
+                       long freshUntilMs) {
+        this.kind = kind;
+        this.tracks = tracks;
+        this.playlistName = playlistName;
+        this.selectedTrack = selectedTrack;
+        this.searchResult = searchResult;
+        this.freshUntilMs = freshUntilMs;
+    }
+
+    /**
+     * @param item         The item to take a snapshot of.
+     * @param freshUntilMs The time after which the snapshot should be reloaded, in epoch milliseconds.
+     * @return The snapshot, or {@code null} if the item can't be cached. Live streams are never cached,
+     *         as their details change while they are live.
+     */
+    @Nullable
+    public static CachedItem of(@NotNull AudioItem item, long freshUntilMs) {
+        if (item == AudioReference.NO_TRACK) {
+            return new CachedItem(Kind.NO_TRACK, Collections.emptyList(), null, -1, false, freshUntilMs);
+        }
+
+        if (item instanceof AudioTrack) {
+            AudioTrackInfo info = ((AudioTrack) item).getInfo();
+
+            if (info.isStream) {
+                return null;
+            }
+
+            return new CachedItem(Kind.TRACK, Collections.singletonList(info), null, -1, false, freshUntilMs);
+        }
+
+        if (item instanceof AudioPlaylist) {
+            AudioPlaylist playlist = (AudioPlaylist) item;
+            List<AudioTrackInfo> tracks = new ArrayList<>(playlist.getTracks().size());
+            int selectedTrack = -1;
+
+            for (AudioTrack track : playlist.getTracks()) {
+                if (track == playlist.getSelectedTrack()) {
+                    selectedTrack = tracks.size();
+                }
+
+                tracks.add(track.getInfo());
+            }
+
+            return new CachedItem(Kind.PLAYLIST, Collections.unmodifiableList(tracks), playlist.getName(),
+                selectedTrack, playlist.isSearchResult(), freshUntilMs);
+        }
+
+        return null;
+    }
+
+    /**
+     * @param trackFactory Builds a track from its info, usually {@code YoutubeAudioSourceManager::buildAudioTrack}.
+     * @return A new item equivalent to the one this snapshot was taken of.
+     */
+    @NotNull
+    public AudioItem toAudioItem(@NotNull Function<AudioTrackInfo, AudioTrack> trackFactory) {
+        switch (kind) {
+            case TRACK:
+                return trackFactory.apply(tracks.get(0));
+            case PLAYLIST:
+                List<AudioTrack> built = new ArrayList<>(tracks.size());
+
+                for (AudioTrackInfo info : tracks) {
+                    built.add(trackFactory.apply(info));
+                }
+
+                return new BasicAudioPlaylist(playlistName, built, selectedTrack >= 0 ? built.get(selectedTrack) : null, searchResult);
+            default:
+                return AudioReference.NO_TRACK;
+        }
+    }
+
+    @NotNull
+    public Kind getKind() {
+        return kind;
+    }
+
+    @NotNull
+    public List<AudioTrackInfo> getTracks() {
+        return tracks;
+    }
+
+    public boolean isNegative() {
+        return kind == Kind.NO_TRACK;
+    }
+
+    /**
+     * @return Whether the snapshot is past its freshness deadline. Stale snapshots may still be served
+     *         while they are reloaded in the background.
+     */
+    public boolean isStale() {
+        return System.currentTimeMillis() >= freshUntilMs;
+    }
+}
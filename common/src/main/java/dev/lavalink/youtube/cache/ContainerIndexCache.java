@@ -0,0 +1,94 @@
+package dev.lavalink.youtube.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the leading bytes of a format, from the start of the file to the end of its index (the moov and sidx
+ * boxes of MP4, or the headers and cues of WebM). These bytes don't change between stream URLs, so once cached,
+ * the container can be parsed again without requesting them, and the first range request of a seek or restart
+ * goes straight to the media it needs.
+ * <p>
+ * Headers are keyed by the content length of the format as well as its itag, as the audio tracks of a video in
+ * other languages share the same itag.
+ */
+public class ContainerIndexCache {
+    public static final long DEFAULT_TTL_MS = TimeUnit.HOURS.toMillis(6);
+    public static final int MAX_HEADER_LENGTH = 1024 * 1024;
+
+    private final BoundedCache<Key, byte[]> cache;
+
+    /**
+     * @param maxEntries The maximum number of formats to remember headers for.
+     * @param maxBytes   The maximum total size of all cached headers, in bytes.
+     * @param ttlMs      How long a header is kept after being cached, in milliseconds.
+     */
+    public ContainerIndexCache(int maxEntries, long maxBytes, long ttlMs) {
+        this.cache = new BoundedCache<>(maxEntries, maxBytes, ttlMs, (key, header) -> header.length);
+    }
+
+    public ContainerIndexCache(int maxEntries) {
+        this(maxEntries, (long) maxEntries * 64 * 1024, DEFAULT_TTL_MS);
+    }
+
+    /**
+     * @param contentLength The length of the whole format, in bytes.
+     * @param headerLength  The number of bytes from the start of the file to the end of its index.
+     * @return The cached header, or {@code null} if none is cached with the expected length.
+     */
+    @Nullable
+    public byte[] get(@NotNull String videoId, int itag, long contentLength, long headerLength) {
+        byte[] header = cache.get(new Key(videoId, itag, contentLength));
+        return header != null && header.length == headerLength ? header : null;
+    }
+
+    /**
+     * @param contentLength The length of the whole format, in bytes.
+     */
+    public void put(@NotNull String videoId, int itag, long contentLength, @NotNull byte[] header) {
+        if (header.length > 0 && header.length <= MAX_HEADER_LENGTH) {
+            cache.put(new Key(videoId, itag, contentLength), header);
+        }
+    }
+
+    public void invalidate(@NotNull String videoId, int itag, long contentLength) {
+        cache.remove(new Key(videoId, itag, contentLength));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    @NotNull
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    private static class Key {
+        private final String videoId;
+        private final int itag;
+        private final long contentLength;
+
+        private Key(@NotNull String videoId, int itag, long contentLength) {
+            this.videoId = videoId;
+            this.itag = itag;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return itag == key.itag && contentLength == key.contentLength && videoId.equals(key.videoId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(videoId, itag, contentLength);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package dev.lavalink.youtube.cache;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The default {@link ItemCache}. Every type of route has its own bounds and TTL, so a flood of
+ * searches can't push out cached videos. Identifiers which resolved to nothing are cached
+ * for a short, separate TTL.
+ */
+public class InMemoryItemCache implements ItemCache {
+    public static final long DEFAULT_NEGATIVE_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<RouteKey.Type, ItemCachePolicy> policies;
+    private final Map<RouteKey.Type, BoundedCache<RouteKey, CachedItem>> caches;
+    private final long negativeTtlMs;
+
+    public InMemoryItemCache() {
+        this(defaultPolicies(), DEFAULT_NEGATIVE_TTL_MS);
+    }
+
+    /**
+     * @param policies      The policy for each type of route. Routes of types without a policy are not cached.
+     * @param negativeTtlMs How long to remember that an identifier resolved to nothing, in milliseconds.
+     *                      {@code 0} disables negative caching.
+     */
+    public InMemoryItemCache(@NotNull Map<RouteKey.Type, ItemCachePolicy> policies, long negativeTtlMs) {
+        this.policies = new EnumMap<>(RouteKey.Type.class);
+        this.caches = new EnumMap<>(RouteKey.Type.class);
+        this.negativeTtlMs = negativeTtlMs;
+
+        for (Map.Entry<RouteKey.Type, ItemCachePolicy> entry : policies.entrySet()) {
+            ItemCachePolicy policy = entry.getValue();
+            this.policies.put(entry.getKey(), policy);
+            this.caches.put(entry.getKey(), new BoundedCache<>(policy.getMaxEntries(), policy.getTtlMs() + policy.getStaleWhileRevalidateMs()));
+        }
+    }
+
+    /**
+     * @return A new, mutable map of the default policies. Video details rarely change and are kept longest,
+     *         search results are kept shortest.
+     */
+    @NotNull
+    public static Map<RouteKey.Type, ItemCachePolicy> defaultPolicies() {
+        Map<RouteKey.Type, ItemCachePolicy> policies = new EnumMap<>(RouteKey.Type.class);
+        policies.put(RouteKey.Type.SEARCH, new ItemCachePolicy(2048, TimeUnit.MINUTES.toMillis(10), 0));
+        policies.put(RouteKey.Type.MUSIC_SEARCH, new ItemCachePolicy(1024, TimeUnit.MINUTES.toMillis(10), 0));
+        policies.put(RouteKey.Type.PLAYLIST, new ItemCachePolicy(512, TimeUnit.MINUTES.toMillis(30), 0));
+        policies.put(RouteKey.Type.MIX, new ItemCachePolicy(256, TimeUnit.MINUTES.toMillis(10), 0));
+        policies.put(RouteKey.Type.VIDEO, new ItemCachePolicy(4096, TimeUnit.HOURS.toMillis(1), 0));
+        return policies;
+    }
+
+    @Override
+    @Nullable
+    public CachedItem get(@NotNull RouteKey key) {
+        BoundedCache<RouteKey, CachedItem> cache = caches.get(key.getType());
+        return cache != null ? cache.get(key) : null;
+    }
+
+    @Override
+    public void put(@NotNull RouteKey key, @NotNull AudioItem item) {
+        BoundedCache<RouteKey, CachedItem> cache = caches.get(key.getType());
+
+        if (cache == null) {
+            return;
+        }
+
+        ItemCachePolicy policy = policies.get(key.getType());
+        long now = System.currentTimeMillis();
+
+        if (item == AudioReference.NO_TRACK) {
+            if (negativeTtlMs > 0) {
+                // Never served stale, so that a video becoming available is noticed quickly.
+                cache.put(key, CachedItem.of(item, now + negativeTtlMs), negativeTtlMs);
+            }
+
+            return;
+        }
+
+        CachedItem snapshot = CachedItem.of(item, now + policy.getTtlMs());
+
+        if (snapshot != null) {
+            cache.put(key, snapshot);
+        }
+    }
+
+    @Override
+    public void invalidate(@NotNull RouteKey key) {
+        BoundedCache<RouteKey, CachedItem> cache = caches.get(key.getType());
+
+        if (cache != null) {
+            cache.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (BoundedCache<RouteKey, CachedItem> cache : caches.values()) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return The counters of the cache for one type of route.
+     */
+    @NotNull
+    public CacheStats getStats(@NotNull RouteKey.Type type) {
+        BoundedCache<RouteKey, CachedItem> cache = caches.get(type);
+        return cache != null ? cache.getStats() : CacheStats.EMPTY;
+    }
+
+    @Override
+    @NotNull
+    public CacheStats getStats() {
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        int size = 0;
+        long weight = 0;
+
+        for (BoundedCache<RouteKey, CachedItem> cache : caches.values()) {
+            CacheStats stats = cache.getStats();
+            hits += stats.getHits();
+            misses += stats.getMisses();
+            evictions += stats.getEvictions();
+            size += stats.getSize();
+            weight += stats.getWeight();
+        }
+
+        return new CacheStats(hits, misses, evictions, size, weight);
+    }
+}
@@ -0,0 +1,38 @@
+package dev.lavalink.youtube.cache;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Caches the results of loading identifiers, so repeated loads of the same video, playlist or search
+ * don't need to query YouTube again. Implementations must be thread-safe.
+ *
+ * @see InMemoryItemCache
+ */
+public interface ItemCache {
+    /**
+     * @return The cached result for the route, or {@code null} if there is none. The result may be stale,
+     *         see {@link CachedItem#isStale()}.
+     */
+    @Nullable
+    CachedItem get(@NotNull RouteKey key);
+
+    /**
+     * Stores the result of loading a route. Implementations decide how long it is kept, and may
+     * ignore items they don't want to cache.
+     */
+    void put(@NotNull RouteKey key, @NotNull AudioItem item);
+
+    void invalidate(@NotNull RouteKey key);
+
+    void clear();
+
+    /**
+     * @return Hit, miss and eviction counters, or {@link CacheStats#EMPTY} if the implementation doesn't track them.
+     */
+    @NotNull
+    default CacheStats getStats() {
+        return CacheStats.EMPTY;
+    }
+}
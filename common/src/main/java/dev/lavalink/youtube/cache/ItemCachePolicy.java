@@ -0,0 +1,38 @@
+package dev.lavalink.youtube.cache;
+
+/**
+ * How an {@link InMemoryItemCache} keeps the results of one type of route.
+ */
+public class ItemCachePolicy {
+    private final int maxEntries;
+    private final long ttlMs;
+    private final long staleWhileRevalidateMs;
+
+    /**
+     * @param maxEntries             The maximum number of results to keep.
+     * @param ttlMs                  How long a result is fresh, in milliseconds.
+     * @param staleWhileRevalidateMs How long a result may still be served after it went stale, while it is
+     *                               reloaded in the background, in milliseconds. {@code 0} disables this.
+     */
+    public ItemCachePolicy(int maxEntries, long ttlMs, long staleWhileRevalidateMs) {
+        if (maxEntries <= 0 || ttlMs <= 0 || staleWhileRevalidateMs < 0) {
+            throw new IllegalArgumentException("Entry count and TTL must be positive, stale window must not be negative");
+        }
+
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.staleWhileRevalidateMs = staleWhileRevalidateMs;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public long getStaleWhileRevalidateMs() {
+        return staleWhileRevalidateMs;
+    }
+}
@@ -0,0 +1,93 @@
+package dev.lavalink.youtube.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Identifies what an identifier resolves to, independent of how it was written. For example, a video
+ * ID, a watch URL and a short URL of the same video all share one key.
+ */
+public final class RouteKey {
+    public enum Type {
+        SEARCH,
+        MUSIC_SEARCH,
+        PLAYLIST,
+        MIX,
+        VIDEO
+    }
+
+    private final Type type;
+    private final String value;
+
+    private RouteKey(@NotNull Type type, @NotNull String value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    @NotNull
+    public static RouteKey search(@NotNull String query) {
+        return new RouteKey(Type.SEARCH, normalizeQuery(query));
+    }
+
+    @NotNull
+    public static RouteKey musicSearch(@NotNull String query) {
+        return new RouteKey(Type.MUSIC_SEARCH, normalizeQuery(query));
+    }
+
+    /**
+     * @param selectedVideoId The video to select in the playlist, if any. Part of the key, as it changes the result.
+     */
+    @NotNull
+    public static RouteKey playlist(@NotNull String playlistId, @Nullable String selectedVideoId) {
+        return new RouteKey(Type.PLAYLIST, selectedVideoId == null ? playlistId : playlistId + "/" + selectedVideoId);
+    }
+
+    @NotNull
+    public static RouteKey mix(@NotNull String mixId, @NotNull String selectedVideoId) {
+        return new RouteKey(Type.MIX, mixId + "/" + selectedVideoId);
+    }
+
+    @NotNull
+    public static RouteKey video(@NotNull String videoId) {
+        return new RouteKey(Type.VIDEO, videoId);
+    }
+
+    @NotNull
+    public Type getType() {
+        return type;
+    }
+
+    @NotNull
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Search results don't depend on case or repeated whitespace, so queries differing only in those share a key.
+     */
+    @NotNull
+    private static String normalizeQuery(@NotNull String query) {
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RouteKey)) return false;
+        RouteKey other = (RouteKey) o;
+        return type == other.type && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, value);
+    }
+
+    @Override
+    public String toString() {
+        return type + ":" + value;
+    }
+}
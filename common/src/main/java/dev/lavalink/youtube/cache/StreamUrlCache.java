@@ -0,0 +1,93 @@
+package dev.lavalink.youtube.cache;
+
+import dev.lavalink.youtube.track.FormatWithUrl;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the format and signed URL that was last used to play a video with a client, so that replaying it
+ * while the URL is still valid needs no InnerTube requests or deciphering. Entries expire a margin before the
+ * {@code expire} parameter of their URL, and URLs without one are not cached.
+ */
+public class StreamUrlCache {
+    public static final long DEFAULT_EXPIRY_MARGIN_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final BoundedCache<Key, FormatWithUrl> cache;
+    private final long expiryMarginMs;
+
+    /**
+     * @param maxEntries     The maximum number of videos and clients to remember URLs for.
+     * @param expiryMarginMs How long before their expiry URLs are no longer used, in milliseconds. This should
+     *                       exceed the length of most tracks, so that URLs don't expire during playback.
+     */
+    public StreamUrlCache(int maxEntries, long expiryMarginMs) {
+        // The TTL of every entry is derived from its URL, so the default is never used.
+        this.cache = new BoundedCache<>(maxEntries, Long.MAX_VALUE);
+        this.expiryMarginMs = expiryMarginMs;
+    }
+
+    public StreamUrlCache(int maxEntries) {
+        this(maxEntries, DEFAULT_EXPIRY_MARGIN_MS);
+    }
+
+    @Nullable
+    public FormatWithUrl get(@NotNull String videoId, @NotNull String clientIdentifier) {
+        return cache.get(new Key(videoId, clientIdentifier));
+    }
+
+    public void put(@NotNull String videoId, @NotNull String clientIdentifier, @NotNull FormatWithUrl format) {
+        long expiresAtMs = format.getExpiresAtMs();
+
+        if (expiresAtMs == -1) {
+            return;
+        }
+
+        long ttlMs = expiresAtMs - expiryMarginMs - System.currentTimeMillis();
+
+        if (ttlMs > 0) {
+            cache.put(new Key(videoId, clientIdentifier), format, ttlMs);
+        }
+    }
+
+    /**
+     * Forgets the URL of a video for a client, typically because it was rejected.
+     */
+    public void invalidate(@NotNull String videoId, @NotNull String clientIdentifier) {
+        cache.remove(new Key(videoId, clientIdentifier));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    @NotNull
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    private static class Key {
+        private final String videoId;
+        private final String clientIdentifier;
+
+        private Key(@NotNull String videoId, @NotNull String clientIdentifier) {
+            this.videoId = videoId;
+            this.clientIdentifier = clientIdentifier;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return videoId.equals(key.videoId) && clientIdentifier.equals(key.clientIdentifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(videoId, clientIdentifier);
+        }
+    }
+}
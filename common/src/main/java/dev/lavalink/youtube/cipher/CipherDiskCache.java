@@ -0,0 +1,250 @@
+package dev.lavalink.youtube.cipher;
+
+import dev.lavalink.youtube.YoutubeSource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists successfully extracted ciphers to a directory, one file per player script, so that a restarted
+ * process can decipher without downloading and scanning the player script again. The player script in use,
+ * with its signature timestamp, is kept in a file of its own, so a restarted process does not need to look
+ * up the current script either. Files written by a different version of this source are ignored and removed,
+ * as extraction may have changed in between.
+ */
+class CipherDiskCache {
+    private static final Logger log = LoggerFactory.getLogger(CipherDiskCache.class);
+
+    private static final int MAGIC = 0x59545343; // "YTSC"
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".cipher";
+    private static final String PLAYER_SCRIPT_FILE = "current-player-script";
+    private static final int MAX_FIELD_LENGTH = 16 * 1024 * 1024;
+    private static final long MAX_AGE_MS = TimeUnit.DAYS.toMillis(7);
+
+    private final Path directory;
+
+    CipherDiskCache(@NotNull Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Reads every usable record in the directory, removing the ones which are stale or unreadable.
+     */
+    @NotNull
+    List<ParsedPlayerScript> loadAll() {
+        List<ParsedPlayerScript> scripts = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : files) {
+                ParsedPlayerScript script = readFile(file, null);
+
+                if (script != null) {
+                    scripts.add(script);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list cipher cache directory {}", directory, e);
+        }
+
+        return scripts;
+    }
+
+    @Nullable
+    ParsedPlayerScript read(@NotNull String url) {
+        return readFile(getFile(url), url);
+    }
+
+    void write(@NotNull ParsedPlayerScript script) {
+        SignatureCipher cipher = script.cipher;
+
+        if (cipher == null) {
+            // Failed extractions are not persisted, a newer process may well be able to handle the script.
+            return;
+        }
+
+        writeAtomically(getFile(script.url), output -> {
+            writeString(output, script.url);
+            output.writeLong(script.parsedAtMs);
+            output.writeInt(script.scriptLength);
+            writeString(output, cipher.timestamp);
+            writeString(output, cipher.globalVars);
+            writeString(output, cipher.sigActions);
+            writeString(output, cipher.sigFunction);
+            writeString(output, cipher.nFunction);
+        });
+    }
+
+    /**
+     * @return The player script that was in use when it was last written, or {@code null} if it has expired since.
+     */
+    @Nullable
+    CipherManager.CachedPlayerScript readPlayerScript() {
+        Path file = directory.resolve(PLAYER_SCRIPT_FILE);
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (!readHeader(input)) {
+                log.debug("Removing player script file {} written by another version", file);
+                deleteQuietly(file);
+                return null;
+            }
+
+            String url = readString(input);
+            String signatureTimestamp = readString(input);
+            long expireTimestampMs = input.readLong();
+
+            if (System.currentTimeMillis() >= expireTimestampMs) {
+                deleteQuietly(file);
+                return null;
+            }
+
+            return new CipherManager.CachedPlayerScript(url, signatureTimestamp, expireTimestampMs);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Removing unreadable player script file {}", file, e);
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    void writePlayerScript(@NotNull CipherManager.CachedPlayerScript script) {
+        writeAtomically(directory.resolve(PLAYER_SCRIPT_FILE), output -> {
+            writeString(output, script.url);
+            writeString(output, script.signatureTimestamp);
+            output.writeLong(script.expireTimestampMs);
+        });
+    }
+
+    private void writeAtomically(@NotNull Path file, @NotNull RecordWriter writer) {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                writeString(output, YoutubeSource.VERSION);
+                writer.write(output);
+            }
+
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write cipher cache file {}", file, e);
+            deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * @return Whether the file was written by this version of the source.
+     */
+    private static boolean readHeader(@NotNull DataInputStream input) throws IOException {
+        return input.readInt() == MAGIC && input.readInt() == FORMAT_VERSION && YoutubeSource.VERSION.equals(readString(input));
+    }
+
+    @Nullable
+    private ParsedPlayerScript readFile(@NotNull Path file, @Nullable String expectedUrl) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (!readHeader(input)) {
+                log.debug("Removing cipher cache file {} written by another version", file);
+                deleteQuietly(file);
+                return null;
+            }
+
+            String url = readString(input);
+            long parsedAtMs = input.readLong();
+            int scriptLength = input.readInt();
+
+            if (expectedUrl != null && !expectedUrl.equals(url)) {
+                // Hash collision, leave the file to its owner.
+                return null;
+            }
+
+            if (System.currentTimeMillis() - parsedAtMs > MAX_AGE_MS) {
+                deleteQuietly(file);
+                return null;
+            }
+
+            String timestamp = readString(input);
+            SignatureCipher cipher = new SignatureCipher(timestamp, readString(input), readString(input), readString(input), readString(input));
+            return new ParsedPlayerScript(url, timestamp, cipher, null, scriptLength, parsedAtMs);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Removing unreadable cipher cache file {}", file, e);
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    @NotNull
+    private Path getFile(@NotNull String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(hash.length * 2 + FILE_EXTENSION.length());
+
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return directory.resolve(name.append(FILE_EXTENSION).toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void writeString(@NotNull DataOutputStream output, @NotNull String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    @NotNull
+    private static String readString(@NotNull DataInputStream input) throws IOException {
+        int length = input.readInt();
+
+        if (length < 0 || length > MAX_FIELD_LENGTH) {
+            throw new IOException("Invalid field length " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void deleteQuietly(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Best effort.
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(@NotNull DataOutputStream output) throws IOException;
+    }
+}
@@ -5,6 +5,7 @@ import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import dev.lavalink.youtube.ExceptionWithResponseBody;
+import dev.lavalink.youtube.cache.CacheStats;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -13,6 +14,8 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -32,26 +35,80 @@ public interface CipherManager {
                                   @NotNull String playerScript,
                                   @NotNull StreamFormat format) throws IOException;
 
+    /**
+     * Produces valid playback URLs for many formats at once. Implementations may resolve them
+     * in a single pass, which is cheaper than resolving them one by one.
+     *
+     * @param httpInterface HTTP interface to use
+     * @param playerScript  Address of the script which is used to decipher signatures
+     * @param formats       The formats for which to get URLs
+     * @return Valid playback URLs, in the same order as the formats
+     * @throws IOException On network IO error
+     */
+    @NotNull
+    default List<URI> resolveFormatUrls(@NotNull HttpInterface httpInterface,
+                                        @NotNull String playerScript,
+                                        @NotNull List<StreamFormat> formats) throws IOException {
+        List<URI> urls = new ArrayList<>(formats.size());
+
+        for (StreamFormat format : formats) {
+            urls.add(resolveFormatUrl(httpInterface, playerScript, format));
+        }
+
+        return urls;
+    }
+
     CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface);
 
     String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException;
 
-    default CachedPlayerScript getPlayerScript(@NotNull HttpInterface httpInterface) {
-        synchronized (this) {
-            try (CloseableHttpResponse response = httpInterface.execute(new HttpGet("https://www.youtube.com/embed/"))) {
-                HttpClientTools.assertSuccessWithContent(response, "fetch player script (embed)");
+    /**
+     * Fetches the current player script and, once it is fully loaded, swaps it in as the cached
+     * player script. Until then, the previously cached script keeps being served.
+     * The default implementation only loads a script if none is cached, or if it has expired.
+     *
+     * @param httpInterface HTTP interface to use
+     */
+    default void refreshPlayerScript(@NotNull HttpInterface httpInterface) {
+        getCachedPlayerScript(httpInterface);
+    }
 
-                String responseText = EntityUtils.toString(response.getEntity());
-                String scriptUrl = DataFormatTools.extractBetween(responseText, "\"jsUrl\":\"", "\"");
+    /**
+     * @return Hit, miss and eviction counters of the cache holding parsed player scripts.
+     *         Managers without such a cache return {@link CacheStats#EMPTY}.
+     */
+    @NotNull
+    default CacheStats getCipherCacheStats() {
+        return CacheStats.EMPTY;
+    }
 
-                if (scriptUrl == null) {
-                    throw new ExceptionWithResponseBody("no jsUrl found", responseText);
-                }
+    /**
+     * @return Hit, miss and eviction counters of the cache holding deciphered signature and n values.
+     *         Managers without such a cache return {@link CacheStats#EMPTY}.
+     */
+    @NotNull
+    default CacheStats getResultCacheStats() {
+        return CacheStats.EMPTY;
+    }
 
-                return new CachedPlayerScript(scriptUrl, getTimestamp(httpInterface, scriptUrl));
-            } catch (IOException e) {
-                throw ExceptionTools.toRuntimeException(e);
+    /**
+     * Looks up the current player script and its signature timestamp. No lock is held while doing so, callers
+     * that swap the result in are responsible for doing that atomically.
+     */
+    default CachedPlayerScript getPlayerScript(@NotNull HttpInterface httpInterface) {
+        try (CloseableHttpResponse response = httpInterface.execute(new HttpGet("https://www.youtube.com/embed/"))) {
+            HttpClientTools.assertSuccessWithContent(response, "fetch player script (embed)");
+
+            String responseText = EntityUtils.toString(response.getEntity());
+            String scriptUrl = DataFormatTools.extractBetween(responseText, "\"jsUrl\":\"", "\"");
+
+            if (scriptUrl == null) {
+                throw new ExceptionWithResponseBody("no jsUrl found", responseText);
             }
+
+            return new CachedPlayerScript(scriptUrl, getTimestamp(httpInterface, scriptUrl));
+        } catch (IOException e) {
+            throw ExceptionTools.toRuntimeException(e);
         }
     }
 
@@ -61,9 +118,13 @@ public interface CipherManager {
         public final long expireTimestampMs;
 
         protected CachedPlayerScript(@NotNull String url, @NotNull String signatureTimestamp) {
+            this(url, signatureTimestamp, System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        }
+
+        protected CachedPlayerScript(@NotNull String url, @NotNull String signatureTimestamp, long expireTimestampMs) {
             this.url = url;
             this.signatureTimestamp = signatureTimestamp;
-            this.expireTimestampMs = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+            this.expireTimestampMs = expireTimestampMs;
         }
     }
 }
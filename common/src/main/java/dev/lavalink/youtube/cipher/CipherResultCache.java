@@ -0,0 +1,80 @@
+package dev.lavalink.youtube.cipher;
+
+import dev.lavalink.youtube.cache.BoundedCache;
+import dev.lavalink.youtube.cache.CacheStats;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers deciphered signature and n parameter values per player script, so popular videos don't need
+ * a script invocation or a remote round trip for values that were already resolved.
+ */
+public class CipherResultCache {
+    public static final int DEFAULT_MAX_ENTRIES = 8192;
+    public static final long DEFAULT_TTL_MS = TimeUnit.HOURS.toMillis(6);
+
+    private final BoundedCache<Key, String> cache;
+
+    public CipherResultCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS);
+    }
+
+    public CipherResultCache(int maxEntries, long ttlMs) {
+        this.cache = new BoundedCache<>(maxEntries, ttlMs);
+    }
+
+    @Nullable
+    public String get(@NotNull String playerScript, @NotNull Type type, @NotNull String input) {
+        return cache.get(new Key(playerScript, type, input));
+    }
+
+    public void put(@NotNull String playerScript, @NotNull Type type, @NotNull String input, @NotNull String output) {
+        cache.put(new Key(playerScript, type, input), output);
+    }
+
+    /**
+     * Drops every value that was not produced by the given player script.
+     * @param playerScript The player script that is now current.
+     */
+    public void retainScript(@NotNull String playerScript) {
+        cache.removeIf((key, value) -> !key.playerScript.equals(playerScript));
+    }
+
+    @NotNull
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    public enum Type {
+        SIGNATURE,
+        N
+    }
+
+    private static class Key {
+        private final String playerScript;
+        private final Type type;
+        private final String input;
+
+        private Key(@NotNull String playerScript, @NotNull Type type, @NotNull String input) {
+            this.playerScript = playerScript;
+            this.type = type;
+            this.input = input;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return type == key.type && playerScript.equals(key.playerScript) && input.equals(key.input);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(playerScript, type, input);
+        }
+    }
+}
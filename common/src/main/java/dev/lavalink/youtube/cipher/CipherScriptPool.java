@@ -0,0 +1,225 @@
+package dev.lavalink.youtube.cipher;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.Undefined;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.script.ScriptException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of Rhino scopes for a single {@link SignatureCipher}. The cipher source is compiled once, and
+ * every scope evaluates it at most once, so deciphering a value only costs a function call. A scope is only
+ * ever used by one thread at a time.
+ */
+class CipherScriptPool {
+    private static final Logger log = LoggerFactory.getLogger(CipherScriptPool.class);
+
+    static final int DEFAULT_MAX_SCOPES = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final String SIG_FUNCTION_NAME = "decrypt_sig";
+    private static final String N_FUNCTION_NAME = "decrypt_nsig";
+
+    private final Script sigScript;
+    private final Script nScript;
+    private final int maxScopes;
+    private final AtomicInteger createdScopes = new AtomicInteger();
+    private final BlockingQueue<CipherScope> idleScopes = new LinkedBlockingQueue<>();
+
+    CipherScriptPool(@NotNull SignatureCipher cipher, int maxScopes) throws ScriptException {
+        this.maxScopes = maxScopes;
+
+        Context context = enterContext();
+
+        try {
+            this.sigScript = context.compileString(cipher.globalVars + ";" + cipher.sigActions + ";" + SIG_FUNCTION_NAME + "=" + cipher.sigFunction, "sig", 1, null);
+            this.nScript = context.compileString(cipher.globalVars + ";" + N_FUNCTION_NAME + "=" + cipher.nFunction, "nsig", 1, null);
+        } catch (RhinoException e) {
+            throw toScriptException(e);
+        } finally {
+            Context.exit();
+        }
+    }
+
+    @Nullable
+    String decipherSignature(@NotNull String text) throws ScriptException {
+        return invoke(text, true);
+    }
+
+    @Nullable
+    String transformN(@NotNull String text) throws ScriptException {
+        return invoke(text, false);
+    }
+
+    /**
+     * Deciphers many values using a single scope.
+     * @return The results in input order. Values which could not be deciphered are {@code null}.
+     * @throws ScriptException If the cipher script itself could not be evaluated.
+     */
+    @NotNull
+    String[] decipherSignatures(@NotNull List<String> texts) throws ScriptException {
+        return invokeAll(texts, true);
+    }
+
+    /**
+     * Transforms many n parameters using a single scope.
+     * @return The results in input order. Values which could not be transformed are {@code null}.
+     * @throws ScriptException If the cipher script itself could not be evaluated.
+     */
+    @NotNull
+    String[] transformNs(@NotNull List<String> texts) throws ScriptException {
+        return invokeAll(texts, false);
+    }
+
+    @Nullable
+    private String invoke(@NotNull String text, boolean signature) throws ScriptException {
+        CipherScope scope = acquire();
+        Context context = enterContext();
+
+        try {
+            Function function = signature ? scope.getSigFunction(context) : scope.getNFunction(context);
+            return call(context, scope, function, text);
+        } catch (RhinoException e) {
+            throw toScriptException(e);
+        } finally {
+            Context.exit();
+            idleScopes.offer(scope);
+        }
+    }
+
+    @NotNull
+    private String[] invokeAll(@NotNull List<String> texts, boolean signature) throws ScriptException {
+        String[] results = new String[texts.size()];
+
+        if (texts.isEmpty()) {
+            return results;
+        }
+
+        CipherScope scope = acquire();
+        Context context = enterContext();
+
+        try {
+            Function function = signature ? scope.getSigFunction(context) : scope.getNFunction(context);
+
+            for (int i = 0; i < results.length; i++) {
+                try {
+                    results[i] = call(context, scope, function, texts.get(i));
+                } catch (RhinoException e) {
+                    log.warn("Cipher {} function failed for input {}", signature ? "signature" : "n", texts.get(i), e);
+                    results[i] = null;
+                }
+            }
+
+            return results;
+        } catch (RhinoException e) {
+            throw toScriptException(e);
+        } finally {
+            Context.exit();
+            idleScopes.offer(scope);
+        }
+    }
+
+    @Nullable
+    private static String call(@NotNull Context context, @NotNull CipherScope scope, @NotNull Function function, @NotNull String text) {
+        Object result = function.call(context, scope.scope, scope.scope, new Object[] { text });
+        return result == null || Undefined.isUndefined(result) ? null : Context.toString(result);
+    }
+
+    @NotNull
+    private CipherScope acquire() throws ScriptException {
+        CipherScope scope = idleScopes.poll();
+
+        if (scope != null) {
+            return scope;
+        }
+
+        if (createdScopes.incrementAndGet() <= maxScopes) {
+            Context context = enterContext();
+
+            try {
+                return new CipherScope(context.initSafeStandardObjects());
+            } catch (RuntimeException e) {
+                createdScopes.decrementAndGet();
+                throw e;
+            } finally {
+                Context.exit();
+            }
+        }
+
+        createdScopes.decrementAndGet();
+
+        try {
+            return idleScopes.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted while waiting for a cipher scope");
+        }
+    }
+
+    @NotNull
+    private static Context enterContext() {
+        Context context = Context.enter();
+        context.setLanguageVersion(Context.VERSION_ES6);
+        // Interpreted mode keeps compilation cheap and avoids the bytecode size limit on huge n functions.
+        context.setOptimizationLevel(-1);
+        return context;
+    }
+
+    @NotNull
+    private static ScriptException toScriptException(@NotNull RhinoException e) {
+        ScriptException exception = new ScriptException(e.details(), e.sourceName(), e.lineNumber(), e.columnNumber());
+        exception.initCause(e);
+        return exception;
+    }
+
+    private class CipherScope {
+        private final Scriptable scope;
+        private Function sigFunction;
+        private Function nFunction;
+
+        private CipherScope(@NotNull Scriptable scope) {
+            this.scope = scope;
+        }
+
+        @NotNull
+        private Function getSigFunction(@NotNull Context context) throws ScriptException {
+            if (sigFunction == null) {
+                sigFunction = evaluate(context, sigScript, SIG_FUNCTION_NAME);
+            }
+
+            return sigFunction;
+        }
+
+        @NotNull
+        private Function getNFunction(@NotNull Context context) throws ScriptException {
+            if (nFunction == null) {
+                nFunction = evaluate(context, nScript, N_FUNCTION_NAME);
+            }
+
+            return nFunction;
+        }
+
+        @NotNull
+        private Function evaluate(@NotNull Context context, @NotNull Script script, @NotNull String name) throws ScriptException {
+            script.exec(context, scope);
+            Object function = ScriptableObject.getProperty(scope, name);
+
+            if (!(function instanceof Function)) {
+                throw new ScriptException(name + " is not a function after evaluating the cipher script");
+            }
+
+            return (Function) function;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import dev.lavalink.youtube.ExceptionWithResponseBody;
 import dev.lavalink.youtube.YoutubeSource;
+import dev.lavalink.youtube.cache.BoundedCache;
+import dev.lavalink.youtube.cache.CacheStats;
 import dev.lavalink.youtube.cipher.ScriptExtractionException.ExtractionFailureType;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -14,11 +16,9 @@ import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.mozilla.javascript.engine.RhinoScriptEngineFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.io.IOException;
 import java.net.URI;
@@ -26,12 +26,19 @@ import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -46,7 +53,7 @@ import static com.sedmelluq.discord.lavaplayer.tools.ExceptionTools.throwWithDeb
 public class LocalSignatureCipherManager implements CipherManager {
     private static final Logger log = LoggerFactory.getLogger(LocalSignatureCipherManager.class);
 
-    private static final String VARIABLE_PART = "[a-zA-Z_\\$][a-zA-Z_0-9\\$]*";
+    static final String VARIABLE_PART = "[a-zA-Z_\\$][a-zA-Z_0-9\\$]*";
     private static final String VARIABLE_PART_OBJECT_DECLARATION = "[\"']?[a-zA-Z_\\$][a-zA-Z_0-9\\$]*[\"']?";
 
     private static final Pattern TIMESTAMP_PATTERN = Pattern.compile("(signatureTimestamp|sts):(\\d+)");
@@ -60,18 +67,18 @@ public class LocalSignatureCipherManager implements CipherManager {
             "|\"[^\"]*\"\\.split\\(\"[^\"]*\"\\)))"
     );
 
-    private static final Pattern ACTIONS_PATTERN = Pattern.compile(
+    static final Pattern ACTIONS_PATTERN = Pattern.compile(
         "var\\s+([$A-Za-z0-9_]+)\\s*=\\s*\\{" +
             "\\s*" + VARIABLE_PART_OBJECT_DECLARATION + "\\s*:\\s*function\\s*\\([^)]*\\)\\s*\\{[^{}]*(?:\\{[^{}]*}[^{}]*)*}\\s*," +
             "\\s*" + VARIABLE_PART_OBJECT_DECLARATION + "\\s*:\\s*function\\s*\\([^)]*\\)\\s*\\{[^{}]*(?:\\{[^{}]*}[^{}]*)*}\\s*," +
             "\\s*" + VARIABLE_PART_OBJECT_DECLARATION + "\\s*:\\s*function\\s*\\([^)]*\\)\\s*\\{[^{}]*(?:\\{[^{}]*}[^{}]*)*}\\s*};");
 
-    private static final Pattern SIG_FUNCTION_PATTERN = Pattern.compile(
+    static final Pattern SIG_FUNCTION_PATTERN = Pattern.compile(
         "function(?:\\s+" + VARIABLE_PART + ")?\\((" + VARIABLE_PART + ")\\)\\{" +
             VARIABLE_PART + "=" + VARIABLE_PART + ".*?\\(\\1,\\d+\\);return\\s*\\1.*};"
     );
 
-    private static final Pattern N_FUNCTION_PATTERN = Pattern.compile(
+    static final Pattern N_FUNCTION_PATTERN = Pattern.compile(
         "function\\(\\s*(" + VARIABLE_PART + ")\\s*\\)\\s*\\{" +
             "var\\s*(" + VARIABLE_PART + ")=\\1\\[" + VARIABLE_PART + "\\[\\d+\\]\\]\\(" + VARIABLE_PART + "\\[\\d+\\]\\)" +
             ".*?catch\\(\\s*(\\w+)\\s*\\)\\s*\\{" +
@@ -89,19 +96,66 @@ public class LocalSignatureCipherManager implements CipherManager {
             "\\s*return\\s*\\2\\[" + VARIABLE_PART + "\\[\\d+\\]\\]\\(" + VARIABLE_PART + "\\[\\d+\\]\\)};",
         Pattern.DOTALL);
 
-    private final ConcurrentMap<String, SignatureCipher> cipherCache;
+    public static final int DEFAULT_CACHE_MAX_ENTRIES = 16;
+    public static final long DEFAULT_CACHE_MAX_WEIGHT = 8 * 1024 * 1024;
+    public static final long DEFAULT_CACHE_TTL_MS = TimeUnit.DAYS.toMillis(1);
+
+    private final BoundedCache<String, ParsedPlayerScript> scriptCache;
+    private final ConcurrentMap<String, CompletableFuture<ParsedPlayerScript>> pendingScripts;
     private final Set<String> dumpedScriptUrls;
-    private final ScriptEngine scriptEngine;
+    private final CipherResultCache resultCache;
+    private volatile CipherDiskCache diskCache;
 
     protected volatile CachedPlayerScript cachedPlayerScript;
+    private final ReentrantLock playerScriptLock = new ReentrantLock();
 
     /**
      * Create a new local signature cipher manager
      */
     public LocalSignatureCipherManager() {
-        this.cipherCache = new ConcurrentHashMap<>();
-        this.dumpedScriptUrls = new HashSet<>();
-        this.scriptEngine = new RhinoScriptEngineFactory().getScriptEngine();
+        this(DEFAULT_CACHE_MAX_ENTRIES, DEFAULT_CACHE_MAX_WEIGHT, DEFAULT_CACHE_TTL_MS);
+    }
+
+    /**
+     * Create a new local signature cipher manager with custom cache bounds
+     *
+     * @param cacheMaxEntries The maximum amount of player scripts to keep parsed ciphers for.
+     * @param cacheMaxWeight  The maximum estimated size of all cached ciphers, in bytes.
+     * @param cacheTtlMs      How long a parsed cipher is kept before the player script is parsed again.
+     */
+    public LocalSignatureCipherManager(int cacheMaxEntries, long cacheMaxWeight, long cacheTtlMs) {
+        this.scriptCache = new BoundedCache<>(cacheMaxEntries, cacheMaxWeight, cacheTtlMs, (url, script) -> script.estimateSize());
+        this.pendingScripts = new ConcurrentHashMap<>();
+        this.dumpedScriptUrls = ConcurrentHashMap.newKeySet();
+        this.resultCache = new CipherResultCache();
+    }
+
+    /**
+     * Persists extracted ciphers and the player script in use to the given directory, and loads the ones already
+     * stored there. This lets a restarted process decipher straight away, without looking up, downloading and
+     * parsing the player script again.
+     *
+     * @param directory The directory to store ciphers in. Created if it doesn't exist.
+     * @throws IOException If the directory cannot be created.
+     */
+    public void setPersistentCacheDirectory(@NotNull Path directory) throws IOException {
+        CipherDiskCache cache = new CipherDiskCache(directory);
+        List<ParsedPlayerScript> scripts = cache.loadAll();
+
+        for (ParsedPlayerScript script : scripts) {
+            scriptCache.put(script.url, script);
+        }
+
+        CachedPlayerScript playerScript = cache.readPlayerScript();
+
+        if (playerScript != null && cachedPlayerScript == null) {
+            cachedPlayerScript = playerScript;
+            resultCache.retainScript(playerScript.url);
+            log.info("Using cached YouTube player script {}", playerScript.url);
+        }
+
+        this.diskCache = cache;
+        log.info("Loaded {} cached cipher(s) from {}", scripts.size(), directory);
     }
 
     /**
@@ -117,62 +171,163 @@ public class LocalSignatureCipherManager implements CipherManager {
     public URI resolveFormatUrl(@NotNull HttpInterface httpInterface,
                                 @NotNull String playerScript,
                                 @NotNull StreamFormat format) throws IOException {
-        String signature = format.getSignature();
-        String nParameter = format.getNParameter();
-        URI initialUrl = format.getUrl();
+        return resolveFormatUrls(httpInterface, playerScript, Collections.singletonList(format)).get(0);
+    }
+
+    /**
+     * Produces valid playback URLs for many formats, deciphering all of their values in one pass
+     * over the cipher script.
+     *
+     * @param httpInterface HTTP interface to use
+     * @param playerScript  Address of the script which is used to decipher signatures
+     * @param formats       The formats for which to get URLs
+     * @return Valid playback URLs, in the same order as the formats
+     * @throws IOException On network IO error
+     */
+    @NotNull
+    public List<URI> resolveFormatUrls(@NotNull HttpInterface httpInterface,
+                                       @NotNull String playerScript,
+                                       @NotNull List<StreamFormat> formats) throws IOException {
+        Map<String, String> signatures = new HashMap<>();
+        Map<String, String> nParameters = new HashMap<>();
+
+        for (StreamFormat format : formats) {
+            String signature = format.getSignature();
+            String nParameter = format.getNParameter();
+
+            if (!DataFormatTools.isNullOrEmpty(signature) && !signatures.containsKey(signature)) {
+                signatures.put(signature, resultCache.get(playerScript, CipherResultCache.Type.SIGNATURE, signature));
+            }
 
-        URIBuilder uri = new URIBuilder(initialUrl);
+            if (!DataFormatTools.isNullOrEmpty(nParameter) && !nParameters.containsKey(nParameter)) {
+                nParameters.put(nParameter, resultCache.get(playerScript, CipherResultCache.Type.N, nParameter));
+            }
+        }
 
-        SignatureCipher cipher = getCipherScript(httpInterface, playerScript);
+        List<String> pendingSignatures = getUnresolved(signatures);
+        List<String> pendingNParameters = getUnresolved(nParameters);
+
+        if (!pendingSignatures.isEmpty()) {
+            decipherSignatures(httpInterface, playerScript, pendingSignatures, signatures);
+        }
+
+        if (!pendingNParameters.isEmpty()) {
+            transformNParameters(httpInterface, playerScript, pendingNParameters, nParameters);
+        }
+
+        List<URI> urls = new ArrayList<>(formats.size());
+
+        for (StreamFormat format : formats) {
+            URIBuilder uri = new URIBuilder(format.getUrl());
+            String deciphered = format.getSignature() != null ? signatures.get(format.getSignature()) : null;
+            String transformed = format.getNParameter() != null ? nParameters.get(format.getNParameter()) : null;
+
+            if (deciphered != null) {
+                uri.setParameter(format.getSignatureKey(), deciphered);
+            }
+
+            if (transformed != null) {
+                uri.setParameter("n", transformed);
+            }
 
-        if (!DataFormatTools.isNullOrEmpty(signature)) {
             try {
-                uri.setParameter(format.getSignatureKey(), cipher.apply(signature, scriptEngine));
-            } catch (ScriptException | NoSuchMethodException e) {
-                dumpProblematicScript(cipherCache.get(playerScript).rawScript, playerScript, "Can't transform s parameter " + signature);
+                urls.add(uri.build()); // setParameter("ratebypass", "yes")  -- legacy parameter that will give 403 if tampered with.
+            } catch (URISyntaxException e) {
+                throw new RuntimeException(e);
             }
         }
 
+        return urls;
+    }
 
-        if (!DataFormatTools.isNullOrEmpty(nParameter)) {
-            try {
-                String transformed = cipher.transform(nParameter, scriptEngine);
-                String logMessage = null;
-
-                if (transformed == null) {
-                    logMessage = "Transformed n parameter is null, n function possibly faulty";
-                } else if (nParameter.equals(transformed)) {
-                    logMessage = "Transformed n parameter is the same as input, n function possibly short-circuited";
-                } else if (transformed.startsWith("enhanced_except_") || transformed.endsWith("_w8_" + nParameter)) {
-                    logMessage = "N function did not complete due to exception";
-                }
+    @NotNull
+    private static List<String> getUnresolved(@NotNull Map<String, String> values) {
+        return values.entrySet().stream()
+            .filter(entry -> entry.getValue() == null)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
 
-                if (logMessage != null) {
-                    log.warn("{} (in: {}, out: {}, player script: {}, source version: {})",
-                        logMessage, nParameter, transformed, playerScript, YoutubeSource.VERSION);
-                }
+    private void decipherSignatures(@NotNull HttpInterface httpInterface,
+                                    @NotNull String playerScript,
+                                    @NotNull List<String> pending,
+                                    @NotNull Map<String, String> results) throws IOException {
+        String[] deciphered;
 
-                uri.setParameter("n", transformed);
-            } catch (ScriptException | NoSuchMethodException e) {
-                // URLs can still be played without a resolved n parameter. It just means they're
-                // throttled. But we shouldn't throw an exception anyway as it's not really fatal.
-                dumpProblematicScript(cipherCache.get(playerScript).rawScript, playerScript, "Can't transform n parameter " + nParameter + " with " + cipher.nFunction + " n function");
+        try {
+            deciphered = getCipherScript(httpInterface, playerScript).applyAll(pending);
+        } catch (ScriptException e) {
+            dumpProblematicScript(httpInterface, playerScript, "Can't transform s parameter " + pending.get(0));
+            return;
+        }
+
+        for (int i = 0; i < deciphered.length; i++) {
+            String signature = pending.get(i);
+
+            if (deciphered[i] == null) {
+                dumpProblematicScript(httpInterface, playerScript, "Can't transform s parameter " + signature);
+                continue;
             }
+
+            results.put(signature, deciphered[i]);
+            resultCache.put(playerScript, CipherResultCache.Type.SIGNATURE, signature, deciphered[i]);
         }
+    }
+
+    private void transformNParameters(@NotNull HttpInterface httpInterface,
+                                      @NotNull String playerScript,
+                                      @NotNull List<String> pending,
+                                      @NotNull Map<String, String> results) throws IOException {
+        SignatureCipher cipher = getCipherScript(httpInterface, playerScript);
+        String[] transformed;
 
         try {
-            return uri.build(); // setParameter("ratebypass", "yes")  -- legacy parameter that will give 403 if tampered with.
-        } catch (URISyntaxException e) {
-            throw new RuntimeException(e);
+            transformed = cipher.transformAll(pending);
+        } catch (ScriptException e) {
+            // URLs can still be played without a resolved n parameter. It just means they're
+            // throttled. But we shouldn't throw an exception anyway as it's not really fatal.
+            dumpProblematicScript(httpInterface, playerScript, "Can't transform n parameter " + pending.get(0) + " with " + cipher.nFunction + " n function");
+            return;
+        }
+
+        for (int i = 0; i < transformed.length; i++) {
+            String nParameter = pending.get(i);
+            String result = transformed[i];
+            String logMessage = null;
+
+            if (result == null) {
+                logMessage = "Transformed n parameter is null, n function possibly faulty";
+            } else if (nParameter.equals(result)) {
+                logMessage = "Transformed n parameter is the same as input, n function possibly short-circuited";
+            } else if (result.startsWith("enhanced_except_") || result.endsWith("_w8_" + nParameter)) {
+                logMessage = "N function did not complete due to exception";
+            }
+
+            if (logMessage != null) {
+                log.warn("{} (in: {}, out: {}, player script: {}, source version: {})",
+                    logMessage, nParameter, result, playerScript, YoutubeSource.VERSION);
+            } else {
+                // Only healthy results are remembered, so a faulty n function is retried next time.
+                resultCache.put(playerScript, CipherResultCache.Type.N, nParameter, result);
+            }
+
+            results.put(nParameter, result);
         }
     }
 
     public CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface) {
         if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
-            synchronized (this) {
+            // Only one caller loads an expired script, the others wait for it. A background refresh never takes
+            // this lock, it swaps its script in once loaded.
+            playerScriptLock.lock();
+
+            try {
                 if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
                     try {
-                        return (cachedPlayerScript = getPlayerScript(httpInterface));
+                        cachedPlayerScript = getPlayerScript(httpInterface);
+                        resultCache.retainScript(cachedPlayerScript.url);
+                        persistPlayerScript(cachedPlayerScript);
+                        return cachedPlayerScript;
                     } catch (RuntimeException e) {
                         if (e instanceof ExceptionWithResponseBody) {
                             throw throwWithDebugInfo(log, null, e.getMessage(), "html", ((ExceptionWithResponseBody) e).getResponseBody());
@@ -181,52 +336,143 @@ public class LocalSignatureCipherManager implements CipherManager {
                         throw e;
                     }
                 }
+            } finally {
+                playerScriptLock.unlock();
             }
         }
 
         return cachedPlayerScript;
     }
 
+    public void refreshPlayerScript(@NotNull HttpInterface httpInterface) {
+        // Loading also fetches the timestamp, which parses the new script, so it is ready before being swapped in.
+        CachedPlayerScript script = getPlayerScript(httpInterface);
+        CachedPlayerScript previous = cachedPlayerScript;
+        cachedPlayerScript = script;
+
+        if (previous == null || !previous.url.equals(script.url)) {
+            log.info("Now using YouTube player script {}", script.url);
+            resultCache.retainScript(script.url);
+        }
+
+        persistPlayerScript(script);
+    }
+
+    private void persistPlayerScript(@NotNull CachedPlayerScript script) {
+        CipherDiskCache diskCache = this.diskCache;
+
+        if (diskCache != null) {
+            diskCache.writePlayerScript(script);
+        }
+    }
+
     private SignatureCipher getCipherScript(@NotNull HttpInterface httpInterface,
                                            @NotNull String cipherScriptUrl) throws IOException {
-        SignatureCipher cipherKey = cipherCache.get(cipherScriptUrl);
+        return getParsedScript(httpInterface, cipherScriptUrl).getCipher();
+    }
+
+    /**
+     * Returns the parsed record for the given player script, downloading and scanning
+     * the script if this is the first time it is needed.
+     */
+    @NotNull
+    public ParsedPlayerScript getParsedScript(@NotNull HttpInterface httpInterface,
+                                              @NotNull String cipherScriptUrl) throws IOException {
+        ParsedPlayerScript parsedScript = scriptCache.get(cipherScriptUrl);
 
-        if (cipherKey == null) {
-            synchronized (this) {
-                log.debug("Parsing player script {}", cipherScriptUrl);
+        if (parsedScript != null) {
+            return parsedScript;
+        }
 
-                try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(cipherScriptUrl)))) {
-                    int statusCode = response.getStatusLine().getStatusCode();
+        // Only one thread loads a given script, everyone else missing on the same URL waits for its result.
+        // Lookups for other scripts are never blocked by this.
+        CompletableFuture<ParsedPlayerScript> loader = new CompletableFuture<>();
+        CompletableFuture<ParsedPlayerScript> pending = pendingScripts.putIfAbsent(cipherScriptUrl, loader);
 
-                    if (!HttpClientTools.isSuccessWithContent(statusCode)) {
-                        throw new IOException("Received non-success response code " + statusCode + " from script url " +
-                            cipherScriptUrl + " ( " + CipherUtils.parseTokenScriptUrl(cipherScriptUrl) + " )");
-                    }
+        if (pending != null) {
+            return awaitParsedScript(pending, cipherScriptUrl);
+        }
 
-                    cipherKey = extractFromScript(EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8), cipherScriptUrl);
-                    cipherCache.put(cipherScriptUrl, cipherKey);
+        try {
+            // The previous loader may have finished between our cache lookup and claiming the URL.
+            parsedScript = scriptCache.get(cipherScriptUrl);
+
+            if (parsedScript == null) {
+                CipherDiskCache diskCache = this.diskCache;
+                parsedScript = diskCache != null ? diskCache.read(cipherScriptUrl) : null;
+
+                if (parsedScript == null) {
+                    parsedScript = loadPlayerScript(httpInterface, cipherScriptUrl);
+
+                    if (diskCache != null) {
+                        diskCache.write(parsedScript);
+                    }
                 }
+
+                scriptCache.put(cipherScriptUrl, parsedScript);
+            }
+
+            loader.complete(parsedScript);
+            return parsedScript;
+        } catch (Throwable t) {
+            loader.completeExceptionally(t);
+            throw t;
+        } finally {
+            pendingScripts.remove(cipherScriptUrl, loader);
+        }
+    }
+
+    private ParsedPlayerScript awaitParsedScript(@NotNull CompletableFuture<ParsedPlayerScript> pending,
+                                                 @NotNull String cipherScriptUrl) throws IOException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for player script " + cipherScriptUrl, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
             }
+
+            throw new IOException("Failed to load player script " + cipherScriptUrl, cause);
         }
+    }
+
+    private ParsedPlayerScript loadPlayerScript(@NotNull HttpInterface httpInterface,
+                                                @NotNull String cipherScriptUrl) throws IOException {
+        log.debug("Parsing player script {}", cipherScriptUrl);
 
-        return cipherKey;
+        try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(cipherScriptUrl)))) {
+            int statusCode = response.getStatusLine().getStatusCode();
+
+            if (!HttpClientTools.isSuccessWithContent(statusCode)) {
+                throw new IOException("Received non-success response code " + statusCode + " from script url " +
+                    cipherScriptUrl + " ( " + CipherUtils.parseTokenScriptUrl(cipherScriptUrl) + " )");
+            }
+
+            return parseScript(EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8), cipherScriptUrl);
+        }
     }
 
     public String getRawScript(@NotNull HttpInterface httpInterface,
                                @NotNull String cipherScriptUrl) throws IOException {
-        synchronized (this) {
-            log.debug("getting raw player script {}", cipherScriptUrl);
+        log.debug("getting raw player script {}", cipherScriptUrl);
 
-            try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(cipherScriptUrl)))) {
-                int statusCode = response.getStatusLine().getStatusCode();
+        try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(cipherScriptUrl)))) {
+            int statusCode = response.getStatusLine().getStatusCode();
 
-                if (!HttpClientTools.isSuccessWithContent(statusCode)) {
-                    throw new IOException("Received non-success response code " + statusCode + " from script url " +
-                        cipherScriptUrl + " ( " + CipherUtils.parseTokenScriptUrl(cipherScriptUrl) + " )");
-                }
-
-                return EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (!HttpClientTools.isSuccessWithContent(statusCode)) {
+                throw new IOException("Received non-success response code " + statusCode + " from script url " +
+                    cipherScriptUrl + " ( " + CipherUtils.parseTokenScriptUrl(cipherScriptUrl) + " )");
             }
+
+            return EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
         }
     }
 
@@ -237,6 +483,33 @@ public class LocalSignatureCipherManager implements CipherManager {
             .collect(Collectors.toList());
     }
 
+    @NotNull
+    public CacheStats getCipherCacheStats() {
+        return scriptCache.getStats();
+    }
+
+    @NotNull
+    public CacheStats getResultCacheStats() {
+        return resultCache.getStats();
+    }
+
+    /**
+     * Dumps a script which was already parsed. Parsed ciphers don't keep the source around,
+     * so it is downloaded again, but only if this script hasn't been dumped before.
+     */
+    private void dumpProblematicScript(@NotNull HttpInterface httpInterface, @NotNull String sourceUrl,
+                                       @NotNull String issue) {
+        if (dumpedScriptUrls.contains(sourceUrl)) {
+            return;
+        }
+
+        try {
+            dumpProblematicScript(getRawScript(httpInterface, sourceUrl), sourceUrl, issue);
+        } catch (IOException e) {
+            log.error("Failed to download problematic YouTube player script {} for dumping (issue detected with script: {})", sourceUrl, issue, e);
+        }
+    }
+
     private void dumpProblematicScript(@NotNull String script, @NotNull String sourceUrl,
                                        @NotNull String issue) {
         if (!dumpedScriptUrls.add(sourceUrl)) {
@@ -255,20 +528,8 @@ public class LocalSignatureCipherManager implements CipherManager {
     }
 
     public String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException {
-        synchronized (this) {
-            log.debug("Timestamp from script {}", sourceUrl);
-
-            try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(sourceUrl)))) {
-                int statusCode = response.getStatusLine().getStatusCode();
-
-                if (!HttpClientTools.isSuccessWithContent(statusCode)) {
-                    throw new IOException("Received non-success response code " + statusCode + " from script url " +
-                        sourceUrl + " ( " + CipherUtils.parseTokenScriptUrl(sourceUrl) + " )");
-                }
-
-                return getScriptTimestamp(httpInterface, EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8), sourceUrl);
-            }
-        }
+        log.debug("Timestamp from script {}", sourceUrl);
+        return getParsedScript(httpInterface, sourceUrl).getTimestamp();
     }
 
     public String getScriptTimestamp(HttpInterface httpInterface, String script, String scriptUrl) {
@@ -280,43 +541,65 @@ public class LocalSignatureCipherManager implements CipherManager {
         return scriptTimestamp.group(2);
     }
 
-    private SignatureCipher extractFromScript(@NotNull String script, @NotNull String sourceUrl) {
-        String timestamp = getScriptTimestamp(null, script, sourceUrl);
+    @NotNull
+    private ParsedPlayerScript parseScript(@NotNull String script, @NotNull String sourceUrl) {
+        String timestamp = null;
+        SignatureCipher cipher = null;
+        ScriptExtractionException failure = null;
+
+        try {
+            timestamp = getScriptTimestamp(null, script, sourceUrl);
+            cipher = extractFromScript(script, sourceUrl, timestamp);
+        } catch (ScriptExtractionException e) {
+            // Kept in the record, the timestamp may still be usable even when the functions are not.
+            failure = e;
+        }
 
+        return new ParsedPlayerScript(sourceUrl, timestamp, cipher, failure, script.length(), System.currentTimeMillis());
+    }
+
+    private SignatureCipher extractFromScript(@NotNull String script, @NotNull String sourceUrl, @NotNull String timestamp) {
         Matcher globalVarsMatcher = GLOBAL_VARS_PATTERN.matcher(script);
 
         if (!globalVarsMatcher.find()) {
             scriptExtractionFailed(script, sourceUrl, ExtractionFailureType.VARIABLES_NOT_FOUND);
         }
 
-        Matcher sigActionsMatcher = ACTIONS_PATTERN.matcher(script);
+        ScriptFunctionLocator locator = new ScriptFunctionLocator(script);
 
-        if (!sigActionsMatcher.find()) {
-            scriptExtractionFailed(script, sourceUrl, ExtractionFailureType.SIG_ACTIONS_NOT_FOUND);
-        }
-
-        Matcher sigFunctionMatcher = SIG_FUNCTION_PATTERN.matcher(script);
+        String globalVars = globalVarsMatcher.group("code");
+        String sigActions = findFunction(locator.findSigActions(), ACTIONS_PATTERN, script, sourceUrl, ExtractionFailureType.SIG_ACTIONS_NOT_FOUND);
+        String sigFunction = findFunction(locator.findSigFunction(), SIG_FUNCTION_PATTERN, script, sourceUrl, ExtractionFailureType.DECIPHER_FUNCTION_NOT_FOUND);
+        String nFunction = findFunction(locator.findNFunction(), N_FUNCTION_PATTERN, script, sourceUrl, ExtractionFailureType.N_FUNCTION_NOT_FOUND);
 
-        if (!sigFunctionMatcher.find()) {
-            scriptExtractionFailed(script, sourceUrl, ExtractionFailureType.DECIPHER_FUNCTION_NOT_FOUND);
-        }
+        String nfParameterName = DataFormatTools.extractBetween(nFunction, "(", ")");
+        // Remove short-circuit that prevents n challenge transformation
+        nFunction = nFunction.replaceAll("if\\s*\\(typeof\\s*[^\\s()]+\\s*===?.*?\\)return " + nfParameterName + "\\s*;?", "");
 
-        Matcher nFunctionMatcher = N_FUNCTION_PATTERN.matcher(script);
+        return new SignatureCipher(timestamp, globalVars, sigActions, sigFunction, nFunction);
+    }
 
-        if (!nFunctionMatcher.find()) {
-            scriptExtractionFailed(script, sourceUrl, ExtractionFailureType.N_FUNCTION_NOT_FOUND);
+    /**
+     * Returns what the locator found, or falls back to searching the whole script with the given pattern.
+     */
+    @NotNull
+    private String findFunction(@Nullable String located,
+                                @NotNull Pattern pattern,
+                                @NotNull String script,
+                                @NotNull String sourceUrl,
+                                @NotNull ExtractionFailureType failureType) {
+        if (located != null) {
+            return located;
         }
 
-        String globalVars = globalVarsMatcher.group("code");
-        String sigActions = sigActionsMatcher.group(0);
-        String sigFunction = sigFunctionMatcher.group(0);
-        String nFunction = nFunctionMatcher.group(0);
+        log.debug("Could not locate {} in {} by scanning, falling back to pattern search", failureType.friendlyName, sourceUrl);
+        Matcher matcher = pattern.matcher(script);
 
-        String nfParameterName = DataFormatTools.extractBetween(nFunction, "(", ")");
-        // Remove short-circuit that prevents n challenge transformation
-        nFunction = nFunction.replaceAll("if\\s*\\(typeof\\s*[^\\s()]+\\s*===?.*?\\)return " + nfParameterName + "\\s*;?", "");
+        if (!matcher.find()) {
+            scriptExtractionFailed(script, sourceUrl, failureType);
+        }
 
-        return new SignatureCipher(timestamp, globalVars, sigActions, sigFunction, nFunction, script);
+        return matcher.group(0);
     }
 
     private void scriptExtractionFailed(String script, String sourceUrl, ExtractionFailureType failureType) {
@@ -0,0 +1,87 @@
+package dev.lavalink.youtube.cipher;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Everything extracted from a single player script version. A record is created once per script URL,
+ * whether extraction succeeded or not, so the script never has to be downloaded and scanned again.
+ */
+public class ParsedPlayerScript {
+    public final String url;
+    /**
+     * The signature timestamp (STS), or {@code null} if it could not be found.
+     */
+    @Nullable
+    public final String timestamp;
+    /**
+     * The extracted cipher functions, or {@code null} if extraction failed.
+     */
+    @Nullable
+    public final SignatureCipher cipher;
+    /**
+     * The reason extraction failed, or {@code null} if it succeeded.
+     */
+    @Nullable
+    public final ScriptExtractionException failure;
+    public final int scriptLength;
+    public final long parsedAtMs;
+
+    public ParsedPlayerScript(@NotNull String url,
+                              @Nullable String timestamp,
+                              @Nullable SignatureCipher cipher,
+                              @Nullable ScriptExtractionException failure,
+                              int scriptLength,
+                              long parsedAtMs) {
+        this.url = url;
+        this.timestamp = timestamp;
+        this.cipher = cipher;
+        this.failure = failure;
+        this.scriptLength = scriptLength;
+        this.parsedAtMs = parsedAtMs;
+    }
+
+    /**
+     * @return The signature timestamp of this script.
+     * @throws ScriptExtractionException If the timestamp could not be extracted.
+     */
+    @NotNull
+    public String getTimestamp() {
+        if (timestamp == null) {
+            throw rethrowFailure();
+        }
+
+        return timestamp;
+    }
+
+    /**
+     * @return The signature cipher of this script.
+     * @throws ScriptExtractionException If the cipher functions could not be extracted.
+     */
+    @NotNull
+    public SignatureCipher getCipher() {
+        if (cipher == null) {
+            throw rethrowFailure();
+        }
+
+        return cipher;
+    }
+
+    /**
+     * @return An estimate of the heap space held by this record, in bytes.
+     */
+    public long estimateSize() {
+        long size = 2L * url.length() + (timestamp != null ? 2L * timestamp.length() : 0);
+        return cipher != null ? size + cipher.estimateSize() : size;
+    }
+
+    @NotNull
+    private ScriptExtractionException rethrowFailure() {
+        if (failure == null) {
+            return new ScriptExtractionException("Nothing was extracted from script: " + url, null);
+        }
+
+        // A fresh exception per caller, so stack traces point at the caller rather than the original parse.
+        return new ScriptExtractionException(failure.getMessage(), failure.getFailureType(), failure);
+    }
+}
@@ -0,0 +1,73 @@
+package dev.lavalink.youtube.cipher;
+
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Periodically checks for a new player script in the background, so that loading the script (and
+ * parsing it, for local ciphers) never happens on a user's request. The current script keeps being
+ * served until its replacement is fully ready.
+ */
+public class PlayerScriptRefresher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PlayerScriptRefresher.class);
+
+    private final Supplier<CipherManager> cipherManager;
+    private final HttpInterfaceManager httpInterfaceManager;
+    private final long intervalMs;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * @param cipherManager        Supplies the cipher manager to refresh. Queried on every run, so
+     *                             a replaced cipher manager is picked up.
+     * @param httpInterfaceManager The manager to get HTTP interfaces from.
+     * @param intervalMs           The delay between checks, in milliseconds.
+     */
+    public PlayerScriptRefresher(@NotNull Supplier<CipherManager> cipherManager,
+                                 @NotNull HttpInterfaceManager httpInterfaceManager,
+                                 long intervalMs) {
+        if (intervalMs <= 0) {
+            throw new IllegalArgumentException("Refresh interval must be positive");
+        }
+
+        this.cipherManager = cipherManager;
+        this.httpInterfaceManager = httpInterfaceManager;
+        this.intervalMs = intervalMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("yt-player-script"));
+    }
+
+    /**
+     * Starts refreshing, unless it was already started or closed. The first check runs immediately, which also
+     * warms up the cipher.
+     */
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            executor.scheduleWithFixedDelay(this::refresh, 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refresh() {
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+            cipherManager.get().refreshPlayerScript(httpInterface);
+        } catch (Throwable t) {
+            // The current script remains in use, the next run will try again.
+            log.warn("Failed to refresh YouTube player script, will retry in {} ms", intervalMs, t);
+        }
+    }
+
+    @Override
+    public void close() {
+        started.set(true);
+        executor.shutdownNow();
+    }
+}
@@ -2,21 +2,27 @@ package dev.lavalink.youtube.cipher;
 
 import com.grack.nanojson.JsonWriter;
 import com.grack.nanojson.JsonStringWriter;
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
 import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import dev.lavalink.youtube.ExceptionWithResponseBody;
-import dev.lavalink.youtube.http.YoutubeHttpContextFilter;
+import dev.lavalink.youtube.YoutubeSource;
+import dev.lavalink.youtube.cache.CacheStats;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
+import org.apache.http.NameValuePair;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,24 +30,129 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.sedmelluq.discord.lavaplayer.tools.ExceptionTools.throwWithDebugInfo;
 
 /**
- * Handles parsing and caching of ciphers via a remote service
+ * Handles parsing and caching of ciphers via a remote service.
+ * Requests are sent through lavaplayer HTTP interfaces, so the proxy, route planner and other settings of the
+ * source apply to them as well. Synchronous calls use the interface passed by the caller, asynchronous ones use
+ * interfaces of the manager given at construction. Every request is bounded by a deadline, and at most a fixed
+ * number of requests are in flight at once, further requests wait for a slot.
  */
-public class RemoteCipherManager implements CipherManager {
+public class RemoteCipherManager implements CipherManager, AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(RemoteCipherManager.class);
 
+    public static final long DEFAULT_REQUEST_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 16;
+
+    private static final long IDLE_THREAD_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
     private final @NotNull String remoteUrl;
+    private final @Nullable String password;
+    private final @Nullable String userAgent;
+    private final long requestTimeoutMs;
+    private final Semaphore requestPermits;
+    private final ThreadPoolExecutor requestExecutor;
+    private final ScheduledThreadPoolExecutor deadlineScheduler;
+    private final CipherResultCache resultCache;
+    private volatile HttpInterfaceManager httpInterfaceManager;
+    private final boolean ownsInterfaceManager;
+    private volatile boolean batchUnsupported;
 
     protected volatile CachedPlayerScript cachedPlayerScript;
+    private final ReentrantLock playerScriptLock = new ReentrantLock();
 
     /**
-     * Create a new remote cipher manager
+     * Create a new remote cipher manager which does not authenticate with the service.
      */
     public RemoteCipherManager(@NotNull String remoteUrl) {
+        this(remoteUrl, null, null);
+    }
+
+    /**
+     * Create a new remote cipher manager with the default timeout and concurrency limit.
+     * @param password  Sent as the Authorization header, if not null.
+     * @param userAgent Sent as the User-Agent header, if not null.
+     */
+    public RemoteCipherManager(@NotNull String remoteUrl, @Nullable String password, @Nullable String userAgent) {
+        this(remoteUrl, password, userAgent, DEFAULT_REQUEST_TIMEOUT_MS, DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    /**
+     * Create a new remote cipher manager which sends asynchronous requests through a default HTTP interface manager.
+     * @param password              Sent as the Authorization header, if not null.
+     * @param userAgent             Sent as the User-Agent header, if not null.
+     * @param requestTimeoutMs      The deadline of a single request, including the time it spends queued.
+     * @param maxConcurrentRequests The maximum number of requests in flight to the service.
+     */
+    public RemoteCipherManager(@NotNull String remoteUrl,
+                               @Nullable String password,
+                               @Nullable String userAgent,
+                               long requestTimeoutMs,
+                               int maxConcurrentRequests) {
+        this(null, remoteUrl, password, userAgent, requestTimeoutMs, maxConcurrentRequests);
+    }
+
+    /**
+     * Create a new remote cipher manager
+     * @param httpInterfaceManager  Supplies the HTTP interfaces for asynchronous requests, typically the one of the
+     *                              source manager. If null, a default one is created when first needed, and closed
+     *                              along with this manager.
+     * @param password              Sent as the Authorization header, if not null.
+     * @param userAgent             Sent as the User-Agent header, if not null.
+     * @param requestTimeoutMs      The deadline of a single request, including the time it spends queued.
+     * @param maxConcurrentRequests The maximum number of requests in flight to the service.
+     */
+    public RemoteCipherManager(@Nullable HttpInterfaceManager httpInterfaceManager,
+                               @NotNull String remoteUrl,
+                               @Nullable String password,
+                               @Nullable String userAgent,
+                               long requestTimeoutMs,
+                               int maxConcurrentRequests) {
+        if (requestTimeoutMs <= 0) {
+            throw new IllegalArgumentException("Request timeout must be positive");
+        }
+
+        if (maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("Max concurrent requests must be positive");
+        }
+
+        this.httpInterfaceManager = httpInterfaceManager;
+        this.ownsInterfaceManager = httpInterfaceManager == null;
         this.remoteUrl = remoteUrl;
+        this.password = password;
+        this.userAgent = userAgent;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.requestPermits = new Semaphore(maxConcurrentRequests, true);
+        this.resultCache = new CipherResultCache();
+
+        this.requestExecutor = new ThreadPoolExecutor(
+            maxConcurrentRequests,
+            maxConcurrentRequests,
+            IDLE_THREAD_TIMEOUT_MS,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new DaemonThreadFactory("yt-remote-cipher")
+        );
+
+        this.requestExecutor.allowCoreThreadTimeOut(true);
+
+        this.deadlineScheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("yt-remote-cipher-deadline"));
+        this.deadlineScheduler.setRemoveOnCancelPolicy(true);
     }
 
     @NotNull
@@ -49,6 +160,9 @@ public class RemoteCipherManager implements CipherManager {
         return remoteUrl;
     }
 
+    public long getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
 
     /**
      * Produces a valid playback URL for the specified track
@@ -63,22 +177,276 @@ public class RemoteCipherManager implements CipherManager {
     public URI resolveFormatUrl(@NotNull HttpInterface httpInterface,
                                 @NotNull String playerScript,
                                 @NotNull StreamFormat format) throws IOException {
-        return resolveUrl(
-            httpInterface,
-            format.getUrl(),
-            playerScript,
-            format.getSignature(),
-            format.getNParameter(),
-            format.getSignatureKey()
-        );
+        URI memoized = resolveFromResultCache(format, playerScript);
+
+        if (memoized != null) {
+            return memoized;
+        }
+
+        URI resolved = execute(httpInterface, resolveUrlRequest(format, playerScript), System.nanoTime());
+        rememberResolvedValues(format, playerScript, resolved);
+        return resolved;
+    }
+
+    /**
+     * Produces a valid playback URL for the specified track without blocking the calling thread.
+     *
+     * @param playerScript Address of the script which is used to decipher signatures
+     * @param format       The track for which to get the URL
+     * @return A future completed with the playback URL, or exceptionally if the request failed or timed out.
+     */
+    @NotNull
+    public CompletableFuture<URI> resolveFormatUrlAsync(@NotNull String playerScript, @NotNull StreamFormat format) {
+        URI memoized = resolveFromResultCache(format, playerScript);
+
+        if (memoized != null) {
+            return CompletableFuture.completedFuture(memoized);
+        }
+
+        return submit(resolveUrlRequest(format, playerScript)).thenApply(resolved -> {
+            rememberResolvedValues(format, playerScript, resolved);
+            return resolved;
+        });
+    }
+
+    /**
+     * Produces valid playback URLs for many formats with a single request to the remote service.
+     * Formats the service fails to resolve in the batch are retried individually. If the service
+     * does not support batching at all, every format is resolved individually from then on.
+     *
+     * @param httpInterface HTTP interface to use
+     * @param playerScript  Address of the script which is used to decipher signatures
+     * @param formats       The formats for which to get URLs
+     * @return Valid playback URLs, in the same order as the formats
+     * @throws IOException On network IO error
+     */
+    @NotNull
+    public List<URI> resolveFormatUrls(@NotNull HttpInterface httpInterface,
+                                       @NotNull String playerScript,
+                                       @NotNull List<StreamFormat> formats) throws IOException {
+        URI[] urls = new URI[formats.size()];
+        List<Integer> pending = resolveFromResultCache(playerScript, formats, urls);
+
+        if (pending.size() > 1 && !batchUnsupported) {
+            try {
+                execute(httpInterface, batchResolveRequest(playerScript, formats, pending, urls), System.nanoTime());
+            } catch (IOException | RuntimeException e) {
+                log.debug("Batch resolve with remote cipher service failed, resolving URLs individually", e);
+            }
+        }
+
+        for (int index : pending) {
+            if (urls[index] == null) {
+                urls[index] = resolveFormatUrl(httpInterface, playerScript, formats.get(index));
+            }
+        }
+
+        return Arrays.asList(urls);
+    }
+
+    /**
+     * Asynchronous variant of {@link #resolveFormatUrls(HttpInterface, String, List)}. Formats which
+     * have to be resolved individually are resolved in parallel.
+     *
+     * @return A future completed with the playback URLs, in the same order as the formats.
+     */
+    @NotNull
+    public CompletableFuture<List<URI>> resolveFormatUrlsAsync(@NotNull String playerScript, @NotNull List<StreamFormat> formats) {
+        URI[] urls = new URI[formats.size()];
+        List<Integer> pending = resolveFromResultCache(playerScript, formats, urls);
+        CompletableFuture<Void> batch;
+
+        if (pending.size() > 1 && !batchUnsupported) {
+            batch = submit(batchResolveRequest(playerScript, formats, pending, urls)).exceptionally(e -> {
+                log.debug("Batch resolve with remote cipher service failed, resolving URLs individually", e);
+                return null;
+            });
+        } else {
+            batch = CompletableFuture.completedFuture(null);
+        }
+
+        return batch.thenCompose(unused -> {
+            List<CompletableFuture<URI>> singles = new ArrayList<>();
+
+            for (int index : pending) {
+                if (urls[index] == null) {
+                    singles.add(resolveFormatUrlAsync(playerScript, formats.get(index)).thenApply(url -> urls[index] = url));
+                }
+            }
+
+            return CompletableFuture.allOf(singles.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> Arrays.asList(urls));
+        });
+    }
+
+    /**
+     * Fills in the URLs that can be built from memoized values.
+     * @return The indexes of the formats which still need to be resolved by the service.
+     */
+    @NotNull
+    private List<Integer> resolveFromResultCache(@NotNull String playerScript,
+                                                 @NotNull List<StreamFormat> formats,
+                                                 @NotNull URI[] urls) {
+        List<Integer> pending = new ArrayList<>();
+
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = resolveFromResultCache(formats.get(i), playerScript);
+
+            if (urls[i] == null) {
+                pending.add(i);
+            }
+        }
+
+        return pending;
+    }
+
+    @NotNull
+    private Request<Void> batchResolveRequest(@NotNull String playerScript,
+                                              @NotNull List<StreamFormat> formats,
+                                              @NotNull List<Integer> pending,
+                                              @NotNull URI[] urls) {
+        log.debug("Resolving {} stream urls with player script {}", pending.size(), playerScript);
+
+        JsonStringWriter writer = JsonWriter.string()
+            .object()
+            .value("player_url", playerScript)
+            .array("requests");
+
+        for (int index : pending) {
+            StreamFormat format = formats.get(index);
+            writer.object().value("stream_url", format.getUrl().toString());
+
+            if (format.getSignature() != null) {
+                writer.value("encrypted_signature", format.getSignature());
+            }
+            if (format.getNParameter() != null) {
+                writer.value("n_param", format.getNParameter());
+            }
+            if (format.getSignatureKey() != null) {
+                writer.value("signature_key", format.getSignatureKey());
+            }
+
+            writer.end();
+        }
+
+        String requestBody = writer.end().end().done();
+
+        return new Request<>("batch_resolve_url", requestBody, (statusCode, responseBody) -> {
+            if (statusCode == 404 || statusCode == 405 || statusCode == 501) {
+                batchUnsupported = true;
+                log.info("Remote cipher service does not support batch resolving, stream URLs will be resolved individually.");
+                return null;
+            }
+
+            List<JsonBrowser> results = JsonBrowser.parse(validateResponseBody(statusCode, responseBody)).get("results").values();
+
+            for (int i = 0; i < pending.size() && i < results.size(); i++) {
+                int index = pending.get(i);
+                String resolvedUrl = results.get(i).get("resolved_url").text();
+
+                if (DataFormatTools.isNullOrEmpty(resolvedUrl)) {
+                    log.debug("Remote cipher service could not resolve {} in batch: {}", formats.get(index).getUrl(), results.get(i).get("error").text());
+                    continue;
+                }
+
+                try {
+                    urls[index] = new URI(resolvedUrl);
+                    rememberResolvedValues(formats.get(index), playerScript, urls[index]);
+                } catch (URISyntaxException e) {
+                    log.debug("Remote cipher service returned an invalid URL in batch: {}", resolvedUrl, e);
+                }
+            }
+
+            return null;
+        });
+    }
+
+    @NotNull
+    public CacheStats getResultCacheStats() {
+        return resultCache.getStats();
+    }
+
+    /**
+     * Builds the playback URL locally if every value that needs deciphering was resolved before.
+     * @return The playback URL, or {@code null} if the remote service needs to be asked.
+     */
+    @Nullable
+    private URI resolveFromResultCache(@NotNull StreamFormat format, @NotNull String playerScript) {
+        String signature = format.getSignature();
+        String nParameter = format.getNParameter();
+
+        if (DataFormatTools.isNullOrEmpty(signature) && DataFormatTools.isNullOrEmpty(nParameter)) {
+            return null;
+        }
+
+        URIBuilder uri = new URIBuilder(format.getUrl());
+
+        if (!DataFormatTools.isNullOrEmpty(signature)) {
+            String deciphered = resultCache.get(playerScript, CipherResultCache.Type.SIGNATURE, signature);
+
+            if (deciphered == null) {
+                return null;
+            }
+
+            uri.setParameter(format.getSignatureKey(), deciphered);
+        }
+
+        if (!DataFormatTools.isNullOrEmpty(nParameter)) {
+            String transformed = resultCache.get(playerScript, CipherResultCache.Type.N, nParameter);
+
+            if (transformed == null) {
+                return null;
+            }
+
+            uri.setParameter("n", transformed);
+        }
+
+        try {
+            return uri.build();
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Extracts the deciphered values from a URL resolved by the remote service, so the same inputs can be
+     * resolved locally later on. Values are only remembered if the service returned them as plain query parameters.
+     */
+    private void rememberResolvedValues(@NotNull StreamFormat format, @NotNull String playerScript, @NotNull URI resolved) {
+        String signature = format.getSignature();
+        String nParameter = format.getNParameter();
+        String resolvedSignature = null;
+        String resolvedN = null;
+
+        for (NameValuePair parameter : new URIBuilder(resolved).getQueryParams()) {
+            if (parameter.getName().equals(format.getSignatureKey())) {
+                resolvedSignature = parameter.getValue();
+            } else if (parameter.getName().equals("n")) {
+                resolvedN = parameter.getValue();
+            }
+        }
+
+        if (!DataFormatTools.isNullOrEmpty(signature) && !DataFormatTools.isNullOrEmpty(resolvedSignature)) {
+            resultCache.put(playerScript, CipherResultCache.Type.SIGNATURE, signature, resolvedSignature);
+        }
+
+        if (!DataFormatTools.isNullOrEmpty(nParameter) && !DataFormatTools.isNullOrEmpty(resolvedN) && !nParameter.equals(resolvedN)) {
+            resultCache.put(playerScript, CipherResultCache.Type.N, nParameter, resolvedN);
+        }
     }
 
     public CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface) {
         if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
-            synchronized (this) {
+            // Only one caller loads an expired script, the others wait for it. A background refresh never takes
+            // this lock, it swaps its script in once loaded.
+            playerScriptLock.lock();
+
+            try {
                 if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
                     try {
-                        return (cachedPlayerScript = getPlayerScript(httpInterface));
+                        cachedPlayerScript = getPlayerScript(httpInterface);
+                        resultCache.retainScript(cachedPlayerScript.url);
+                        return cachedPlayerScript;
                     } catch (RuntimeException e) {
                         if (e instanceof ExceptionWithResponseBody) {
                             throw throwWithDebugInfo(log, null, e.getMessage(), "html", ((ExceptionWithResponseBody) e).getResponseBody());
@@ -87,52 +455,66 @@ public class RemoteCipherManager implements CipherManager {
                         throw e;
                     }
                 }
+            } finally {
+                playerScriptLock.unlock();
             }
         }
 
         return cachedPlayerScript;
     }
 
-    public String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException {
-        synchronized (this) {
-            HttpPost request = new HttpPost(getRemoteEndpoint("get_sts"));
+    public void refreshPlayerScript(@NotNull HttpInterface httpInterface) {
+        // Loading also fetches the timestamp, which parses the new script, so it is ready before being swapped in.
+        CachedPlayerScript script = getPlayerScript(httpInterface);
+        CachedPlayerScript previous = cachedPlayerScript;
+        cachedPlayerScript = script;
 
-            log.debug("Getting timestamp for script: {}", sourceUrl);
+        if (previous == null || !previous.url.equals(script.url)) {
+            log.info("Now using YouTube player script {}", script.url);
+            resultCache.retainScript(script.url);
+        }
+    }
 
-            String requestBody = JsonWriter.string()
-                .object()
-                .value("player_url", sourceUrl)
-                .end()
-                .done();
-            request.setEntity(new StringEntity(requestBody, ContentType.APPLICATION_JSON));
 
-            try (CloseableHttpResponse response = configureHttpInterface(httpInterface).execute(request)) {
-                String responseBody = validateAndGetResponseBody(response);
+    public String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException {
+        return execute(httpInterface, timestampRequest(sourceUrl), System.nanoTime());
+    }
+
+    /**
+     * Fetches the signature timestamp of a player script without blocking the calling thread.
+     *
+     * @param sourceUrl Address of the player script
+     * @return A future completed with the timestamp, or exceptionally if the request failed or timed out.
+     */
+    @NotNull
+    public CompletableFuture<String> getTimestampAsync(@NotNull String sourceUrl) {
+        return submit(timestampRequest(sourceUrl));
+    }
 
-                log.debug("Received response from remote cipher service: {}", responseBody);
+    @NotNull
+    private Request<String> timestampRequest(@NotNull String sourceUrl) {
+        log.debug("Getting timestamp for script: {}", sourceUrl);
 
-                JsonBrowser json = JsonBrowser.parse(responseBody);
-                return json.get("sts").text();
-            }
-        }
+        String requestBody = JsonWriter.string()
+            .object()
+            .value("player_url", sourceUrl)
+            .end()
+            .done();
+
+        return new Request<>("get_sts", requestBody, (statusCode, responseBody) -> {
+            String body = validateResponseBody(statusCode, responseBody);
+            log.debug("Received response from remote cipher service: {}", body);
+            return JsonBrowser.parse(body).get("sts").text();
+        });
     }
 
     private String getRemoteEndpoint(String path) {
         return remoteUrl.endsWith("/") ? remoteUrl + path : remoteUrl + "/" + path;
     }
 
-    public HttpInterface configureHttpInterface(HttpInterface httpInterface) {
-        httpInterface.getContext().setAttribute(YoutubeHttpContextFilter.ATTRIBUTE_CIPHER_REQUEST_SPECIFIED, true);
-        return httpInterface;
-    }
-
-    private URI resolveUrl(HttpInterface httpInterface,
-                           URI baseUrl,
-                           String playerScript,
-                           String signature,
-                           String nParam,
-                           String sigKey) throws IOException {
-        HttpPost request = new HttpPost(getRemoteEndpoint("resolve_url"));
+    @NotNull
+    private Request<URI> resolveUrlRequest(@NotNull StreamFormat format, @NotNull String playerScript) {
+        URI baseUrl = format.getUrl();
         log.debug("Resolving stream url {} with player script {}", baseUrl, playerScript);
 
         JsonStringWriter writer = JsonWriter.string()
@@ -140,40 +522,170 @@ public class RemoteCipherManager implements CipherManager {
             .value("stream_url", baseUrl.toString())
             .value("player_url", playerScript);
 
-        if (signature != null) {
-            writer.value("encrypted_signature", signature);
+        if (format.getSignature() != null) {
+            writer.value("encrypted_signature", format.getSignature());
         }
-        if (nParam != null) {
-            writer.value("n_param", nParam);
+        if (format.getNParameter() != null) {
+            writer.value("n_param", format.getNParameter());
         }
-        if (sigKey != null) {
-            writer.value("signature_key", sigKey);
+        if (format.getSignatureKey() != null) {
+            writer.value("signature_key", format.getSignatureKey());
         }
 
         String requestBody = writer.end().done();
-        request.setEntity(new StringEntity(requestBody, ContentType.APPLICATION_JSON));
 
-        try (CloseableHttpResponse response = configureHttpInterface(httpInterface).execute(request)) {
-            String responseBody = validateAndGetResponseBody(response);
-            JsonBrowser json = JsonBrowser.parse(responseBody);
+        return new Request<>("resolve_url", requestBody, (statusCode, responseBody) -> {
+            JsonBrowser json = JsonBrowser.parse(validateResponseBody(statusCode, responseBody));
             String resolvedUrl = json.get("resolved_url").text();
 
             if (resolvedUrl == null || resolvedUrl.isEmpty()) {
                 throw new IOException("Remote cipher service did not return a resolved URL.");
             }
 
-            return new URI(resolvedUrl);
-        } catch (URISyntaxException e) {
-            throw new RuntimeException(e);
+            try {
+                return new URI(resolvedUrl);
+            } catch (URISyntaxException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Sends a request on the given interface from the calling thread, once a request slot is free. The request is
+     * aborted if it is still running when its deadline passes.
+     * @param startNanos When the request was issued, which its deadline is counted from.
+     */
+    private <T> T execute(@NotNull HttpInterface httpInterface,
+                          @NotNull Request<T> request,
+                          long startNanos) throws IOException {
+        long remainingMs = requestTimeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        try {
+            if (remainingMs <= 0 || !requestPermits.tryAcquire(remainingMs, TimeUnit.MILLISECONDS)) {
+                throw deadlineExceeded();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for remote cipher service.", e);
+        }
+
+        try {
+            HttpPost post = createPost(request);
+            AtomicBoolean timedOut = new AtomicBoolean();
+            ScheduledFuture<?> deadline;
+
+            try {
+                deadline = deadlineScheduler.schedule(() -> {
+                    timedOut.set(true);
+                    post.abort();
+                }, requestTimeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                throw new IOException("Remote cipher manager has been closed.", e);
+            }
+
+            try (CloseableHttpResponse response = httpInterface.execute(post)) {
+                HttpEntity entity = response.getEntity();
+                String responseBody = (entity != null) ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : null;
+                return request.handler.handle(response.getStatusLine().getStatusCode(), responseBody);
+            } catch (IOException e) {
+                if (timedOut.get()) {
+                    throw deadlineExceeded();
+                }
+
+                throw e;
+            } finally {
+                deadline.cancel(false);
+            }
+        } finally {
+            requestPermits.release();
         }
     }
 
+    /**
+     * Sends a request on a worker thread, through an interface of the HTTP interface manager. The returned future is
+     * completed exceptionally once the deadline passes, in which case the request is aborted as well.
+     */
+    @NotNull
+    private <T> CompletableFuture<T> submit(@NotNull Request<T> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long startNanos = System.nanoTime();
+
+        try {
+            ScheduledFuture<?> deadline = deadlineScheduler.schedule(
+                () -> future.completeExceptionally(deadlineExceeded()),
+                requestTimeoutMs,
+                TimeUnit.MILLISECONDS
+            );
+
+            future.whenComplete((result, error) -> deadline.cancel(false));
+
+            requestExecutor.execute(new RequestTask(future, () -> {
+                if (future.isDone()) {
+                    // The deadline passed while the request was queued.
+                    return;
+                }
+
+                try (HttpInterface httpInterface = getInterfaceManager().getInterface()) {
+                    future.complete(execute(httpInterface, request, startNanos));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new IOException("Remote cipher manager has been closed.", e));
+        }
+
+        return future;
+    }
+
+    @NotNull
+    private HttpPost createPost(@NotNull Request<?> request) {
+        HttpPost post = new HttpPost(getRemoteEndpoint(request.path));
+        post.setEntity(new StringEntity(request.body, ContentType.APPLICATION_JSON));
+
+        if (!DataFormatTools.isNullOrEmpty(password)) {
+            post.addHeader("Authorization", password);
+        }
+
+        if (!DataFormatTools.isNullOrEmpty(userAgent)) {
+            post.addHeader("User-Agent", userAgent);
+        }
+
+        post.addHeader("Plugin-Version", YoutubeSource.VERSION);
+        return post;
+    }
+
+    @NotNull
+    private HttpInterfaceManager getInterfaceManager() {
+        HttpInterfaceManager manager = httpInterfaceManager;
+
+        if (manager == null) {
+            synchronized (this) {
+                if (httpInterfaceManager == null) {
+                    httpInterfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+                }
+
+                manager = httpInterfaceManager;
+            }
+        }
+
+        return manager;
+    }
+
+    @NotNull
+    private IOException deadlineExceeded() {
+        return new IOException("Remote cipher service did not respond within " + requestTimeoutMs + " ms.");
+    }
+
     @NotNull
     public String validateAndGetResponseBody(@NotNull HttpResponse response) throws IOException {
-        int statusCode = response.getStatusLine().getStatusCode();
         HttpEntity entity = response.getEntity();
         String responseBody = (entity != null) ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : null;
+        return validateResponseBody(response.getStatusLine().getStatusCode(), responseBody);
+    }
 
+    @NotNull
+    private static String validateResponseBody(int statusCode, @Nullable String responseBody) throws IOException {
         if (!HttpClientTools.isSuccessWithContent(statusCode)) {
             throw new IOException("Remote cipher service request to resolve URL failed with status code: " + statusCode + ". Response: " + responseBody);
         }
@@ -184,5 +696,59 @@ public class RemoteCipherManager implements CipherManager {
 
         return responseBody;
     }
-}
 
+    /**
+     * Stops the request threads, and closes the HTTP interface manager if it was created by this manager.
+     * Requests still queued complete exceptionally.
+     */
+    @Override
+    public void close() {
+        for (Runnable queued : requestExecutor.shutdownNow()) {
+            ((RequestTask) queued).future.completeExceptionally(new IOException("Remote cipher manager has been closed."));
+        }
+
+        deadlineScheduler.shutdownNow();
+
+        HttpInterfaceManager manager = httpInterfaceManager;
+
+        if (ownsInterfaceManager && manager != null) {
+            try {
+                manager.close();
+            } catch (IOException e) {
+                log.debug("Failed to close remote cipher HTTP interface manager", e);
+            }
+        }
+    }
+
+    private static class Request<T> {
+        private final String path;
+        private final String body;
+        private final ResponseHandler<T> handler;
+
+        private Request(@NotNull String path, @NotNull String body, @NotNull ResponseHandler<T> handler) {
+            this.path = path;
+            this.body = body;
+            this.handler = handler;
+        }
+    }
+
+    private static class RequestTask implements Runnable {
+        private final CompletableFuture<?> future;
+        private final Runnable delegate;
+
+        private RequestTask(@NotNull CompletableFuture<?> future, @NotNull Runnable delegate) {
+            this.future = future;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+        T handle(int statusCode, @Nullable String responseBody) throws IOException;
+    }
+}
@@ -0,0 +1,362 @@
+package dev.lavalink.youtube.cipher;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static dev.lavalink.youtube.cipher.LocalSignatureCipherManager.ACTIONS_PATTERN;
+import static dev.lavalink.youtube.cipher.LocalSignatureCipherManager.N_FUNCTION_PATTERN;
+import static dev.lavalink.youtube.cipher.LocalSignatureCipherManager.SIG_FUNCTION_PATTERN;
+import static dev.lavalink.youtube.cipher.LocalSignatureCipherManager.VARIABLE_PART;
+
+/**
+ * Locates the cipher functions in a player script without running regular expressions over the whole script.
+ * The script is tokenized once, skipping strings, template literals, regular expression literals and comments,
+ * to find the exact bounds of every function and of every {@code var x = {...};} declaration. Candidates are
+ * then validated against the extraction patterns, which only ever see a single candidate at a time.
+ */
+public class ScriptFunctionLocator {
+    private static final Pattern SIG_FUNCTION_HEAD = Pattern.compile(
+        "function(?:\\s+" + VARIABLE_PART + ")?\\((" + VARIABLE_PART + ")\\)\\{" + VARIABLE_PART + "=" + VARIABLE_PART
+    );
+
+    private static final Pattern N_FUNCTION_HEAD = Pattern.compile(
+        "function\\(\\s*(" + VARIABLE_PART + ")\\s*\\)\\s*\\{var\\s*(" + VARIABLE_PART + ")=\\1\\["
+    );
+
+    private static final Set<String> KEYWORDS_BEFORE_EXPRESSION = new HashSet<>(Arrays.asList(
+        "return", "typeof", "case", "do", "else", "in", "of", "new", "delete", "void", "throw", "instanceof", "yield", "await"
+    ));
+
+    private static final int BLOCK = 0;
+    private static final int FUNCTION = 1;
+    private static final int OBJECT = 2;
+    private static final int TEMPLATE = 3;
+
+    private final String script;
+    private final List<Span> functions = new ArrayList<>();
+    private final List<Span> objectDeclarations = new ArrayList<>();
+
+    private int[] braceKinds = new int[64];
+    private Span[] braceSpans = new Span[64];
+    private int braceDepth;
+
+    public ScriptFunctionLocator(@NotNull String script) {
+        this.script = script;
+        scan();
+    }
+
+    /**
+     * @return The sig actions object declaration, including the trailing semicolon, or {@code null} if not found.
+     */
+    @Nullable
+    public String findSigActions() {
+        return findFirst(objectDeclarations, null, ACTIONS_PATTERN);
+    }
+
+    /**
+     * @return The sig function, including the trailing semicolon, or {@code null} if not found.
+     */
+    @Nullable
+    public String findSigFunction() {
+        return findFirst(functions, SIG_FUNCTION_HEAD, SIG_FUNCTION_PATTERN);
+    }
+
+    /**
+     * @return The n function, including the trailing semicolon, or {@code null} if not found.
+     */
+    @Nullable
+    public String findNFunction() {
+        return findFirst(functions, N_FUNCTION_HEAD, N_FUNCTION_PATTERN);
+    }
+
+    @Nullable
+    private String findFirst(@NotNull List<Span> candidates, @Nullable Pattern head, @NotNull Pattern full) {
+        Matcher headMatcher = head != null ? head.matcher(script) : null;
+        Matcher fullMatcher = full.matcher(script);
+
+        for (Span span : candidates) {
+            // Every pattern expects the closing brace to be directly followed by a semicolon.
+            if (span.end < 0 || span.end >= script.length() || script.charAt(span.end) != ';') {
+                continue;
+            }
+
+            if (headMatcher != null && !headMatcher.region(span.start, span.end).lookingAt()) {
+                continue;
+            }
+
+            if (fullMatcher.region(span.start, span.end + 1).matches()) {
+                return script.substring(span.start, span.end + 1);
+            }
+        }
+
+        return null;
+    }
+
+    private void scan() {
+        int length = script.length();
+        int parenDepth = 0;
+        int pendingFunctionStart = -1;
+        int pendingFunctionParenDepth = -1;
+        int pendingObjectStart = -1;
+        int pendingObjectBrace = -1;
+        boolean regexAllowed = true;
+        char previous = 0;
+        int i = 0;
+
+        while (i < length) {
+            char c = script.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+
+            char next = i + 1 < length ? script.charAt(i + 1) : 0;
+
+            if (c == '/' && next == '/') {
+                int end = script.indexOf('\n', i + 2);
+                i = end < 0 ? length : end + 1;
+                continue;
+            } else if (c == '/' && next == '*') {
+                int end = script.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                continue;
+            } else if (c == '\'' || c == '"') {
+                i = skipString(i + 1, c);
+                regexAllowed = false;
+            } else if (c == '`') {
+                i = skipTemplate(i + 1);
+                regexAllowed = false;
+            } else if (c == '/' && regexAllowed) {
+                i = skipRegex(i + 1);
+                regexAllowed = false;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+
+                while (i < length && Character.isJavaIdentifierPart(script.charAt(i))) {
+                    i++;
+                }
+
+                String word = script.substring(start, i);
+
+                if (previous != '.') {
+                    if (word.equals("function")) {
+                        pendingFunctionStart = start;
+                        pendingFunctionParenDepth = parenDepth;
+                    } else if (word.equals("var")) {
+                        int brace = findObjectDeclarationBrace(i);
+
+                        if (brace >= 0) {
+                            pendingObjectStart = start;
+                            pendingObjectBrace = brace;
+                        }
+                    }
+                }
+
+                regexAllowed = previous != '.' && KEYWORDS_BEFORE_EXPRESSION.contains(word);
+                previous = 'a';
+                continue;
+            } else if (c >= '0' && c <= '9') {
+                while (i < length && (Character.isJavaIdentifierPart(script.charAt(i)) || script.charAt(i) == '.')) {
+                    i++;
+                }
+
+                regexAllowed = false;
+                previous = '0';
+                continue;
+            } else if (c == '{') {
+                if (i == pendingObjectBrace) {
+                    pushBrace(OBJECT, addSpan(objectDeclarations, pendingObjectStart));
+                } else if (pendingFunctionStart >= 0 && parenDepth == pendingFunctionParenDepth) {
+                    pushBrace(FUNCTION, addSpan(functions, pendingFunctionStart));
+                    pendingFunctionStart = -1;
+                } else {
+                    pushBrace(BLOCK, null);
+                }
+
+                regexAllowed = true;
+                i++;
+            } else if (c == '}') {
+                regexAllowed = true;
+
+                if (braceDepth > 0) {
+                    braceDepth--;
+                    int kind = braceKinds[braceDepth];
+                    Span span = braceSpans[braceDepth];
+                    braceSpans[braceDepth] = null;
+
+                    if (kind == TEMPLATE) {
+                        i = skipTemplate(i + 1);
+                        regexAllowed = false;
+                        previous = '`';
+                        continue;
+                    } else if (span != null) {
+                        span.end = i + 1;
+                        regexAllowed = false;
+                    }
+                }
+
+                i++;
+            } else {
+                if (c == '(') {
+                    parenDepth++;
+                } else if (c == ')') {
+                    parenDepth--;
+                }
+
+                regexAllowed = c != ')' && c != ']';
+                i++;
+            }
+
+            previous = c;
+        }
+    }
+
+    /**
+     * Checks whether the tokens after a {@code var} keyword are <code>name = {</code>, without allocating.
+     * @return The index of the opening brace, or -1.
+     */
+    private int findObjectDeclarationBrace(int index) {
+        int length = script.length();
+        int i = skipWhitespace(index);
+
+        if (i >= length || !Character.isJavaIdentifierStart(script.charAt(i))) {
+            return -1;
+        }
+
+        while (i < length && Character.isJavaIdentifierPart(script.charAt(i))) {
+            i++;
+        }
+
+        i = skipWhitespace(i);
+
+        if (i >= length || script.charAt(i) != '=' || (i + 1 < length && script.charAt(i + 1) == '=')) {
+            return -1;
+        }
+
+        i = skipWhitespace(i + 1);
+        return i < length && script.charAt(i) == '{' ? i : -1;
+    }
+
+    private int skipWhitespace(int index) {
+        while (index < script.length() && Character.isWhitespace(script.charAt(index))) {
+            index++;
+        }
+
+        return index;
+    }
+
+    private int skipString(int index, char quote) {
+        int length = script.length();
+
+        while (index < length) {
+            char c = script.charAt(index);
+
+            if (c == '\\') {
+                index += 2;
+            } else if (c == quote || c == '\n') {
+                return index + 1;
+            } else {
+                index++;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Skips template literal text, up to either the closing backtick or a substitution.
+     * Substitutions are scanned as regular code, with a marker on the brace stack to resume the template.
+     */
+    private int skipTemplate(int index) {
+        int length = script.length();
+
+        while (index < length) {
+            char c = script.charAt(index);
+
+            if (c == '\\') {
+                index += 2;
+            } else if (c == '`') {
+                return index + 1;
+            } else if (c == '$' && index + 1 < length && script.charAt(index + 1) == '{') {
+                pushBrace(TEMPLATE, null);
+                return index + 2;
+            } else {
+                index++;
+            }
+        }
+
+        return length;
+    }
+
+    private int skipRegex(int index) {
+        int length = script.length();
+        boolean inClass = false;
+
+        while (index < length) {
+            char c = script.charAt(index);
+
+            if (c == '\\') {
+                index += 2;
+                continue;
+            } else if (c == '\n') {
+                // Not actually a regex, bail out rather than skipping the rest of the script.
+                return index;
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                index++;
+
+                while (index < length && Character.isJavaIdentifierPart(script.charAt(index))) {
+                    index++;
+                }
+
+                return index;
+            }
+
+            index++;
+        }
+
+        return length;
+    }
+
+    private void pushBrace(int kind, @Nullable Span span) {
+        if (braceDepth == braceKinds.length) {
+            braceKinds = Arrays.copyOf(braceKinds, braceDepth * 2);
+            braceSpans = Arrays.copyOf(braceSpans, braceDepth * 2);
+        }
+
+        braceKinds[braceDepth] = kind;
+        braceSpans[braceDepth] = span;
+        braceDepth++;
+    }
+
+    @NotNull
+    private static Span addSpan(@NotNull List<Span> spans, int start) {
+        Span span = new Span(start);
+        spans.add(span);
+        return span;
+    }
+
+    private static class Span {
+        private final int start;
+        /**
+         * Index just past the closing brace, or -1 if the span was never closed.
+         */
+        private int end = -1;
+
+        private Span(int start) {
+            this.start = start;
+        }
+    }
+}
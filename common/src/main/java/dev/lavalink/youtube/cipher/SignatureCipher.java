@@ -1,12 +1,13 @@
 package dev.lavalink.youtube.cipher;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.script.Invocable;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
+import java.util.List;
 
 /**
  * Describes one signature cipher
@@ -19,14 +20,20 @@ public class SignatureCipher {
     public final String sigActions;
     public final String sigFunction;
     public final String nFunction;
+    /**
+     * The full player script. Only retained when explicitly requested, as it is usually over a megabyte.
+     */
+    @Nullable
     public final String rawScript;
 
+    private volatile CipherScriptPool scriptPool;
+
     public SignatureCipher(@NotNull String timestamp,
                            @NotNull String globalVars,
                            @NotNull String sigActions,
                            @NotNull String sigFunction,
                            @NotNull String nFunction,
-                           @NotNull String rawScript) {
+                           @Nullable String rawScript) {
         this.timestamp = timestamp;
         this.globalVars = globalVars;
         this.sigActions = sigActions;
@@ -35,17 +42,43 @@ public class SignatureCipher {
         this.rawScript = rawScript;
     }
 
+    public SignatureCipher(@NotNull String timestamp,
+                           @NotNull String globalVars,
+                           @NotNull String sigActions,
+                           @NotNull String sigFunction,
+                           @NotNull String nFunction) {
+        this(timestamp, globalVars, sigActions, sigFunction, nFunction, null);
+    }
+
+    /**
+     * @return An estimate of the heap space held by this cipher's sources, in bytes.
+     */
+    public long estimateSize() {
+        long chars = (long) timestamp.length() + globalVars.length() + sigActions.length() + sigFunction.length() +
+            nFunction.length() + (rawScript != null ? rawScript.length() : 0);
+
+        // Strings may be stored as UTF-16, so count two bytes per character to stay on the safe side.
+        return chars * 2;
+    }
+
+    /**
+     * @param text Text to apply the cipher on
+     * @return The result of the cipher on the input text
+     */
+    @Nullable
+    public String apply(@NotNull String text) throws ScriptException {
+        return getScriptPool().decipherSignature(text);
+    }
+
     /**
      * @param text Text to apply the cipher on
      * @return The result of the cipher on the input text
+     * @deprecated The script engine is no longer used, use {@link #apply(String)}.
      */
+    @Deprecated
     public String apply(@NotNull String text,
                         @NotNull ScriptEngine scriptEngine) throws ScriptException, NoSuchMethodException {
-        String transformed;
-
-        scriptEngine.eval(globalVars + ";" + sigActions + ";decrypt_sig=" + sigFunction);
-        transformed = (String) ((Invocable) scriptEngine).invokeFunction("decrypt_sig", text);
-        return transformed;
+        return apply(text);
     }
 
 //  /**
@@ -78,19 +111,62 @@ public class SignatureCipher {
 //    return builder.toString();
 //  }
 
+    /**
+     * @param text Text to transform
+     * @return The result of the n parameter transformation
+     */
+    @Nullable
+    public String transform(@NotNull String text) throws ScriptException {
+        return getScriptPool().transformN(text);
+    }
+
+    /**
+     * Applies the cipher to many values at once, which is cheaper than applying it to each of them separately.
+     * @param texts Texts to apply the cipher on
+     * @return The results in input order, with {@code null} for values the cipher failed on
+     * @throws ScriptException If the cipher script could not be evaluated at all
+     */
+    @NotNull
+    public String[] applyAll(@NotNull List<String> texts) throws ScriptException {
+        return getScriptPool().decipherSignatures(texts);
+    }
+
+    /**
+     * Transforms many n parameters at once, which is cheaper than transforming each of them separately.
+     * @param texts Texts to transform
+     * @return The results in input order, with {@code null} for values the transformation failed on
+     * @throws ScriptException If the cipher script could not be evaluated at all
+     */
+    @NotNull
+    public String[] transformAll(@NotNull List<String> texts) throws ScriptException {
+        return getScriptPool().transformNs(texts);
+    }
+
     /**
      * @param text         Text to transform
      * @param scriptEngine JavaScript engine to execute function
      * @return The result of the n parameter transformation
+     * @deprecated The script engine is no longer used, use {@link #transform(String)}.
      */
+    @Deprecated
     public String transform(@NotNull String text, @NotNull ScriptEngine scriptEngine)
         throws ScriptException, NoSuchMethodException {
-        String transformed;
+        return transform(text);
+    }
+
+    @NotNull
+    private CipherScriptPool getScriptPool() throws ScriptException {
+        CipherScriptPool pool = scriptPool;
 
-        scriptEngine.eval(globalVars + ";decrypt_nsig=" + nFunction);
-        transformed = (String) ((Invocable) scriptEngine).invokeFunction("decrypt_nsig", text);
+        if (pool == null) {
+            synchronized (this) {
+                if ((pool = scriptPool) == null) {
+                    pool = scriptPool = new CipherScriptPool(this, CipherScriptPool.DEFAULT_MAX_SCOPES);
+                }
+            }
+        }
 
-        return transformed;
+        return pool;
     }
 
 //  /**
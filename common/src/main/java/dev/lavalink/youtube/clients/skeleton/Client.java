@@ -26,6 +26,8 @@ import static com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity.
  */
 public interface Client {
     String OAUTH_CLIENT_ATTRIBUTE = "yt-oauth-enabled-client";
+    // The identifier of the client sending requests on an HttpInterface, used to attribute responses to it.
+    String IDENTIFIER_ATTRIBUTE = "yt-client-identifier";
 
     String WATCH_URL = "https://www.youtube.com/watch?v=";
     String API_BASE_URL = "https://youtubei.googleapis.com/youtubei/v1";
@@ -11,6 +11,7 @@ import dev.lavalink.youtube.YoutubeAudioSourceManager;
 import dev.lavalink.youtube.cipher.CipherManager;
 import dev.lavalink.youtube.cipher.CipherManager.CachedPlayerScript;
 import dev.lavalink.youtube.clients.ClientConfig;
+import dev.lavalink.youtube.http.JsonFieldExtractor;
 import dev.lavalink.youtube.track.TemporalInfo;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
@@ -22,10 +23,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity.COMMON;
@@ -40,6 +46,27 @@ public abstract class NonMusicClient implements Client {
     protected static String WEB_PLAYER_PARAMS = "2AMB";
     protected static String MOBILE_PLAYER_PARAMS = "CgIIAdgDAQ%3D%3D";
 
+    /**
+     * The top-level fields of player responses that are read. Everything else is skipped while reading the response.
+     */
+    protected static final Set<String> PLAYER_RESPONSE_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "playabilityStatus", "videoDetails", "streamingData"
+    )));
+
+    /**
+     * The top-level fields of player responses that are read when only the metadata of a video is needed.
+     */
+    protected static final Set<String> PLAYER_METADATA_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "playabilityStatus", "videoDetails"
+    )));
+
+    /**
+     * The top-level fields of playlist browse responses, and their continuations, that are read.
+     */
+    protected static final Set<String> PLAYLIST_RESPONSE_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "alerts", "header", "metadata", "contents", "continuationContents", "onResponseReceivedActions"
+    )));
+
     protected int playlistPageCount = 6;
 
     //<editor-fold desc="Class-Specific Methods">
@@ -75,6 +102,34 @@ public abstract class NonMusicClient implements Client {
         }
     }
 
+    /**
+     * Same as {@link #loadJsonResponse(HttpInterface, HttpPost, String)}, but only reads the given top-level fields,
+     * straight from the response stream.
+     */
+    @NotNull
+    protected JsonBrowser loadJsonResponse(@NotNull HttpInterface httpInterface,
+                                           @NotNull HttpPost request,
+                                           @NotNull String context,
+                                           @NotNull Set<String> fields) throws IOException {
+        if (request.getEntity() instanceof StringEntity) {
+            log.debug("Requesting {} ({}) with payload {}", request.getURI(), context, EntityUtils.toString(request.getEntity(), StandardCharsets.UTF_8));
+        } else {
+            log.debug("Requesting {} ({})", context, request.getURI());
+        }
+
+        try (CloseableHttpResponse response = httpInterface.execute(request)) {
+            HttpClientTools.assertSuccessWithContent(response, context);
+            HttpClientTools.assertJsonContentType(response);
+
+            try (InputStream stream = response.getEntity().getContent()) {
+                String json = JsonFieldExtractor.extract(stream, fields);
+                log.trace("Response from {} ({}) {}", request.getURI(), context, json);
+
+                return JsonBrowser.parse(json);
+            }
+        }
+    }
+
     @NotNull
     protected JsonBrowser loadTrackInfoFromInnertube(@NotNull YoutubeAudioSourceManager source,
                                                      @NotNull HttpInterface httpInterface,
@@ -106,18 +161,7 @@ public abstract class NonMusicClient implements Client {
                                                      boolean validatePlayabilityStatus) throws CannotBeLoaded, IOException {
         CipherManager cipherManager = source.getCipherManager();
 
-        ClientConfig config = getBaseClientConfig(httpInterface);
-
-        if (status == null) {
-            // Only add embed info if the status is not NON_EMBEDDABLE.
-            config.withClientField("clientScreen", "EMBED")
-                .withThirdPartyEmbedUrl("https://google.com");
-        }
-
-        config.withRootField("videoId", videoId)
-            .withRootField("racyCheckOk", true)
-            .withRootField("contentCheckOk", true);
-
+        ClientConfig config = getPlayerRequestConfig(httpInterface, videoId, status);
         String params = getPlayerParams();
 
         if (params != null) {
@@ -137,7 +181,7 @@ public abstract class NonMusicClient implements Client {
         HttpPost request = new HttpPost(PLAYER_URL);
         request.setEntity(new StringEntity(payload, "UTF-8"));
 
-        JsonBrowser json = loadJsonResponse(httpInterface, request, "player api response");
+        JsonBrowser json = loadJsonResponse(httpInterface, request, "player api response", PLAYER_RESPONSE_FIELDS);
         JsonBrowser playabilityJson = json.get("playabilityStatus");
         JsonBrowser videoDetails = json.get("videoDetails");
 
@@ -162,6 +206,77 @@ public abstract class NonMusicClient implements Client {
             }
         }
 
+        validateVideoDetails(json, videoDetails, videoId);
+        return json;
+    }
+
+    /**
+     * Retrieve raw JSON data for a specific video by its ID, for when only its metadata is needed.
+     * Unlike {@link #loadTrackInfoFromInnertube}, the request carries no player parameters or signature
+     * timestamp, so it never waits for the player script to be fetched. Only {@code videoDetails} is
+     * guaranteed to be checked, and {@code playabilityStatus} only if {@code videoDetails} is missing.
+     * @param httpInterface The interface to use for HTTP requests.
+     * @param videoId The ID of the video to retrieve information for.
+     * @param status The last playability status, or {@code null} if an attempt to retrieve
+     *               information has not been made yet.
+     * @return The raw JSON data as received from YouTube.
+     * @throws CannotBeLoaded If a video does not exist, is private, or otherwise inaccessible.
+     * @throws IOException If a HTTP request fails, etc.
+     */
+    @NotNull
+    protected JsonBrowser loadTrackMetadataFromInnertube(@NotNull HttpInterface httpInterface,
+                                                         @NotNull String videoId,
+                                                         @Nullable PlayabilityStatus status) throws CannotBeLoaded, IOException {
+        String payload = getPlayerRequestConfig(httpInterface, videoId, status)
+            .setAttributes(httpInterface)
+            .toJsonString();
+
+        HttpPost request = new HttpPost(PLAYER_URL);
+        request.setEntity(new StringEntity(payload, "UTF-8"));
+
+        JsonBrowser json = loadJsonResponse(httpInterface, request, "player api response", PLAYER_METADATA_FIELDS);
+        JsonBrowser videoDetails = json.get("videoDetails");
+
+        if (videoDetails.isNull()) {
+            PlayabilityStatus playabilityStatus = getPlayabilityStatus(json.get("playabilityStatus"), status != null);
+
+            if (playabilityStatus == PlayabilityStatus.NON_EMBEDDABLE) {
+                if (isEmbedded()) {
+                    throw new FriendlyException("Loading information for video failed", Severity.COMMON,
+                        new RuntimeException("Non-embeddable video cannot be loaded by embedded client"));
+                }
+
+                return loadTrackMetadataFromInnertube(httpInterface, videoId, playabilityStatus);
+            }
+        }
+
+        validateVideoDetails(json, videoDetails, videoId);
+        return json;
+    }
+
+    /**
+     * Builds the parts of a player request that are needed for both metadata and playback.
+     */
+    @NotNull
+    protected ClientConfig getPlayerRequestConfig(@NotNull HttpInterface httpInterface,
+                                                  @NotNull String videoId,
+                                                  @Nullable PlayabilityStatus status) {
+        ClientConfig config = getBaseClientConfig(httpInterface);
+
+        if (status == null) {
+            // Only add embed info if the status is not NON_EMBEDDABLE.
+            config.withClientField("clientScreen", "EMBED")
+                .withThirdPartyEmbedUrl("https://google.com");
+        }
+
+        return config.withRootField("videoId", videoId)
+            .withRootField("racyCheckOk", true)
+            .withRootField("contentCheckOk", true);
+    }
+
+    private void validateVideoDetails(@NotNull JsonBrowser json,
+                                      @NotNull JsonBrowser videoDetails,
+                                      @NotNull String videoId) {
         if (videoDetails.isNull()) {
             throw new FriendlyException("Loading information for video failed", Severity.SUSPICIOUS,
                 new RuntimeException("Missing videoDetails block, JSON: " + json.format()));
@@ -174,8 +289,6 @@ public abstract class NonMusicClient implements Client {
                 new RuntimeException("Incorrect video response, JSON: " + json.format())
             );
         }
-
-        return json;
     }
 
     @NotNull
@@ -249,7 +362,7 @@ public abstract class NonMusicClient implements Client {
         request.setEntity(new StringEntity(clientConfig.toJsonString(), "UTF-8"));
 
         try {
-            return loadJsonResponse(httpInterface, request, "playlist response");
+            return loadJsonResponse(httpInterface, request, "playlist response", PLAYLIST_RESPONSE_FIELDS);
         } catch (IOException e) {
             throw ExceptionTools.toRuntimeException(e);
         }
@@ -383,7 +496,7 @@ public abstract class NonMusicClient implements Client {
             throw new OptionDisabledException("Video loading is disabled for this client");
         }
 
-        JsonBrowser json = loadTrackInfoFromInnertube(source, httpInterface, videoId, null, false);
+        JsonBrowser json = loadTrackMetadataFromInnertube(httpInterface, videoId, null);
         JsonBrowser playabilityStatus = json.get("playabilityStatus");
         JsonBrowser videoDetails = json.get("videoDetails");
 
@@ -486,7 +599,7 @@ public abstract class NonMusicClient implements Client {
             request.setEntity(new StringEntity(clientConfig.toJsonString(), "UTF-8"));
 
             try {
-                JsonBrowser continuationJson = loadJsonResponse(httpInterface, request, "playlist response");
+                JsonBrowser continuationJson = loadJsonResponse(httpInterface, request, "playlist response", PLAYLIST_RESPONSE_FIELDS);
                 playlistVideoList = extractPlaylistContinuationVideos(continuationJson);
                 continuationsToken = extractPlaylistContinuationToken(playlistVideoList);
                 extractPlaylistTracks(playlistVideoList, tracks, source);
@@ -115,7 +115,8 @@ public abstract class StreamingNonMusicClient extends NonMusicClient {
                 cipherInfo.get("s"),
                 cipherInfo.getOrDefault("sp", DEFAULT_SIGNATURE_KEY),
                 formatJson.get("audioTrack").get("audioIsDefault").asBoolean(true),
-                formatJson.get("isDrc").asBoolean(false)
+                formatJson.get("isDrc").asBoolean(false),
+                formatJson.get("indexRange").get("end").asLong(-1)
             ));
 
             return true;
@@ -0,0 +1,152 @@
+package dev.lavalink.youtube.http;
+
+import com.grack.nanojson.JsonParserException;
+import com.grack.nanojson.JsonReader;
+import com.grack.nanojson.JsonStringWriter;
+import com.grack.nanojson.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * Reads only selected top-level fields of a JSON object from a stream. InnerTube responses are often hundreds of
+ * kilobytes, most of which (tracking parameters, microformats, storyboards, etc.) is never looked at. Other fields
+ * are skipped while reading, so neither the full response text nor a tree of it is ever held in memory.
+ * <p>
+ * The kept fields are returned as text, as {@link com.sedmelluq.discord.lavaplayer.tools.JsonBrowser} can only be
+ * created by parsing. Only the kept fields are parsed a second time that way.
+ */
+public class JsonFieldExtractor {
+    private static final double MAX_EXACT_DOUBLE = 1L << 53;
+
+    /**
+     * @param inputStream The stream to read a JSON object from. It is read until the end of the object.
+     * @param fields The names of the top-level fields to keep.
+     * @return The kept fields as compact JSON.
+     * @throws IOException If the stream could not be read, or does not contain a JSON object.
+     */
+    @NotNull
+    public static String extract(@NotNull InputStream inputStream, @NotNull Set<String> fields) throws IOException {
+        try {
+            JsonReader reader = JsonReader.from(inputStream);
+            JsonStringWriter writer = JsonWriter.string().object();
+
+            reader.object();
+
+            while (reader.next()) {
+                String key = reader.key();
+
+                if (fields.contains(key)) {
+                    copyValue(reader, writer, key);
+                } else {
+                    skipValue(reader);
+                }
+            }
+
+            return writer.end().done();
+        } catch (JsonParserException e) {
+            throw new IOException("Failed to read JSON response", e);
+        }
+    }
+
+    private static void copyValue(@NotNull JsonReader reader,
+                                  @NotNull JsonStringWriter writer,
+                                  @Nullable String key) throws JsonParserException {
+        switch (reader.current()) {
+            case OBJECT:
+                if (key == null) writer.object(); else writer.object(key);
+                reader.object();
+
+                while (reader.next()) {
+                    copyValue(reader, writer, reader.key());
+                }
+
+                writer.end();
+                break;
+            case ARRAY:
+                if (key == null) writer.array(); else writer.array(key);
+                reader.array();
+
+                while (reader.next()) {
+                    copyValue(reader, writer, null);
+                }
+
+                writer.end();
+                break;
+            case STRING:
+                String text = reader.string();
+                if (key == null) writer.value(text); else writer.value(key, text);
+                break;
+            case NUMBER:
+                Number number = toPlainNumber(reader.number());
+                if (key == null) writer.value(number); else writer.value(key, number);
+                break;
+            case BOOLEAN:
+                boolean bool = reader.bool();
+                if (key == null) writer.value(bool); else writer.value(key, bool);
+                break;
+            case NULL:
+                reader.nul();
+                if (key == null) writer.nul(); else writer.nul(key);
+                break;
+        }
+    }
+
+    private static void skipValue(@NotNull JsonReader reader) throws JsonParserException {
+        switch (reader.current()) {
+            case OBJECT:
+                reader.object();
+
+                while (reader.next()) {
+                    skipValue(reader);
+                }
+
+                break;
+            case ARRAY:
+                reader.array();
+
+                while (reader.next()) {
+                    skipValue(reader);
+                }
+
+                break;
+            case STRING:
+                reader.string();
+                break;
+            case NUMBER:
+                reader.number();
+                break;
+            case BOOLEAN:
+                reader.bool();
+                break;
+            case NULL:
+                reader.nul();
+                break;
+        }
+    }
+
+    /**
+     * nanojson parses numbers lazily, and its lazy numbers can't be written back as they are.
+     */
+    @NotNull
+    private static Number toPlainNumber(@NotNull Number number) {
+        double value = number.doubleValue();
+
+        if (value != Math.rint(value)) {
+            return value;
+        }
+
+        if (Math.abs(value) < MAX_EXACT_DOUBLE) {
+            return (long) value;
+        }
+
+        try {
+            return number.longValue();
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+}
@@ -2,8 +2,9 @@ package dev.lavalink.youtube.http;
 
 import com.sedmelluq.discord.lavaplayer.tools.http.HttpContextRetryCounter;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
-import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
 import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.scheduler.CircuitBreakers;
+import dev.lavalink.youtube.scheduler.InnertubeEndpoint;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.CookieStore;
 import org.apache.http.client.methods.HttpUriRequest;
@@ -22,16 +23,12 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
   private static final String ATTRIBUTE_RESET_RETRY = "isResetRetry";
   public static final String ATTRIBUTE_USER_AGENT_SPECIFIED = "clientUserAgent";
   public static final String ATTRIBUTE_VISITOR_DATA_SPECIFIED = "clientVisitorData";
-  public static final String ATTRIBUTE_CIPHER_REQUEST_SPECIFIED = "remoteCipherRequest";
 
   private static final HttpContextRetryCounter retryCounter = new HttpContextRetryCounter("yt-token-retry");
 
   private YoutubeAccessTokenTracker tokenTracker;
   private YoutubeOauth2Handler oauth2Handler;
-
-  private String remoteCipherPass;
-  private String remoteCipherUserAgent;
-  private String pluginVersion;
+  private CircuitBreakers circuitBreakers;
 
   public void setTokenTracker(@NotNull YoutubeAccessTokenTracker tokenTracker) {
     this.tokenTracker = tokenTracker;
@@ -41,12 +38,8 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
     this.oauth2Handler = oauth2Handler;
   }
 
-  public void setCipherConfig(@Nullable String remotePass,
-                              @Nullable String userAgent,
-                              @NotNull String pluginVersion) {
-    this.remoteCipherPass = remotePass;
-    this.remoteCipherUserAgent = userAgent;
-    this.pluginVersion = pluginVersion;
+  public void setCircuitBreakers(@Nullable CircuitBreakers circuitBreakers) {
+    this.circuitBreakers = circuitBreakers;
   }
 
 
@@ -84,17 +77,7 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
 
     String userAgent = context.getAttribute(ATTRIBUTE_USER_AGENT_SPECIFIED, String.class);
 
-    if (isRemoteCipherRequest(context)) {
-      if (!DataFormatTools.isNullOrEmpty(remoteCipherPass)) {
-        request.addHeader("Authorization", remoteCipherPass);
-      }
-
-      if (!DataFormatTools.isNullOrEmpty(remoteCipherUserAgent)) {
-        request.addHeader("User-Agent", remoteCipherUserAgent);
-      }
-
-      request.addHeader("Plugin-Version", pluginVersion);
-    } else if (!request.getURI().getHost().contains("googlevideo")) {
+    if (!request.getURI().getHost().contains("googlevideo")) {
       if (userAgent != null) {
         request.setHeader("User-Agent", userAgent);
 
@@ -138,6 +121,14 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
   public boolean onRequestResponse(HttpClientContext context,
                                    HttpUriRequest request,
                                    HttpResponse response) {
+    if (circuitBreakers != null) {
+      String clientIdentifier = context.getAttribute(Client.IDENTIFIER_ATTRIBUTE, String.class);
+      InnertubeEndpoint endpoint = InnertubeEndpoint.of(request.getURI());
+
+      if (clientIdentifier != null && endpoint != null) {
+        circuitBreakers.recordResponse(clientIdentifier, endpoint, response.getStatusLine().getStatusCode());
+      }
+    }
 
 //    if (tokenTracker.isTokenFetchContext(context) || retryCounter.getRetryCount(context) >= 1) {
 //      return false;
@@ -159,8 +150,4 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
 
     return false;
   }
-
-  private boolean isRemoteCipherRequest(HttpClientContext context) {
-    return context.removeAttribute(ATTRIBUTE_CIPHER_REQUEST_SPECIFIED) == Boolean.TRUE;
-  }
 }
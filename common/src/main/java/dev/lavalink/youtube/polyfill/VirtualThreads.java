@@ -0,0 +1,41 @@
+package dev.lavalink.youtube.polyfill;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads on Java 21 and newer, while still compiling for older versions.
+ */
+public class VirtualThreads {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+    /**
+     * @param namePrefix The prefix of thread names, followed by a counter.
+     * @return An executor starting a new virtual thread for every task, or {@code null} if the runtime does not
+     *         support virtual threads.
+     */
+    @Nullable
+    public static ExecutorService newVirtualThreadExecutor(@NotNull String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+        } catch (NoSuchMethodException | ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Virtual threads are present but could not be used", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package dev.lavalink.youtube.scheduler;
+
+/**
+ * Stops requests to an endpoint that keeps rejecting them. After {@code failureThreshold} rejections in a row the
+ * breaker opens, and no requests are allowed until the open duration passes. Then a single probe request is allowed
+ * through. If it succeeds the breaker closes, otherwise it opens again for twice as long, up to a maximum.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long initialOpenDurationMs;
+    private final long maxOpenDurationMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openDurationMs;
+    private long openUntilMs;
+    private long probeStartedMs;
+
+    public CircuitBreaker(int failureThreshold, long initialOpenDurationMs, long maxOpenDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.initialOpenDurationMs = initialOpenDurationMs;
+        this.maxOpenDurationMs = maxOpenDurationMs;
+        this.openDurationMs = initialOpenDurationMs;
+    }
+
+    /**
+     * @return Whether a request may be sent. While half-open, only one caller is allowed through as a probe. If the
+     *         probe never reports back, another one is allowed after the open duration.
+     */
+    public synchronized boolean tryAcquire(long now) {
+        switch (state) {
+            case OPEN:
+                if (now < openUntilMs) {
+                    return false;
+                }
+
+                state = State.HALF_OPEN;
+                probeStartedMs = now;
+                return true;
+            case HALF_OPEN:
+                if (now - probeStartedMs < openDurationMs) {
+                    return false;
+                }
+
+                probeStartedMs = now;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        openDurationMs = initialOpenDurationMs;
+    }
+
+    /**
+     * @return Whether this failure opened the breaker.
+     */
+    public synchronized boolean recordFailure(long now) {
+        switch (state) {
+            case HALF_OPEN:
+                openDurationMs = Math.min(openDurationMs * 2, maxOpenDurationMs);
+                open(now);
+                return true;
+            case OPEN:
+                // A response to a request sent before the breaker opened.
+                return false;
+            default:
+                if (++consecutiveFailures < failureThreshold) {
+                    return false;
+                }
+
+                open(now);
+                return true;
+        }
+    }
+
+    public synchronized State getState(long now) {
+        return state == State.OPEN && now >= openUntilMs ? State.HALF_OPEN : state;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openUntilMs = now + openDurationMs;
+        consecutiveFailures = 0;
+    }
+}
@@ -0,0 +1,109 @@
+package dev.lavalink.youtube.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link CircuitBreaker} for every client and {@link InnertubeEndpoint}. Breakers react to the status codes
+ * YouTube uses to reject a client, 400, 403 and 429, and are reset by any successful response. Other failures,
+ * such as server errors and connection problems, don't affect them.
+ */
+public class CircuitBreakers {
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreakers.class);
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_DURATION_MS = TimeUnit.SECONDS.toMillis(30);
+    public static final long MAX_OPEN_DURATION_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final ConcurrentMap<String, CircuitBreaker[]> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * @param failureThreshold The number of rejections in a row that open a breaker. 0 or less disables breakers.
+     * @param openDurationMs   How long a breaker stays open before a probe request is allowed, in milliseconds.
+     *                         Doubles every time a probe fails.
+     */
+    public CircuitBreakers(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    public boolean isEnabled() {
+        return failureThreshold > 0;
+    }
+
+    /**
+     * @return Whether the client may send a request to the endpoint.
+     */
+    public boolean tryAcquire(@NotNull String clientIdentifier, @NotNull InnertubeEndpoint endpoint) {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        CircuitBreaker[] clientBreakers = breakers.get(clientIdentifier);
+        return clientBreakers == null || clientBreakers[endpoint.ordinal()].tryAcquire(System.currentTimeMillis());
+    }
+
+    public void recordResponse(@NotNull String clientIdentifier, @NotNull InnertubeEndpoint endpoint, int statusCode) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (statusCode >= 200 && statusCode < 300) {
+            CircuitBreaker[] clientBreakers = breakers.get(clientIdentifier);
+
+            if (clientBreakers != null) {
+                clientBreakers[endpoint.ordinal()].recordSuccess();
+            }
+        } else if (statusCode == 400 || statusCode == 403 || statusCode == 429) {
+            if (breaker(clientIdentifier, endpoint).recordFailure(System.currentTimeMillis())) {
+                log.warn("Client \"{}\" was rejected by the {} endpoint repeatedly (last status {}), pausing its requests there",
+                    clientIdentifier, endpoint, statusCode);
+            }
+        }
+    }
+
+    /**
+     * @return The state of every breaker that saw a rejection so far, by client identifier and endpoint.
+     */
+    @NotNull
+    public Map<String, Map<InnertubeEndpoint, CircuitBreaker.State>> getStates() {
+        long now = System.currentTimeMillis();
+        Map<String, Map<InnertubeEndpoint, CircuitBreaker.State>> states = new LinkedHashMap<>();
+
+        for (Map.Entry<String, CircuitBreaker[]> entry : breakers.entrySet()) {
+            Map<InnertubeEndpoint, CircuitBreaker.State> endpoints = new EnumMap<>(InnertubeEndpoint.class);
+
+            for (InnertubeEndpoint endpoint : InnertubeEndpoint.values()) {
+                endpoints.put(endpoint, entry.getValue()[endpoint.ordinal()].getState(now));
+            }
+
+            states.put(entry.getKey(), Collections.unmodifiableMap(endpoints));
+        }
+
+        return Collections.unmodifiableMap(states);
+    }
+
+    @NotNull
+    private CircuitBreaker breaker(@NotNull String clientIdentifier, @NotNull InnertubeEndpoint endpoint) {
+        return breakers.computeIfAbsent(clientIdentifier, (key) -> {
+            CircuitBreaker[] clientBreakers = new CircuitBreaker[InnertubeEndpoint.values().length];
+
+            for (int i = 0; i < clientBreakers.length; i++) {
+                clientBreakers[i] = new CircuitBreaker(failureThreshold, openDurationMs, Math.max(openDurationMs, MAX_OPEN_DURATION_MS));
+            }
+
+            return clientBreakers;
+        })[endpoint.ordinal()];
+    }
+}
@@ -0,0 +1,12 @@
+package dev.lavalink.youtube.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Thrown instead of sending a request when the circuit breaker of the client and endpoint is open.
+ */
+public class CircuitOpenException extends RuntimeException {
+    public CircuitOpenException(@NotNull String clientIdentifier, @NotNull InnertubeEndpoint endpoint) {
+        super("Client \"" + clientIdentifier + "\" is paused for the " + endpoint + " endpoint after repeated rejections", null, false, false);
+    }
+}
@@ -0,0 +1,30 @@
+package dev.lavalink.youtube.scheduler;
+
+import dev.lavalink.youtube.cache.RouteKey;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The kinds of requests clients are ranked for separately, as a client may be broken for one but not another.
+ */
+public enum ClientOperation {
+    VIDEO,
+    SEARCH,
+    PLAYLIST,
+    MIX,
+    FORMATS;
+
+    @NotNull
+    public static ClientOperation of(@NotNull RouteKey.Type type) {
+        switch (type) {
+            case SEARCH:
+            case MUSIC_SEARCH:
+                return SEARCH;
+            case PLAYLIST:
+                return PLAYLIST;
+            case MIX:
+                return MIX;
+            default:
+                return VIDEO;
+        }
+    }
+}
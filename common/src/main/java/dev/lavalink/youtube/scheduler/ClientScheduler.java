@@ -0,0 +1,306 @@
+package dev.lavalink.youtube.scheduler;
+
+import dev.lavalink.youtube.clients.skeleton.Client;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks how well every client performs at every {@link ClientOperation}, using a rolling window of its most recent
+ * attempts. When adaptive ordering is enabled, clients are tried in order of their recent success rate, then their
+ * median latency, and clients which keep failing are benched, meaning they are only tried after all other clients for
+ * a while. A small share of requests tries a random client first, so clients that recovered are noticed.
+ * <p>
+ * Statistics are always tracked, and clients are tried in their configured order unless adaptive ordering is enabled.
+ * Clients with too few recent attempts, and clients which perform about equally, also keep their configured order.
+ */
+public class ClientScheduler {
+    private static final Logger log = LoggerFactory.getLogger(ClientScheduler.class);
+
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+    public static final int DEFAULT_MIN_SAMPLES = 10;
+    public static final double DEFAULT_EXPLORATION_RATE = 0.05;
+    public static final int DEFAULT_BENCH_AFTER_FAILURES = 5;
+    public static final long DEFAULT_BENCH_DURATION_MS = TimeUnit.MINUTES.toMillis(1);
+
+    // Success rates are compared in steps of this size, and latencies in steps of LATENCY_STEP_MS, so that
+    // clients performing about equally don't swap places on every request.
+    private static final double SUCCESS_RATE_STEP = 0.2;
+    private static final long LATENCY_STEP_MS = 500;
+
+    private final boolean adaptive;
+    private final int windowSize;
+    private final int minSamples;
+    private final double explorationRate;
+    private final int benchAfterFailures;
+    private final long benchDurationMs;
+    private final ConcurrentMap<String, Window[]> windows = new ConcurrentHashMap<>();
+
+    /**
+     * @param adaptive Whether to reorder clients based on their statistics.
+     */
+    public ClientScheduler(boolean adaptive) {
+        this(adaptive, DEFAULT_WINDOW_SIZE, DEFAULT_MIN_SAMPLES, DEFAULT_EXPLORATION_RATE,
+            DEFAULT_BENCH_AFTER_FAILURES, DEFAULT_BENCH_DURATION_MS);
+    }
+
+    /**
+     * @param adaptive           Whether to reorder clients based on their statistics.
+     * @param windowSize         The number of recent attempts to keep per client and operation.
+     * @param minSamples         The number of attempts a client needs before its statistics affect its position.
+     * @param explorationRate    The share of requests, between 0 and 1, that try a random client first.
+     * @param benchAfterFailures The number of consecutive failures after which a client is benched.
+     * @param benchDurationMs    How long a client stays benched, in milliseconds.
+     */
+    public ClientScheduler(boolean adaptive,
+                           int windowSize,
+                           int minSamples,
+                           double explorationRate,
+                           int benchAfterFailures,
+                           long benchDurationMs) {
+        this.adaptive = adaptive;
+        this.windowSize = windowSize;
+        this.minSamples = minSamples;
+        this.explorationRate = explorationRate;
+        this.benchAfterFailures = benchAfterFailures;
+        this.benchDurationMs = benchDurationMs;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @param clients   The clients in their configured order.
+     * @param operation The operation the clients will be used for.
+     * @return The clients in the order they should be tried. Benched clients are not removed, only moved last.
+     */
+    @NotNull
+    public List<Client> order(@NotNull Client[] clients, @NotNull ClientOperation operation) {
+        if (!adaptive || clients.length < 2) {
+            return new ArrayList<>(Arrays.asList(clients));
+        }
+
+        long now = System.currentTimeMillis();
+        List<Rank> ranks = new ArrayList<>(clients.length);
+
+        for (int i = 0; i < clients.length; i++) {
+            ranks.add(rank(clients[i], operation, i, now));
+        }
+
+        Collections.sort(ranks);
+
+        List<Client> ordered = new ArrayList<>(clients.length);
+        int available = 0;
+
+        for (Rank rank : ranks) {
+            ordered.add(rank.client);
+
+            if (!rank.benched) {
+                available++;
+            }
+        }
+
+        if (available > 1 && ThreadLocalRandom.current().nextDouble() < explorationRate) {
+            Client explored = ordered.remove(1 + ThreadLocalRandom.current().nextInt(available - 1));
+            ordered.add(0, explored);
+        }
+
+        return ordered;
+    }
+
+    /**
+     * Records an attempt which got an answer from YouTube. Videos that turned out to be unavailable count as a
+     * success, as the client did its job.
+     */
+    public void recordSuccess(@NotNull Client client, @NotNull ClientOperation operation, long latencyNanos) {
+        window(client.getIdentifier(), operation).record(true, TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+    }
+
+    public void recordFailure(@NotNull Client client, @NotNull ClientOperation operation, long latencyNanos) {
+        window(client.getIdentifier(), operation).record(false, TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+    }
+
+    @NotNull
+    public ClientStats getStats(@NotNull String clientIdentifier, @NotNull ClientOperation operation) {
+        Window[] clientWindows = windows.get(clientIdentifier);
+        return clientWindows == null ? ClientStats.EMPTY : clientWindows[operation.ordinal()].snapshot();
+    }
+
+    /**
+     * @return The statistics of every client that was used so far, by client identifier and operation.
+     */
+    @NotNull
+    public Map<String, Map<ClientOperation, ClientStats>> getStats() {
+        Map<String, Map<ClientOperation, ClientStats>> stats = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Window[]> entry : windows.entrySet()) {
+            Map<ClientOperation, ClientStats> operations = new EnumMap<>(ClientOperation.class);
+
+            for (ClientOperation operation : ClientOperation.values()) {
+                operations.put(operation, entry.getValue()[operation.ordinal()].snapshot());
+            }
+
+            stats.put(entry.getKey(), Collections.unmodifiableMap(operations));
+        }
+
+        return Collections.unmodifiableMap(stats);
+    }
+
+    @NotNull
+    private Rank rank(@NotNull Client client, @NotNull ClientOperation operation, int configuredIndex, long now) {
+        Window[] clientWindows = windows.get(client.getIdentifier());
+
+        if (clientWindows == null) {
+            return new Rank(client, false, 0, 0, configuredIndex);
+        }
+
+        return clientWindows[operation.ordinal()].rank(client, configuredIndex, now);
+    }
+
+    @NotNull
+    private Window window(@NotNull String clientIdentifier, @NotNull ClientOperation operation) {
+        return windows.computeIfAbsent(clientIdentifier, (key) -> {
+            Window[] clientWindows = new Window[ClientOperation.values().length];
+
+            for (ClientOperation value : ClientOperation.values()) {
+                clientWindows[value.ordinal()] = new Window(key, value);
+            }
+
+            return clientWindows;
+        })[operation.ordinal()];
+    }
+
+    /**
+     * Sort key of a client. Lower ranks are tried first.
+     */
+    private static class Rank implements Comparable<Rank> {
+        private final Client client;
+        private final boolean benched;
+        private final int failureStep;
+        private final long latencyStep;
+        private final int configuredIndex;
+
+        private Rank(@NotNull Client client, boolean benched, int failureStep, long latencyStep, int configuredIndex) {
+            this.client = client;
+            this.benched = benched;
+            this.failureStep = failureStep;
+            this.latencyStep = latencyStep;
+            this.configuredIndex = configuredIndex;
+        }
+
+        @Override
+        public int compareTo(@NotNull Rank other) {
+            if (benched != other.benched) return benched ? 1 : -1;
+            if (failureStep != other.failureStep) return Integer.compare(failureStep, other.failureStep);
+            if (latencyStep != other.latencyStep) return Long.compare(latencyStep, other.latencyStep);
+            return Integer.compare(configuredIndex, other.configuredIndex);
+        }
+    }
+
+    private class Window {
+        private final String clientIdentifier;
+        private final ClientOperation operation;
+        private final boolean[] outcomes = new boolean[windowSize];
+        private final long[] latencies = new long[windowSize];
+        private int next;
+        private int size;
+        private int successes;
+        private int consecutiveFailures;
+        private long benchedUntilMs;
+        private long p50LatencyMs;
+        private boolean percentilesDirty;
+
+        private Window(@NotNull String clientIdentifier, @NotNull ClientOperation operation) {
+            this.clientIdentifier = clientIdentifier;
+            this.operation = operation;
+        }
+
+        private synchronized void record(boolean success, long latencyMs) {
+            if (size == windowSize) {
+                if (outcomes[next]) successes--;
+            } else {
+                size++;
+            }
+
+            outcomes[next] = success;
+            latencies[next] = latencyMs;
+            next = (next + 1) % windowSize;
+            percentilesDirty = true;
+
+            if (success) {
+                successes++;
+                consecutiveFailures = 0;
+            } else if (++consecutiveFailures >= benchAfterFailures) {
+                boolean wasBenched = System.currentTimeMillis() < benchedUntilMs;
+                benchedUntilMs = System.currentTimeMillis() + benchDurationMs;
+
+                if (!wasBenched && adaptive) {
+                    log.warn("Client \"{}\" failed {} times in a row for {}, trying it last for {} ms",
+                        clientIdentifier, consecutiveFailures, operation, benchDurationMs);
+                }
+            }
+        }
+
+        @NotNull
+        private synchronized Rank rank(@NotNull Client client, int configuredIndex, long now) {
+            boolean benched = now < benchedUntilMs;
+
+            if (size < minSamples) {
+                return new Rank(client, benched, 0, 0, configuredIndex);
+            }
+
+            if (percentilesDirty) {
+                p50LatencyMs = successLatencyPercentiles()[0];
+                percentilesDirty = false;
+            }
+
+            double failureRate = 1 - (double) successes / size;
+            return new Rank(client, benched, (int) (failureRate / SUCCESS_RATE_STEP), p50LatencyMs / LATENCY_STEP_MS, configuredIndex);
+        }
+
+        @NotNull
+        private synchronized ClientStats snapshot() {
+            if (size == 0) {
+                return new ClientStats(0, 0, 0, 0, consecutiveFailures, benchedUntilMs);
+            }
+
+            long[] percentiles = successLatencyPercentiles();
+            return new ClientStats(size, successes, percentiles[0], percentiles[1], consecutiveFailures, benchedUntilMs);
+        }
+
+        /**
+         * @return The p50 and p99 latencies of the successful attempts in the window.
+         */
+        @NotNull
+        private long[] successLatencyPercentiles() {
+            if (successes == 0) {
+                return new long[] { 0, 0 };
+            }
+
+            long[] sorted = new long[successes];
+            int count = 0;
+
+            for (int i = 0; i < size; i++) {
+                if (outcomes[i]) {
+                    sorted[count++] = latencies[i];
+                }
+            }
+
+            Arrays.sort(sorted);
+            return new long[] { sorted[(sorted.length - 1) / 2], sorted[(int) Math.ceil(sorted.length * 0.99) - 1] };
+        }
+    }
+}
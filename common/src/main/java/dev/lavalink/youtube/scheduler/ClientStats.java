@@ -0,0 +1,89 @@
+package dev.lavalink.youtube.scheduler;
+
+/**
+ * An immutable snapshot of the recent attempts of one client at one {@link ClientOperation}.
+ */
+public class ClientStats {
+    public static final ClientStats EMPTY = new ClientStats(0, 0, 0, 0, 0, 0);
+
+    private final int samples;
+    private final int successes;
+    private final long p50LatencyMs;
+    private final long p99LatencyMs;
+    private final int consecutiveFailures;
+    private final long benchedUntilMs;
+
+    public ClientStats(int samples, int successes, long p50LatencyMs, long p99LatencyMs, int consecutiveFailures, long benchedUntilMs) {
+        this.samples = samples;
+        this.successes = successes;
+        this.p50LatencyMs = p50LatencyMs;
+        this.p99LatencyMs = p99LatencyMs;
+        this.consecutiveFailures = consecutiveFailures;
+        this.benchedUntilMs = benchedUntilMs;
+    }
+
+    /**
+     * @return The number of attempts in the rolling window.
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return The number of successful attempts in the rolling window.
+     */
+    public int getSuccesses() {
+        return successes;
+    }
+
+    /**
+     * @return The ratio of successful attempts in the rolling window, or 1 if there were no attempts.
+     */
+    public double getSuccessRate() {
+        return samples == 0 ? 1 : (double) successes / samples;
+    }
+
+    /**
+     * @return The median latency of successful attempts in the rolling window, in milliseconds.
+     */
+    public long getP50LatencyMs() {
+        return p50LatencyMs;
+    }
+
+    /**
+     * @return The 99th percentile latency of successful attempts in the rolling window, in milliseconds.
+     */
+    public long getP99LatencyMs() {
+        return p99LatencyMs;
+    }
+
+    /**
+     * @return The number of attempts that failed since the last successful one.
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return The time until which the client is tried last, in epoch milliseconds. 0 if it was never benched.
+     */
+    public long getBenchedUntilMs() {
+        return benchedUntilMs;
+    }
+
+    public boolean isBenched() {
+        return System.currentTimeMillis() < benchedUntilMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ClientStats{" +
+            "samples=" + samples +
+            ", successes=" + successes +
+            ", p50LatencyMs=" + p50LatencyMs +
+            ", p99LatencyMs=" + p99LatencyMs +
+            ", consecutiveFailures=" + consecutiveFailures +
+            ", benchedUntilMs=" + benchedUntilMs +
+            '}';
+    }
+}
@@ -0,0 +1,62 @@
+package dev.lavalink.youtube.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+
+/**
+ * The InnerTube endpoints clients send requests to. Rate limits are often applied per endpoint, so each one has its
+ * own circuit breaker.
+ */
+public enum InnertubeEndpoint {
+    PLAYER("player"),
+    SEARCH("search"),
+    BROWSE("browse"),
+    NEXT("next");
+
+    private static final String PATH_PREFIX = "/youtubei/v1/";
+
+    private final String path;
+
+    InnertubeEndpoint(@NotNull String path) {
+        this.path = path;
+    }
+
+    /**
+     * @return The endpoint a request URI points to, or {@code null} if it isn't an InnerTube request.
+     */
+    @Nullable
+    public static InnertubeEndpoint of(@NotNull URI uri) {
+        String path = uri.getPath();
+
+        if (path == null || !path.startsWith(PATH_PREFIX)) {
+            return null;
+        }
+
+        for (InnertubeEndpoint endpoint : values()) {
+            if (path.length() == PATH_PREFIX.length() + endpoint.path.length() && path.endsWith(endpoint.path)) {
+                return endpoint;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return The endpoint an operation mainly depends on.
+     */
+    @NotNull
+    public static InnertubeEndpoint of(@NotNull ClientOperation operation) {
+        switch (operation) {
+            case SEARCH:
+                return SEARCH;
+            case PLAYLIST:
+                return BROWSE;
+            case MIX:
+                return NEXT;
+            default:
+                return PLAYER;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package dev.lavalink.youtube.track;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decides how many bytes {@link YoutubePersistentHttpStream} requests with every range, and therefore with every
+ * connection. Larger chunks need fewer connections, smaller chunks waste less when playback stops or seeks early.
+ */
+@FunctionalInterface
+public interface ChunkSizeStrategy {
+    /**
+     * The largest range that can be requested without being throttled.
+     */
+    long THROTTLING_THRESHOLD = 11862014;
+
+    /**
+     * The smallest chunk the built-in strategies request, so that short chunks don't cause a flood of connections.
+     */
+    long MIN_CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * @param contentLength The length of the stream in bytes.
+     * @param bitrate       The bitrate of the format in bits per second, or a value below 1 if unknown.
+     * @param metrics       The metrics of the stream so far.
+     * @return The number of bytes to request with the next range. Values above {@link #THROTTLING_THRESHOLD} are
+     *         capped to it.
+     */
+    long getChunkSize(long contentLength, long bitrate, @NotNull StreamMetrics metrics);
+
+    /**
+     * Requests ranges of the same size. {@code fixed(THROTTLING_THRESHOLD)} is the default.
+     */
+    @NotNull
+    static ChunkSizeStrategy fixed(long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        return (contentLength, bitrate, metrics) -> chunkSize;
+    }
+
+    /**
+     * Requests ranges holding about this much playback time, derived from the bitrate of the format.
+     * Formats with an unknown bitrate use the throttling threshold.
+     */
+    @NotNull
+    static ChunkSizeStrategy bitrate(long targetSeconds) {
+        if (targetSeconds <= 0) {
+            throw new IllegalArgumentException("Target seconds must be positive");
+        }
+
+        return (contentLength, bitrate, metrics) -> {
+            if (bitrate <= 0) {
+                return THROTTLING_THRESHOLD;
+            }
+
+            return clamp(bitrate / 8 * targetSeconds);
+        };
+    }
+
+    /**
+     * Requests ranges that take about this long to download at the throughput measured on the stream so far,
+     * up to the throttling threshold. Until a throughput was measured, ranges use the throttling threshold.
+     */
+    @NotNull
+    static ChunkSizeStrategy adaptive(long targetConnectionSeconds) {
+        if (targetConnectionSeconds <= 0) {
+            throw new IllegalArgumentException("Target seconds must be positive");
+        }
+
+        return (contentLength, bitrate, metrics) -> {
+            long throughput = metrics.getThroughputBytesPerSecond();
+
+            if (throughput <= 0) {
+                return THROTTLING_THRESHOLD;
+            }
+
+            return clamp(throughput * targetConnectionSeconds);
+        };
+    }
+
+    static long clamp(long chunkSize) {
+        return Math.max(MIN_CHUNK_SIZE, Math.min(THROTTLING_THRESHOLD, chunkSize));
+    }
+}
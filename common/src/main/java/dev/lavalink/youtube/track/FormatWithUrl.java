@@ -0,0 +1,84 @@
+package dev.lavalink.youtube.track;
+
+import dev.lavalink.youtube.UrlTools;
+import dev.lavalink.youtube.UrlTools.UrlInfo;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+
+import static com.sedmelluq.discord.lavaplayer.tools.DataFormatTools.decodeUrlEncodedItems;
+
+/**
+ * A stream format together with the URL it can be played from, after deciphering and any transformations
+ * by the client that loaded it.
+ */
+public class FormatWithUrl {
+    private static final Logger log = LoggerFactory.getLogger(FormatWithUrl.class);
+
+    public final StreamFormat format;
+    public final URI signedUrl;
+
+    public FormatWithUrl(@NotNull StreamFormat format,
+                         @NotNull URI signedUrl) {
+        this.format = format;
+        this.signedUrl = signedUrl;
+    }
+
+    /**
+     * @return The time at which the signed URL stops working, in epoch milliseconds, as given by its {@code expire}
+     *         parameter, or -1 if it has none.
+     */
+    public long getExpiresAtMs() {
+        UrlInfo urlInfo = UrlTools.getUrlInfo(signedUrl.toString(), true);
+        String expire = urlInfo.parameters.get("expire");
+
+        if (expire == null) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(expire) * 1000;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public boolean isExpired() {
+        long expiresAtMs = getExpiresAtMs();
+        return expiresAtMs != -1 && System.currentTimeMillis() >= expiresAtMs;
+    }
+
+    @Nullable
+    public FormatWithUrl getFallback() {
+        String signedString = signedUrl.toString();
+        Map<String, String> urlParameters = decodeUrlEncodedItems(signedString, false);
+
+        String mn = urlParameters.get("mn");
+
+        if (mn == null) {
+            return null;
+        }
+
+        String[] hosts = mn.split(",");
+
+        if (hosts.length < 2) {
+            log.warn("Cannot fallback, available hosts: {}", String.join(", ", hosts));
+            return null;
+        }
+
+        String newUrl = signedString.replaceFirst(hosts[0], hosts[1]);
+
+        try {
+            URI uri = new URI(newUrl);
+            return new FormatWithUrl(format, uri);
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dev.lavalink.youtube.track;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A format that was resolved ahead of playback, together with the client that resolved it.
+ * Playback starts with that client, so the format can be used without any further requests.
+ */
+public class PrefetchedFormat {
+    public final String clientIdentifier;
+    public final FormatWithUrl format;
+
+    public PrefetchedFormat(@NotNull String clientIdentifier,
+                            @NotNull FormatWithUrl format) {
+        this.clientIdentifier = clientIdentifier;
+        this.format = format;
+    }
+}
@@ -0,0 +1,100 @@
+package dev.lavalink.youtube.track;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counters of a single {@link YoutubePersistentHttpStream}, for tuning its {@link ChunkSizeStrategy}. Updated by the
+ * thread reading the stream, and by its read-ahead, so reads from other threads may be slightly out of date.
+ */
+public class StreamMetrics {
+    private volatile long connections;
+    private volatile long reconnects;
+    private volatile long bytesRead;
+    private volatile long readNanos;
+    private volatile long firstByteNanos = -1;
+    private volatile long totalFirstByteNanos;
+
+    /**
+     * Records a new connection.
+     * @param firstByteNanos The time from sending the request until its response started, in nanoseconds.
+     * @param reconnect      Whether the connection replaces one that failed, rather than continuing with the
+     *                       next range.
+     */
+    public synchronized void recordConnection(long firstByteNanos, boolean reconnect) {
+        connections++;
+        totalFirstByteNanos += firstByteNanos;
+
+        if (reconnect) {
+            reconnects++;
+        }
+
+        if (this.firstByteNanos == -1) {
+            this.firstByteNanos = firstByteNanos;
+        }
+    }
+
+    /**
+     * Records bytes read from a connection.
+     * @param bytes The number of bytes read.
+     * @param nanos The time spent waiting for them, in nanoseconds.
+     */
+    public synchronized void recordRead(long bytes, long nanos) {
+        bytesRead += bytes;
+        readNanos += nanos;
+    }
+
+    public long getConnections() {
+        return connections;
+    }
+
+    public long getReconnects() {
+        return reconnects;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getBytesPerConnection() {
+        long connections = this.connections;
+        return connections == 0 ? 0 : bytesRead / connections;
+    }
+
+    /**
+     * @return The time until the first connection of the stream started responding, in milliseconds, or -1 if the
+     *         stream has not connected yet.
+     */
+    public long getTimeToFirstByteMs() {
+        long nanos = firstByteNanos;
+        return nanos == -1 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    public long getAverageTimeToFirstByteMs() {
+        long connections = this.connections;
+        return connections == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(totalFirstByteNanos / connections);
+    }
+
+    /**
+     * @return The rate at which bytes arrived while the stream was waiting for them, or 0 if nothing was read yet.
+     */
+    public synchronized long getThroughputBytesPerSecond() {
+        if (bytesRead == 0 || readNanos == 0) {
+            return 0;
+        }
+
+        return (long) (bytesRead / (readNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Override
+    public String toString() {
+        return "StreamMetrics{" +
+            "connections=" + connections +
+            ", reconnects=" + reconnects +
+            ", bytesRead=" + bytesRead +
+            ", bytesPerConnection=" + getBytesPerConnection() +
+            ", timeToFirstByteMs=" + getTimeToFirstByteMs() +
+            ", averageTimeToFirstByteMs=" + getAverageTimeToFirstByteMs() +
+            ", throughputBytesPerSecond=" + getThroughputBytesPerSecond() +
+            '}';
+    }
+}
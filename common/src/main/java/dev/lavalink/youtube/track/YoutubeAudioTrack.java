@@ -14,13 +14,21 @@ import com.sedmelluq.discord.lavaplayer.track.DelegatedAudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.playback.LocalAudioTrackExecutor;
 import dev.lavalink.youtube.CannotBeLoaded;
 import dev.lavalink.youtube.ClientInformation;
-import dev.lavalink.youtube.UrlTools;
-import dev.lavalink.youtube.UrlTools.UrlInfo;
 import dev.lavalink.youtube.YoutubeAudioSourceManager;
+import dev.lavalink.youtube.cache.ContainerIndexCache;
+import dev.lavalink.youtube.cache.StreamUrlCache;
 import dev.lavalink.youtube.cipher.ScriptExtractionException;
 import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.scheduler.CircuitOpenException;
+import dev.lavalink.youtube.scheduler.ClientOperation;
+import dev.lavalink.youtube.scheduler.ClientScheduler;
+import dev.lavalink.youtube.scheduler.InnertubeEndpoint;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import dev.lavalink.youtube.track.format.TrackFormats;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -29,11 +37,15 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.sedmelluq.discord.lavaplayer.container.Formats.MIME_AUDIO_WEBM;
-import static com.sedmelluq.discord.lavaplayer.tools.DataFormatTools.decodeUrlEncodedItems;
 import static com.sedmelluq.discord.lavaplayer.tools.Units.CONTENT_LENGTH_UNKNOWN;
 import static dev.lavalink.youtube.http.YoutubeOauth2Handler.OAUTH_INJECT_CONTEXT_ATTRIBUTE;
 
@@ -70,31 +82,48 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
     }
 
     try (HttpInterface httpInterface = sourceManager.getInterface()) {
-      try {
-        Object userData = getUserData();
+      // URLs requested with a user's own token are not shared through the caches.
+      boolean useStreamUrlCache = !applyUserDataToken(httpInterface);
+      PrefetchedFormat prefetched = useStreamUrlCache ? sourceManager.takePrefetchedFormat(getIdentifier()) : null;
+      List<Client> orderedClients = sourceManager.getClientScheduler().order(clients, ClientOperation.FORMATS);
+      Exception lastException = null;
 
-        if (userData != null) {
-          JsonBrowser jsonUserData = JsonBrowser.parse(userData.toString());
+      if (prefetched != null) {
+        // Start with the client that resolved the prefetched format, so it can be used right away.
+        orderedClients.stream()
+            .filter(client -> client.getIdentifier().equals(prefetched.clientIdentifier))
+            .findFirst()
+            .ifPresent(client -> {
+              orderedClients.remove(client);
+              orderedClients.add(0, client);
+            });
+      }
 
-          if (jsonUserData.get("oauth-token") != null) {
-            httpInterface.getContext().setAttribute(OAUTH_INJECT_CONTEXT_ATTRIBUTE, jsonUserData.get("oauth-token").text());
-          }
+      for (Client client : orderedClients) {
+        if (!client.supportsFormatLoading()) {
+          continue;
         }
-      } catch (IOException e) {
-        log.debug("Failed to parse token from userData", e);
-      }
 
-      Exception lastException = null;
+        if (!sourceManager.getCircuitBreakers().tryAcquire(client.getIdentifier(), InnertubeEndpoint.PLAYER)) {
+          log.debug("Skipping client {} for {}, its player circuit breaker is open", client.getIdentifier(), getIdentifier());
+
+          if (lastException == null) {
+            lastException = new CircuitOpenException(client.getIdentifier(), InnertubeEndpoint.PLAYER);
+          }
 
-      for (Client client : clients) {
-        if (!client.supportsFormatLoading()) {
           continue;
         }
 
-        httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+        setClientAttributes(httpInterface, client);
+
+        FormatWithUrl knownFormat = null;
+
+        if (prefetched != null && client.getIdentifier().equals(prefetched.clientIdentifier)) {
+          knownFormat = prefetched.format;
+        }
 
         try {
-          processWithClient(localExecutor, httpInterface, client, 0);
+          processWithClient(localExecutor, httpInterface, client, 0, useStreamUrlCache, knownFormat);
           return; // stream played through successfully, short-circuit.
         } catch (RuntimeException e) {
           // store exception so it can be thrown if we run out of clients to
@@ -147,9 +176,28 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
   private void processWithClient(LocalAudioTrackExecutor localExecutor,
                                  HttpInterface httpInterface,
                                  Client client,
-                                 long streamPosition) throws CannotBeLoaded, Exception {
-    FormatWithUrl augmentedFormat = loadBestFormatWithUrl(httpInterface, client);
-    log.debug("Starting track with URL from client {}: {}", client.getIdentifier(), augmentedFormat.signedUrl);
+                                 long streamPosition,
+                                 boolean useStreamUrlCache,
+                                 @Nullable FormatWithUrl knownFormat) throws CannotBeLoaded, Exception {
+    StreamUrlCache streamUrlCache = useStreamUrlCache ? sourceManager.getStreamUrlCache() : null;
+    FormatWithUrl augmentedFormat = knownFormat;
+
+    if (augmentedFormat == null && streamUrlCache != null) {
+      augmentedFormat = streamUrlCache.get(getIdentifier(), client.getIdentifier());
+    }
+
+    boolean cached = augmentedFormat != null;
+
+    if (cached) {
+      log.debug("Starting track with cached URL from client {}: {}", client.getIdentifier(), augmentedFormat.signedUrl);
+    } else {
+      augmentedFormat = loadRecorded(client, () -> loadBestFormatWithUrl(httpInterface, client));
+      log.debug("Starting track with URL from client {}: {}", client.getIdentifier(), augmentedFormat.signedUrl);
+
+      if (streamUrlCache != null && !trackInfo.isStream) {
+        streamUrlCache.put(getIdentifier(), client.getIdentifier(), augmentedFormat);
+      }
+    }
 
     try {
       if (trackInfo.isStream || augmentedFormat.format.getContentLength() == CONTENT_LENGTH_UNKNOWN) {
@@ -158,7 +206,225 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
         processStatic(localExecutor, httpInterface, augmentedFormat, streamPosition);
       }
     } catch (StreamExpiredException e) {
-      processWithClient(localExecutor, httpInterface, client, e.lastStreamPosition);
+      if (streamUrlCache != null) {
+        streamUrlCache.invalidate(getIdentifier(), client.getIdentifier());
+      }
+
+      processWithClient(localExecutor, httpInterface, client, e.lastStreamPosition, useStreamUrlCache, null);
+    } catch (RuntimeException e) {
+      if (streamUrlCache == null || !"Not success status code: 403".equals(e.getMessage())) {
+        throw e;
+      }
+
+      streamUrlCache.invalidate(getIdentifier(), client.getIdentifier());
+
+      if (cached && localExecutor.getPosition() <= BAD_STREAM_POSITION_THRESHOLD_MS) {
+        // The cached URL may have been revoked, or bound to another address. Try again with a fresh one, which
+        // takes its place in the cache.
+        log.debug("Cached URL for {} from client {} was rejected, loading a new one", getIdentifier(), client.getIdentifier());
+        processWithClient(localExecutor, httpInterface, client, streamPosition, true, null);
+        return;
+      }
+
+      throw e;
+    }
+  }
+
+  /**
+   * Resolves the format and signed URL this track would be played from, so that playback can start without
+   * any requests to YouTube. The result is kept by the source manager until the track is played, or for a few
+   * minutes at most. Tracks carrying their own OAuth token are not warmed up, as their URLs are not shared.
+   * @param checkUrl Whether to also request the first byte of the stream, to check that the media server accepts
+   *                 the URL. Only the status is checked, playback still opens its own connection.
+   * @see YoutubeAudioSourceManager#prefetch(AudioTrack, boolean)
+   */
+  public void warmUp(boolean checkUrl) {
+    try (HttpInterface httpInterface = sourceManager.getInterface()) {
+      if (applyUserDataToken(httpInterface)) {
+        return;
+      }
+
+      warmUpWithClients(httpInterface, client -> {
+        FormatWithUrl augmentedFormat = loadRecorded(client, () -> loadBestFormatWithUrl(httpInterface, client));
+        storeWarmedUp(httpInterface, client, augmentedFormat, checkUrl);
+        return augmentedFormat;
+      });
+    } catch (IOException e) {
+      throw ExceptionTools.toRuntimeException(e);
+    }
+  }
+
+  /**
+   * Warms up many tracks like {@link #warmUp(boolean)}, but deciphers the URLs of all tracks that share a player
+   * script with a single call to the cipher manager. Tracks that cannot be warmed up are skipped, and are loaded
+   * as usual once played.
+   * @param sourceManager The source manager all the tracks belong to.
+   * @see YoutubeAudioSourceManager#prefetch(Collection, boolean)
+   */
+  public static void warmUp(@NotNull YoutubeAudioSourceManager sourceManager,
+                            @NotNull List<YoutubeAudioTrack> tracks,
+                            boolean checkUrl) {
+    List<LoadedFormat> plainFormats = new ArrayList<>();
+    Map<String, List<LoadedFormat>> formatsByPlayerScript = new LinkedHashMap<>();
+
+    for (YoutubeAudioTrack track : tracks) {
+      try (HttpInterface httpInterface = sourceManager.getInterface()) {
+        if (track.applyUserDataToken(httpInterface)) {
+          continue;
+        }
+
+        LoadedFormat loaded = track.warmUpWithClients(httpInterface, client -> {
+          TrackFormats formats = track.loadRecorded(client, () -> track.loadFormats(httpInterface, client));
+          return new LoadedFormat(track, client, formats.getBestFormat(), formats.getPlayerScriptUrl());
+        });
+
+        if (loaded.client.requirePlayerScript()) {
+          formatsByPlayerScript.computeIfAbsent(loaded.playerScript, key -> new ArrayList<>()).add(loaded);
+        } else {
+          plainFormats.add(loaded);
+        }
+      } catch (Exception e) {
+        log.debug("Failed to load formats of {} for warming up", track.getIdentifier(), e);
+      }
+    }
+
+    try (HttpInterface httpInterface = sourceManager.getInterface()) {
+      for (LoadedFormat loaded : plainFormats) {
+        loaded.store(httpInterface, loaded.format.getUrl(), checkUrl);
+      }
+
+      for (Map.Entry<String, List<LoadedFormat>> entry : formatsByPlayerScript.entrySet()) {
+        List<LoadedFormat> group = entry.getValue();
+        List<URI> resolvedUrls;
+
+        try {
+          List<StreamFormat> formats = group.stream().map(loaded -> loaded.format).collect(Collectors.toList());
+          resolvedUrls = sourceManager.getCipherManager().resolveFormatUrls(httpInterface, entry.getKey(), formats);
+        } catch (Exception e) {
+          log.debug("Failed to resolve URLs of {} formats with player script {}", group.size(), entry.getKey(), e);
+          continue;
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+          LoadedFormat loaded = group.get(i);
+          loaded.store(httpInterface, loaded.client.transformPlaybackUri(loaded.format.getUrl(), resolvedUrls.get(i)), checkUrl);
+        }
+      }
+    } catch (IOException e) {
+      throw ExceptionTools.toRuntimeException(e);
+    }
+  }
+
+  /**
+   * Runs a step of warming up with every client in scheduler order, until one of them succeeds.
+   * @return The result of the first client that succeeded.
+   */
+  @NotNull
+  private <T> T warmUpWithClients(@NotNull HttpInterface httpInterface, @NotNull ClientStep<T> step) {
+    Exception lastException = null;
+
+    for (Client client : sourceManager.getClientScheduler().order(sourceManager.getClients(), ClientOperation.FORMATS)) {
+      if (!client.supportsFormatLoading() || !sourceManager.getCircuitBreakers().tryAcquire(client.getIdentifier(), InnertubeEndpoint.PLAYER)) {
+        continue;
+      }
+
+      setClientAttributes(httpInterface, client);
+
+      try {
+        T result = step.apply(client);
+        log.debug("Warmed up {} with client {}", getIdentifier(), client.getIdentifier());
+        return result;
+      } catch (CannotBeLoaded e) {
+        throw ExceptionTools.wrapUnfriendlyExceptions("This video is unavailable", Severity.SUSPICIOUS, e.getCause());
+      } catch (Exception e) {
+        e.addSuppressed(ClientInformation.create(client));
+        lastException = e;
+      }
+    }
+
+    if (lastException != null) {
+      throw ExceptionTools.toRuntimeException(lastException);
+    }
+
+    throw new FriendlyException("This video cannot be played", Severity.COMMON,
+        new RuntimeException("None of the registered clients is available for loading formats"));
+  }
+
+  private void storeWarmedUp(@NotNull HttpInterface httpInterface,
+                             @NotNull Client client,
+                             @NotNull FormatWithUrl augmentedFormat,
+                             boolean checkUrl) throws IOException {
+    if (checkUrl && !trackInfo.isStream && augmentedFormat.format.getContentLength() != CONTENT_LENGTH_UNKNOWN) {
+      checkUrl(httpInterface, augmentedFormat);
+    }
+
+    sourceManager.storePrefetchedFormat(getIdentifier(), new PrefetchedFormat(client.getIdentifier(), augmentedFormat));
+  }
+
+  private static void setClientAttributes(@NotNull HttpInterface httpInterface, @NotNull Client client) {
+    httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+    httpInterface.getContext().setAttribute(Client.IDENTIFIER_ATTRIBUTE, client.getIdentifier());
+  }
+
+  private void checkUrl(@NotNull HttpInterface httpInterface,
+                        @NotNull FormatWithUrl augmentedFormat) throws IOException {
+    URI rangeUrl;
+
+    try {
+      rangeUrl = new URIBuilder(augmentedFormat.signedUrl).addParameter("range", "0-0").build();
+    } catch (URISyntaxException e) {
+      throw new RuntimeException(e);
+    }
+
+    try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(rangeUrl))) {
+      int statusCode = response.getStatusLine().getStatusCode();
+      EntityUtils.consumeQuietly(response.getEntity());
+
+      if (statusCode != 200) {
+        throw new RuntimeException("Not success status code: " + statusCode);
+      }
+    }
+  }
+
+  /**
+   * Applies the OAuth token from the user data of this track, if it has one.
+   * @return Whether a token was applied.
+   */
+  private boolean applyUserDataToken(@NotNull HttpInterface httpInterface) {
+    try {
+      Object userData = getUserData();
+
+      if (userData != null) {
+        JsonBrowser jsonUserData = JsonBrowser.parse(userData.toString());
+
+        if (jsonUserData.get("oauth-token") != null) {
+          httpInterface.getContext().setAttribute(OAUTH_INJECT_CONTEXT_ATTRIBUTE, jsonUserData.get("oauth-token").text());
+        }
+      }
+    } catch (IOException e) {
+      log.debug("Failed to parse token from userData", e);
+    }
+
+    return httpInterface.getContext().getAttribute(OAUTH_INJECT_CONTEXT_ATTRIBUTE) != null;
+  }
+
+  /**
+   * Runs a step of loading formats, and records its outcome with the client scheduler.
+   */
+  private <T> T loadRecorded(@NotNull Client client, @NotNull FormatStep<T> step) throws CannotBeLoaded, Exception {
+    ClientScheduler scheduler = sourceManager.getClientScheduler();
+    long startTime = System.nanoTime();
+
+    try {
+      T result = step.load();
+      scheduler.recordSuccess(client, ClientOperation.FORMATS, System.nanoTime() - startTime);
+      return result;
+    } catch (CannotBeLoaded e) {
+      scheduler.recordSuccess(client, ClientOperation.FORMATS, System.nanoTime() - startTime);
+      throw e;
+    } catch (Exception e) {
+      scheduler.recordFailure(client, ClientOperation.FORMATS, System.nanoTime() - startTime);
+      throw e;
     }
   }
 
@@ -169,10 +435,22 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
     YoutubePersistentHttpStream stream = null;
 
     try {
-      stream = new YoutubePersistentHttpStream(httpInterface, augmentedFormat.signedUrl, augmentedFormat.format.getContentLength());
+      stream = new YoutubePersistentHttpStream(httpInterface, augmentedFormat.signedUrl, augmentedFormat.format.getContentLength(),
+          augmentedFormat.format.getBitrate(), sourceManager.getChunkSizeStrategy());
+
+      if (sourceManager.isStreamReadAhead()) {
+        stream.setReadAhead(sourceManager.getLoadExecutor());
+      }
+
+      boolean headerCached = applyContainerIndexCache(stream, augmentedFormat.format);
 
       if (streamPosition > 0) {
-        stream.seek(streamPosition);
+        if (headerCached && localExecutor.getPosition() > 0) {
+          // Parsing the container again costs no requests now, so seek by time using its index instead.
+          localExecutor.setPosition(localExecutor.getPosition());
+        } else {
+          stream.seek(streamPosition);
+        }
       }
 
       if (augmentedFormat.format.getType().getMimeType().endsWith("/webm")) {
@@ -188,11 +466,38 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
       throw e;
     } finally {
       if (stream != null) {
+        log.debug("Stream metrics for {}: {}", getIdentifier(), stream.getMetrics());
         stream.close();
       }
     }
   }
 
+  /**
+   * Serves the start of the stream up to the end of its container index from the cache, or collects it into the
+   * cache while it is read.
+   * @return Whether the header was served from the cache.
+   */
+  private boolean applyContainerIndexCache(@NotNull YoutubePersistentHttpStream stream, @NotNull StreamFormat format) {
+    ContainerIndexCache indexCache = sourceManager.getContainerIndexCache();
+    long headerLength = format.getIndexRangeEnd() + 1;
+
+    if (indexCache == null || headerLength <= 0 || headerLength > ContainerIndexCache.MAX_HEADER_LENGTH) {
+      return false;
+    }
+
+    byte[] header = indexCache.get(getIdentifier(), format.getItag(), format.getContentLength(), headerLength);
+
+    if (header != null) {
+      log.debug("Using cached container index of {} for itag {}", getIdentifier(), format.getItag());
+      stream.setHeader(header);
+      return true;
+    }
+
+    String videoId = getIdentifier();
+    stream.recordHeader((int) headerLength, recorded -> indexCache.put(videoId, format.getItag(), format.getContentLength(), recorded));
+    return false;
+  }
+
   private void processStream(LocalAudioTrackExecutor localExecutor,
                              HttpInterface httpInterface,
                              FormatWithUrl augmentedFormat) throws Exception {
@@ -205,8 +510,8 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
   }
 
   @NotNull
-  private FormatWithUrl loadBestFormatWithUrl(@NotNull HttpInterface httpInterface,
-                                              @NotNull Client client) throws CannotBeLoaded, Exception {
+  private TrackFormats loadFormats(@NotNull HttpInterface httpInterface,
+                                   @NotNull Client client) throws CannotBeLoaded, Exception {
     if (!client.supportsFormatLoading()) {
       throw new RuntimeException(client.getIdentifier() + " does not support loading of formats!");
     }
@@ -217,6 +522,13 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
       throw new FriendlyException("This video cannot be played", Severity.SUSPICIOUS, null);
     }
 
+    return formats;
+  }
+
+  @NotNull
+  private FormatWithUrl loadBestFormatWithUrl(@NotNull HttpInterface httpInterface,
+                                              @NotNull Client client) throws CannotBeLoaded, Exception {
+    TrackFormats formats = loadFormats(httpInterface, client);
     StreamFormat format = formats.getBestFormat();
 
     URI resolvedUrl = format.getUrl();
@@ -244,53 +556,42 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
     return true;
   }
 
-  private static class FormatWithUrl {
-    private final StreamFormat format;
-    private final URI signedUrl;
-
-    private FormatWithUrl(@NotNull StreamFormat format,
-                          @NotNull URI signedUrl) {
-      this.format = format;
-      this.signedUrl = signedUrl;
-    }
-
-    public boolean isExpired() {
-      UrlInfo urlInfo = UrlTools.getUrlInfo(signedUrl.toString(), true);
-      String expire = urlInfo.parameters.get("expire");
+  @FunctionalInterface
+  private interface ClientStep<T> {
+    T apply(@NotNull Client client) throws CannotBeLoaded, Exception;
+  }
 
-      if (expire == null) {
-        return false;
-      }
+  @FunctionalInterface
+  private interface FormatStep<T> {
+    T load() throws CannotBeLoaded, Exception;
+  }
 
-      long expiresAbsMillis = Long.parseLong(expire) * 1000;
-      return System.currentTimeMillis() >= expiresAbsMillis;
+  /**
+   * The best format of a track being warmed up in a batch, before its URL is resolved.
+   */
+  private static class LoadedFormat {
+    private final YoutubeAudioTrack track;
+    private final Client client;
+    private final StreamFormat format;
+    private final String playerScript;
+
+    private LoadedFormat(@NotNull YoutubeAudioTrack track,
+                         @NotNull Client client,
+                         @NotNull StreamFormat format,
+                         @Nullable String playerScript) {
+      this.track = track;
+      this.client = client;
+      this.format = format;
+      this.playerScript = playerScript;
     }
 
-    @Nullable
-    public FormatWithUrl getFallback() {
-      String signedString = signedUrl.toString();
-      Map<String, String> urlParameters = decodeUrlEncodedItems(signedString, false);
-
-      String mn = urlParameters.get("mn");
-
-      if (mn == null) {
-        return null;
-      }
-
-      String[] hosts = mn.split(",");
-
-      if (hosts.length < 2) {
-        log.warn("Cannot fallback, available hosts: {}", String.join(", ", hosts));
-        return null;
-      }
-
-      String newUrl = signedString.replaceFirst(hosts[0], hosts[1]);
+    private void store(@NotNull HttpInterface httpInterface, @NotNull URI resolvedUrl, boolean checkUrl) {
+      setClientAttributes(httpInterface, client);
 
       try {
-        URI uri = new URI(newUrl);
-        return new FormatWithUrl(format, uri);
-      } catch (URISyntaxException e) {
-        return null;
+        track.storeWarmedUp(httpInterface, client, new FormatWithUrl(format, resolvedUrl), checkUrl);
+      } catch (Exception e) {
+        log.debug("Failed to warm up {} with client {}", track.getIdentifier(), client.getIdentifier(), e);
       }
     }
   }
@@ -3,25 +3,64 @@ package dev.lavalink.youtube.track;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.tools.io.PersistentHttpStream;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * A persistent HTTP stream implementation that uses the range parameter instead of HTTP headers for specifying
  * the start position at which to start reading on a new connection.
+ * <p>
+ * With read-ahead enabled, the next range is requested in the background shortly before the current one ends,
+ * and its first bytes are buffered, so reading continues across range boundaries without waiting for a new
+ * connection. Reading can continue as soon as the response of the next range arrived, even if its buffer is not
+ * full yet.
+ * <p>
+ * The start of the resource, up to the end of the container index, can be served from memory instead. Seeks and
+ * restarts then only need to parse the container again from those bytes, and request the range they seek to.
  */
 public class YoutubePersistentHttpStream extends PersistentHttpStream {
     private static final Logger log = LoggerFactory.getLogger(YoutubePersistentHttpStream.class);
 
-    // Valid range for requesting without throttling is 0-11862014
-    private static final long BUFFER_SIZE = 11862014;
+    // How close to the end of a range the next one is requested, and how much of it is buffered ahead.
+    private static final int READ_AHEAD_BYTES = 1024 * 1024;
+    private static final int READ_AHEAD_CHUNK_SIZE = 64 * 1024;
+    // Buffers are shared by all streams, and at most this many are kept around while unused.
+    private static final ArrayBlockingQueue<byte[]> bufferPool = new ArrayBlockingQueue<>(64);
 
+    private final HttpInterface httpInterface;
+    // Requests on one interface share its context, so they must not be executed concurrently.
+    private final ReentrantLock connectLock = new ReentrantLock();
+    private final long bitrate;
+    private final ChunkSizeStrategy chunkSizeStrategy;
+    private final StreamMetrics metrics = new StreamMetrics();
     private long rangeEnd;
+    private boolean reconnecting;
+    private Executor readAheadExecutor;
+    private ReadAhead readAhead;
+    private byte[] header;
+    private byte[] headerRecording;
+    private int recordedLength;
+    private Consumer<byte[]> headerListener;
 
     /**
      * @param httpInterface The HTTP interface to use for requests
@@ -29,7 +68,98 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
      * @param contentLength The length of the resource in bytes
      */
     public YoutubePersistentHttpStream(HttpInterface httpInterface, URI contentUrl, long contentLength) {
+        this(httpInterface, contentUrl, contentLength, -1, ChunkSizeStrategy.fixed(ChunkSizeStrategy.THROTTLING_THRESHOLD));
+    }
+
+    /**
+     * @param httpInterface The HTTP interface to use for requests
+     * @param contentUrl The URL of the resource
+     * @param contentLength The length of the resource in bytes
+     * @param bitrate The bitrate of the format in bits per second, or -1 if unknown
+     * @param chunkSizeStrategy Decides the size of every range that is requested
+     */
+    public YoutubePersistentHttpStream(HttpInterface httpInterface,
+                                       URI contentUrl,
+                                       long contentLength,
+                                       long bitrate,
+                                       @NotNull ChunkSizeStrategy chunkSizeStrategy) {
         super(httpInterface, contentUrl, contentLength);
+        this.httpInterface = httpInterface;
+        this.bitrate = bitrate;
+        this.chunkSizeStrategy = chunkSizeStrategy;
+    }
+
+    /**
+     * @return The connection and throughput counters of this stream.
+     */
+    @NotNull
+    public StreamMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param readAheadExecutor The executor to request upcoming ranges on, or {@code null} to only request a range
+     *                          once the previous one was read.
+     */
+    public void setReadAhead(@Nullable Executor readAheadExecutor) {
+        this.readAheadExecutor = readAheadExecutor;
+    }
+
+    /**
+     * @param header The first bytes of the resource, to serve without requesting them.
+     */
+    public void setHeader(@NotNull byte[] header) {
+        this.header = header;
+    }
+
+    /**
+     * Collects the first bytes of the resource as they are read, and hands them to the listener once all of them
+     * were read in order from the start. If the stream seeks past them first, they are not collected.
+     * @param headerLength The number of bytes to collect.
+     * @param listener Receives the collected bytes.
+     */
+    public void recordHeader(int headerLength, @NotNull Consumer<byte[]> listener) {
+        this.headerRecording = new byte[headerLength];
+        this.recordedLength = 0;
+        this.headerListener = listener;
+    }
+
+    @Override
+    protected void connect(boolean skipStatusCheck) throws IOException {
+        if (currentResponse != null) {
+            return;
+        }
+
+        ReadAhead upcoming = readAhead;
+        readAhead = null;
+
+        if (upcoming != null) {
+            if (upcoming.start == position && upcoming.await()) {
+                log.debug("Continuing with read-ahead range {}-{}", upcoming.start, upcoming.end);
+                metrics.recordConnection(upcoming.firstByteNanos, false);
+                currentResponse = upcoming.response;
+                currentContent = upcoming.content;
+                rangeEnd = upcoming.end;
+                return;
+            }
+
+            upcoming.discard();
+        }
+
+        long startTime = System.nanoTime();
+
+        connectLock.lock();
+
+        try {
+            super.connect(skipStatusCheck);
+        } finally {
+            connectLock.unlock();
+        }
+
+        if (currentResponse != null) {
+            metrics.recordConnection(System.nanoTime() - startTime, reconnecting);
+            reconnecting = false;
+        }
     }
 
     @Override
@@ -47,6 +177,28 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
 
     @Override
     protected int internalRead(byte[] b, int off, int len, boolean attemptReconnect) throws IOException {
+        if (isInHeader()) {
+            int count = (int) Math.min(len, header.length - position);
+            System.arraycopy(header, (int) position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        long start = position;
+        int result = rangeRead(b, off, len, attemptReconnect);
+
+        if (result > 0 && headerRecording != null) {
+            recordHeaderBytes(start, b, off, result);
+        }
+
+        return result;
+    }
+
+    private int rangeRead(byte[] b, int off, int len, boolean attemptReconnect) throws IOException {
+        if (readAheadExecutor != null && !contentUrl.toString().contains("rn=")) {
+            return readAheadRead(b, off, len, attemptReconnect);
+        }
+
         connect(false);
         long nextExpectedPosition = position + len + (len / 2);
 
@@ -54,14 +206,14 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
             int result;
             if (nextExpectedPosition >= rangeEnd && rangeEnd != 0) {
                 if (rangeEnd == contentLength) {
-                    result = currentContent.read(b, off, len);
+                    result = readContent(b, off, len);
                     position += result;
                 } else {
                     result = 0;
                     handleRangeEnd(null, attemptReconnect);
                 }
             } else {
-                result = currentContent.read(b, off, len);
+                result = readContent(b, off, len);
                 if (result >= 0) {
                     position += result;
                     if (position >= rangeEnd && !contentUrl.toString().contains("rn=")) {
@@ -73,12 +225,23 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
             return result;
         } catch (IOException e) {
             handleRangeEnd(e, attemptReconnect);
-            return internalRead(b, off, len, false);
+            return rangeRead(b, off, len, false);
         }
     }
 
     @Override
     protected long internalSkip(long n, boolean attemptReconnect) throws IOException {
+        if (isInHeader()) {
+            long count = Math.min(n, header.length - position);
+            position += count;
+            return count;
+        }
+
+        if (headerRecording != null && position == recordedLength) {
+            // Skipped bytes of the header are still needed, so read them instead.
+            return internalRead(headerRecording, recordedLength, (int) Math.min(n, headerRecording.length - recordedLength), attemptReconnect);
+        }
+
         connect(false);
         long nextExpectedPosition = position + n;
 
@@ -108,15 +271,120 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
         }
     }
 
+    /**
+     * Reads the current range exactly up to its end, so the next range can continue right where it left off.
+     */
+    private int readAheadRead(byte[] b, int off, int len, boolean attemptReconnect) throws IOException {
+        connect(false);
+
+        try {
+            boolean lastRange = rangeEnd == 0 || rangeEnd >= contentLength;
+            int limit = lastRange ? len : (int) Math.min(len, rangeEnd - position);
+            int result = readContent(b, off, limit);
+
+            if (result < 0) {
+                if (lastRange || position >= contentLength) {
+                    return result;
+                }
+
+                // The range ended early, continue from where it did.
+                close();
+                return 0;
+            }
+
+            position += result;
+
+            if (!lastRange) {
+                if (position >= rangeEnd) {
+                    // Only drop the current connection, the upcoming range is still needed.
+                    closeConnection();
+                } else if (readAhead == null && rangeEnd - position <= READ_AHEAD_BYTES) {
+                    startReadAhead();
+                }
+            }
+
+            return result;
+        } catch (IOException e) {
+            handleRangeEnd(e, attemptReconnect);
+            return rangeRead(b, off, len, false);
+        }
+    }
+
+    private boolean isInHeader() {
+        return header != null && position < header.length && currentResponse == null;
+    }
+
+    private void recordHeaderBytes(long start, byte[] b, int off, int length) {
+        if (start > recordedLength) {
+            log.debug("Stream skipped ahead of position {}, not collecting its header", recordedLength);
+            headerRecording = null;
+            headerListener = null;
+            return;
+        }
+
+        long end = start + length;
+
+        if (end <= recordedLength) {
+            return;
+        }
+
+        int count = (int) (Math.min(end, headerRecording.length) - recordedLength);
+        System.arraycopy(b, off + (int) (recordedLength - start), headerRecording, recordedLength, count);
+        recordedLength += count;
+
+        if (recordedLength == headerRecording.length) {
+            Consumer<byte[]> listener = headerListener;
+            byte[] recorded = headerRecording;
+            headerRecording = null;
+            headerListener = null;
+            listener.accept(recorded);
+        }
+    }
+
+    private int readContent(byte[] b, int off, int len) throws IOException {
+        // Bytes buffered by read-ahead were already counted when they arrived.
+        boolean buffered = currentContent instanceof BufferedContent && ((BufferedContent) currentContent).hasBuffered();
+        long startTime = System.nanoTime();
+        int result = currentContent.read(b, off, len);
+
+        if (result > 0 && !buffered) {
+            metrics.recordRead(result, System.nanoTime() - startTime);
+        }
+
+        return result;
+    }
+
+    private long getNextChunkSize() {
+        long chunkSize = chunkSizeStrategy.getChunkSize(contentLength, bitrate, metrics);
+        return Math.max(1, Math.min(ChunkSizeStrategy.THROTTLING_THRESHOLD, chunkSize));
+    }
+
+    private void startReadAhead() {
+        long start = rangeEnd;
+        long end = Math.min(start + getNextChunkSize(), contentLength);
+        ReadAhead upcoming = new ReadAhead(start, end);
+
+        try {
+            CompletableFuture.runAsync(upcoming::fetch, readAheadExecutor);
+            readAhead = upcoming;
+        } catch (RejectedExecutionException e) {
+            log.debug("Read-ahead was rejected, the next range will be requested when needed", e);
+        }
+    }
+
     private URI getNextRangeUrl() {
-        rangeEnd = position + BUFFER_SIZE;
+        rangeEnd = position + getNextChunkSize();
 
         if (rangeEnd > contentLength) {
             rangeEnd = contentLength;
         }
 
+        return getRangeUrl(position, rangeEnd);
+    }
+
+    private URI getRangeUrl(long start, long end) {
         try {
-            return new URIBuilder(contentUrl).addParameter("range", position + "-" + rangeEnd).build();
+            return new URIBuilder(contentUrl).addParameter("range", start + "-" + end).build();
         } catch (URISyntaxException e) {
             throw new RuntimeException(e);
         }
@@ -127,9 +395,29 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
             throw exception;
         }
 
+        reconnecting = exception != null;
+
         close();
     }
 
+    @Override
+    public void close() throws IOException {
+        if (readAhead != null) {
+            readAhead.discard();
+            readAhead = null;
+        }
+
+        closeConnection();
+    }
+
+    private void closeConnection() throws IOException {
+        if (currentContent instanceof BufferedContent) {
+            currentContent.close();
+        }
+
+        super.close();
+    }
+
     @Override
     protected boolean useHeadersForRange() {
         return false;
@@ -139,4 +427,365 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
     public boolean canSeekHard() {
         return true;
     }
+
+    /**
+     * @return The number of read-ahead buffers currently kept for reuse, shared by all streams.
+     */
+    public static int getPooledBufferCount() {
+        return bufferPool.size();
+    }
+
+    @NotNull
+    private static byte[] acquireBuffer() {
+        byte[] buffer = bufferPool.poll();
+        return buffer != null ? buffer : new byte[READ_AHEAD_CHUNK_SIZE];
+    }
+
+    private static void releaseBuffer(@NotNull byte[] buffer) {
+        bufferPool.offer(buffer);
+    }
+
+    /**
+     * A range requested ahead of time. It is ready to be read from once its response arrives, while its content keeps
+     * being buffered in the background.
+     */
+    private class ReadAhead {
+        private final long start;
+        private final long end;
+        private final CompletableFuture<Boolean> connected = new CompletableFuture<>();
+        private volatile boolean discarded;
+        private long firstByteNanos;
+        private CloseableHttpResponse response;
+        private BufferedContent content;
+
+        private ReadAhead(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private void fetch() {
+            CloseableHttpResponse fetched = null;
+
+            try {
+                connectLock.lock();
+
+                try {
+                    if (discarded) {
+                        return;
+                    }
+
+                    long startTime = System.nanoTime();
+                    fetched = httpInterface.execute(new HttpGet(getRangeUrl(start, end)));
+                    firstByteNanos = System.nanoTime() - startTime;
+                } finally {
+                    connectLock.unlock();
+                }
+
+                int statusCode = fetched.getStatusLine().getStatusCode();
+
+                if (!HttpClientTools.isSuccessWithContent(statusCode) || fetched.getEntity() == null) {
+                    log.debug("Read-ahead range {}-{} returned status code {}", start, end, statusCode);
+                    fetched.close();
+                    return;
+                }
+
+                BufferedContent buffered = new BufferedContent(fetched.getEntity().getContent());
+
+                synchronized (this) {
+                    if (!discarded) {
+                        response = fetched;
+                        content = buffered;
+                    }
+                }
+
+                if (content != buffered) {
+                    fetched.close();
+                    return;
+                }
+
+                connected.complete(true);
+
+                long fillStartTime = System.nanoTime();
+                metrics.recordRead(buffered.fill(READ_AHEAD_BYTES), System.nanoTime() - fillStartTime);
+            } catch (IOException e) {
+                log.debug("Read-ahead of range {}-{} failed, it will be requested again when needed", start, end, e);
+
+                if (fetched != null) {
+                    try {
+                        fetched.close();
+                    } catch (IOException ignored) {
+                        // Nothing else to do with it.
+                    }
+                }
+            } finally {
+                connected.complete(false);
+            }
+        }
+
+        /**
+         * Waits until the response of the range arrived, but not for its content to be buffered.
+         * @return Whether the range is ready to be read from.
+         */
+        private boolean await() {
+            try {
+                if (!connected.get()) {
+                    return false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                return false;
+            }
+
+            synchronized (this) {
+                return response != null;
+            }
+        }
+
+        private void discard() {
+            CloseableHttpResponse unused;
+            BufferedContent unusedContent;
+
+            synchronized (this) {
+                discarded = true;
+                unused = response;
+                unusedContent = content;
+                response = null;
+                content = null;
+            }
+
+            try {
+                if (unusedContent != null) {
+                    unusedContent.close();
+                }
+
+                if (unused != null) {
+                    unused.close();
+                }
+            } catch (IOException e) {
+                log.debug("Failed to close unused read-ahead range", e);
+            }
+        }
+    }
+
+    /**
+     * Serves the start of a response while it is buffered in the background, then the rest of it straight from the
+     * connection. Closing it only returns its buffers to the pool, the connection is closed along with its response.
+     */
+    private static class BufferedContent extends InputStream {
+        private final InputStream delegate;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+        private int headOffset;
+        private boolean filling = true;
+        private boolean closed;
+        private IOException failure;
+
+        private BufferedContent(@NotNull InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Buffers the start of the content. Buffered bytes can be read while this is still running.
+         * @return The number of bytes buffered.
+         */
+        private int fill(int maxBytes) {
+            int total = 0;
+            IOException error = null;
+            Chunk chunk = null;
+
+            try {
+                while (total < maxBytes) {
+                    if (chunk == null || chunk.isFull()) {
+                        chunk = new Chunk(acquireBuffer());
+
+                        if (!append(chunk)) {
+                            break;
+                        }
+                    }
+
+                    int result = delegate.read(chunk.data, chunk.length, Math.min(chunk.data.length - chunk.length, maxBytes - total));
+
+                    if (result < 0 || !advance(chunk, result)) {
+                        break;
+                    }
+
+                    total += result;
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+
+            finish(error);
+            return total;
+        }
+
+        private boolean append(@NotNull Chunk chunk) {
+            lock.lock();
+
+            try {
+                if (closed) {
+                    releaseBuffer(chunk.data);
+                    return false;
+                }
+
+                chunks.add(chunk);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean advance(@NotNull Chunk chunk, int length) {
+            lock.lock();
+
+            try {
+                chunk.length += length;
+                changed.signalAll();
+                return !closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void finish(@Nullable IOException error) {
+            lock.lock();
+
+            try {
+                filling = false;
+                failure = error;
+
+                if (closed) {
+                    // The chunk that was being filled was left to this thread by close().
+                    releaseAll();
+                }
+
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return Whether any of the content is served from the buffer, or will be once it arrives.
+         */
+        private boolean hasBuffered() {
+            lock.lock();
+
+            try {
+                return filling || !chunks.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int result = read(single, 0, 1);
+            return result <= 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) throws IOException {
+            lock.lock();
+
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new IOException("Read-ahead content was closed.");
+                    }
+
+                    Chunk head = chunks.peekFirst();
+
+                    if (head != null && headOffset < head.length) {
+                        int count = Math.min(len, head.length - headOffset);
+                        System.arraycopy(head.data, headOffset, b, off, count);
+                        headOffset += count;
+                        return count;
+                    }
+
+                    if (head != null && (head.isFull() || !filling)) {
+                        releaseBuffer(chunks.pollFirst().data);
+                        headOffset = 0;
+                    } else if (filling) {
+                        changed.await();
+                    } else if (failure != null) {
+                        throw failure;
+                    } else {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } finally {
+                lock.unlock();
+            }
+
+            return delegate.read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            lock.lock();
+
+            try {
+                Chunk head = chunks.peekFirst();
+
+                if (head != null || filling) {
+                    return head == null ? 0 : head.length - headOffset;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            return delegate.available();
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+
+            try {
+                closed = true;
+
+                if (!filling) {
+                    releaseAll();
+                } else {
+                    // The last chunk may still be written to, the filling thread releases it once it stops.
+                    while (chunks.size() > 1) {
+                        releaseBuffer(chunks.pollFirst().data);
+                    }
+                }
+
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void releaseAll() {
+            Chunk chunk;
+
+            while ((chunk = chunks.pollFirst()) != null) {
+                releaseBuffer(chunk.data);
+            }
+        }
+    }
+
+    private static class Chunk {
+        private final byte[] data;
+        private int length;
+
+        private Chunk(@NotNull byte[] data) {
+            this.data = data;
+        }
+
+        private boolean isFull() {
+            return length == data.length;
+        }
+    }
 }
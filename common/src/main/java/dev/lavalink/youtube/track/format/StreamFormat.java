@@ -23,6 +23,7 @@ public class StreamFormat {
   private final String signatureKey;
   private final boolean defaultAudioTrack;
   private final boolean isDrc;
+  private final long indexRangeEnd;
 
   /**
    * @param type Mime type of the format
@@ -48,6 +49,37 @@ public class StreamFormat {
       String signatureKey,
       boolean isDefaultAudioTrack,
       boolean isDrc
+  ) {
+    this(type, itag, bitrate, contentLength, audioChannels, url, nParameter, signature, signatureKey,
+        isDefaultAudioTrack, isDrc, -1);
+  }
+
+  /**
+   * @param type Mime type of the format
+   * @param bitrate Bitrate of the format
+   * @param contentLength Length in bytes of the media
+   * @param audioChannels Number of audio channels
+   * @param url Base URL for the playback of this format
+   * @param nParameter n parameter for this format
+   * @param signature Cipher signature for this format
+   * @param signatureKey The key to use for deciphered signature in the final playback URL
+   * @param isDefaultAudioTrack Whether this format contains an audio track that is used by default.
+   * @param isDrc Whether this format has Dynamic Range Compression.
+   * @param indexRangeEnd Offset of the last byte of the container index, or -1 if unknown.
+   */
+  public StreamFormat(
+      ContentType type,
+      int itag,
+      long bitrate,
+      long contentLength,
+      long audioChannels,
+      String url,
+      String nParameter,
+      String signature,
+      String signatureKey,
+      boolean isDefaultAudioTrack,
+      boolean isDrc,
+      long indexRangeEnd
   ) {
     this.info = FormatInfo.get(type);
     this.type = type;
@@ -61,6 +93,7 @@ public class StreamFormat {
     this.signatureKey = signatureKey;
     this.defaultAudioTrack = isDefaultAudioTrack;
     this.isDrc = isDrc;
+    this.indexRangeEnd = indexRangeEnd;
   }
 
   /**
@@ -154,6 +187,14 @@ public class StreamFormat {
     return isDrc;
   }
 
+  /**
+   * @return Offset of the last byte of the container index (sidx or cues), or -1 if unknown. Everything up to
+   * and including it is needed to parse the container.
+   */
+  public long getIndexRangeEnd() {
+    return indexRangeEnd;
+  }
+
   @Override
   public String toString() {
     return "YoutubeStreamFormat{" +
@@ -0,0 +1,102 @@
+import dev.lavalink.youtube.cache.BoundedCache;
+import dev.lavalink.youtube.cache.CacheStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class BoundedCacheTest {
+    private static final long TTL_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, TTL_MS);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        Assertions.assertEquals("1", cache.get("a"));
+
+        // "b" was used least recently, as looking up "a" moved it to the back.
+        cache.put("c", "3");
+
+        Assertions.assertNull(cache.get("b"));
+        Assertions.assertEquals("1", cache.get("a"));
+        Assertions.assertEquals("3", cache.get("c"));
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEntriesAreEvictedByWeight() {
+        BoundedCache<String, String> cache = new BoundedCache<>(100, 10, TTL_MS, (key, value) -> value.length());
+
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.put("c", "cccc");
+
+        Assertions.assertNull(cache.get("a"), "The oldest entry must be evicted once the weight is exceeded");
+        Assertions.assertEquals(8, cache.getStats().getWeight());
+
+        cache.put("huge", "hhhhhhhhhhh");
+        Assertions.assertNull(cache.get("huge"), "Entries heavier than the cache must not be stored");
+        Assertions.assertEquals("bbbb", cache.get("b"));
+
+        cache.put("b", "b");
+        Assertions.assertEquals(5, cache.getStats().getWeight(), "Replaced entries must not count towards the weight");
+    }
+
+    @Test
+    public void testEntriesExpire() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, TTL_MS);
+
+        cache.put("short", "1", 20);
+        cache.put("long", "2");
+        cache.put("never", "3", 0);
+
+        Assertions.assertEquals("1", cache.get("short"));
+        Assertions.assertNull(cache.get("never"), "Entries without a time to live must not be stored");
+
+        Thread.sleep(50);
+
+        Assertions.assertNull(cache.get("short"));
+        Assertions.assertEquals("2", cache.get("long"));
+
+        cache.put("removed", "4", 20);
+        Thread.sleep(50);
+        Assertions.assertNull(cache.remove("removed"), "Removing an expired entry must not return it");
+    }
+
+    @Test
+    public void testStatsAreCounted() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>(1, TTL_MS);
+
+        cache.put("a", "1");
+        cache.get("a");
+        cache.get("missing");
+        cache.put("b", "2");
+        cache.put("c", "3", 20);
+        Thread.sleep(50);
+        cache.get("c");
+
+        CacheStats stats = cache.getStats();
+        Assertions.assertEquals(1, stats.getHits());
+        Assertions.assertEquals(2, stats.getMisses());
+        Assertions.assertEquals(3, stats.getEvictions(), "Both bound and expiry evictions must be counted");
+        Assertions.assertEquals(0, stats.getSize());
+        Assertions.assertEquals(0, stats.getWeight());
+    }
+
+    @Test
+    public void testRemoveIfAlsoDropsExpiredEntries() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, TTL_MS);
+
+        cache.put("keep", "1");
+        cache.put("drop", "2");
+        cache.put("expired", "3", 20);
+        Thread.sleep(50);
+
+        cache.removeIf((key, value) -> key.equals("drop"));
+
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals("1", cache.get("keep"));
+    }
+}
@@ -0,0 +1,56 @@
+import dev.lavalink.youtube.track.ChunkSizeStrategy;
+import dev.lavalink.youtube.track.StreamMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class ChunkSizeStrategyTest {
+    private static final long CONTENT_LENGTH = 50_000_000;
+
+    @Test
+    public void testFixed() {
+        Assertions.assertEquals(1_000_000, ChunkSizeStrategy.fixed(1_000_000).getChunkSize(CONTENT_LENGTH, 128_000, new StreamMetrics()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChunkSizeStrategy.fixed(0));
+    }
+
+    @Test
+    public void testBitrate() {
+        ChunkSizeStrategy strategy = ChunkSizeStrategy.bitrate(60);
+        StreamMetrics metrics = new StreamMetrics();
+
+        Assertions.assertEquals(128_000 / 8 * 60, strategy.getChunkSize(CONTENT_LENGTH, 128_000, metrics));
+        Assertions.assertEquals(ChunkSizeStrategy.THROTTLING_THRESHOLD, strategy.getChunkSize(CONTENT_LENGTH, -1, metrics));
+        Assertions.assertEquals(ChunkSizeStrategy.MIN_CHUNK_SIZE, strategy.getChunkSize(CONTENT_LENGTH, 8_000, metrics));
+        Assertions.assertEquals(ChunkSizeStrategy.THROTTLING_THRESHOLD, strategy.getChunkSize(CONTENT_LENGTH, 10_000_000, metrics));
+    }
+
+    @Test
+    public void testAdaptiveFollowsThroughput() {
+        ChunkSizeStrategy strategy = ChunkSizeStrategy.adaptive(2);
+        StreamMetrics metrics = new StreamMetrics();
+
+        Assertions.assertEquals(ChunkSizeStrategy.THROTTLING_THRESHOLD, strategy.getChunkSize(CONTENT_LENGTH, 128_000, metrics));
+
+        metrics.recordRead(1_000_000, TimeUnit.SECONDS.toNanos(2));
+        Assertions.assertEquals(500_000, metrics.getThroughputBytesPerSecond());
+        Assertions.assertEquals(1_000_000, strategy.getChunkSize(CONTENT_LENGTH, 128_000, metrics));
+    }
+
+    @Test
+    public void testMetrics() {
+        StreamMetrics metrics = new StreamMetrics();
+        Assertions.assertEquals(-1, metrics.getTimeToFirstByteMs());
+
+        metrics.recordConnection(TimeUnit.MILLISECONDS.toNanos(120), false);
+        metrics.recordRead(3_000_000, TimeUnit.SECONDS.toNanos(1));
+        metrics.recordConnection(TimeUnit.MILLISECONDS.toNanos(80), true);
+        metrics.recordRead(1_000_000, TimeUnit.SECONDS.toNanos(1));
+
+        Assertions.assertEquals(2, metrics.getConnections());
+        Assertions.assertEquals(1, metrics.getReconnects());
+        Assertions.assertEquals(2_000_000, metrics.getBytesPerConnection());
+        Assertions.assertEquals(120, metrics.getTimeToFirstByteMs());
+        Assertions.assertEquals(100, metrics.getAverageTimeToFirstByteMs());
+    }
+}
@@ -0,0 +1,55 @@
+import dev.lavalink.youtube.cache.CacheStats;
+import dev.lavalink.youtube.cipher.CipherResultCache;
+import dev.lavalink.youtube.cipher.CipherResultCache.Type;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CipherResultCacheTest {
+    private static final String SCRIPT = "/s/player/00000000/player_ias.vflset/en_US/base.js";
+    private static final String OTHER_SCRIPT = "/s/player/11111111/player_ias.vflset/en_US/base.js";
+
+    @Test
+    public void testValuesAreKeyedByScriptAndType() {
+        CipherResultCache cache = new CipherResultCache();
+
+        cache.put(SCRIPT, Type.SIGNATURE, "input", "signature");
+        cache.put(SCRIPT, Type.N, "input", "n");
+
+        Assertions.assertEquals("signature", cache.get(SCRIPT, Type.SIGNATURE, "input"));
+        Assertions.assertEquals("n", cache.get(SCRIPT, Type.N, "input"));
+        Assertions.assertNull(cache.get(OTHER_SCRIPT, Type.SIGNATURE, "input"), "Values of another script must not be used");
+        Assertions.assertNull(cache.get(SCRIPT, Type.SIGNATURE, "other"));
+    }
+
+    @Test
+    public void testRetainScriptDropsOtherScripts() {
+        CipherResultCache cache = new CipherResultCache();
+
+        cache.put(SCRIPT, Type.SIGNATURE, "input", "old");
+        cache.put(OTHER_SCRIPT, Type.SIGNATURE, "input", "new");
+        cache.put(OTHER_SCRIPT, Type.N, "input", "n");
+
+        cache.retainScript(OTHER_SCRIPT);
+
+        Assertions.assertNull(cache.get(SCRIPT, Type.SIGNATURE, "input"));
+        Assertions.assertEquals("new", cache.get(OTHER_SCRIPT, Type.SIGNATURE, "input"));
+        Assertions.assertEquals("n", cache.get(OTHER_SCRIPT, Type.N, "input"));
+        Assertions.assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    public void testStatsAreCounted() {
+        CipherResultCache cache = new CipherResultCache(1, CipherResultCache.DEFAULT_TTL_MS);
+
+        cache.put(SCRIPT, Type.N, "a", "1");
+        cache.get(SCRIPT, Type.N, "a");
+        cache.get(SCRIPT, Type.N, "b");
+        cache.put(SCRIPT, Type.N, "b", "2");
+
+        CacheStats stats = cache.getStats();
+        Assertions.assertEquals(1, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+        Assertions.assertEquals(1, stats.getEvictions());
+        Assertions.assertEquals(1, stats.getSize());
+    }
+}
@@ -0,0 +1,67 @@
+import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.scheduler.CircuitBreaker;
+import dev.lavalink.youtube.scheduler.CircuitBreakers;
+import dev.lavalink.youtube.scheduler.InnertubeEndpoint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+public class CircuitBreakerTest {
+    @Test
+    public void testOpensAndProbes() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 1000, 4000);
+
+        breaker.recordFailure(0);
+        breaker.recordFailure(0);
+        Assertions.assertTrue(breaker.tryAcquire(0));
+        Assertions.assertTrue(breaker.recordFailure(0));
+        Assertions.assertFalse(breaker.tryAcquire(999));
+
+        // Only a single probe is let through once the breaker is half-open.
+        Assertions.assertTrue(breaker.tryAcquire(1000));
+        Assertions.assertFalse(breaker.tryAcquire(1001));
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(1001));
+
+        // A failed probe opens the breaker for twice as long.
+        Assertions.assertTrue(breaker.recordFailure(1001));
+        Assertions.assertFalse(breaker.tryAcquire(3000));
+        Assertions.assertTrue(breaker.tryAcquire(3001));
+
+        breaker.recordSuccess();
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(3001));
+        Assertions.assertTrue(breaker.tryAcquire(3001));
+        Assertions.assertTrue(breaker.tryAcquire(3001));
+    }
+
+    @Test
+    public void testOnlyRejectionsCount() {
+        CircuitBreakers breakers = new CircuitBreakers(2, 60_000);
+
+        breakers.recordResponse("WEB", InnertubeEndpoint.PLAYER, 500);
+        breakers.recordResponse("WEB", InnertubeEndpoint.PLAYER, 429);
+        breakers.recordResponse("WEB", InnertubeEndpoint.PLAYER, 200);
+        breakers.recordResponse("WEB", InnertubeEndpoint.PLAYER, 403);
+        Assertions.assertTrue(breakers.tryAcquire("WEB", InnertubeEndpoint.PLAYER));
+
+        breakers.recordResponse("WEB", InnertubeEndpoint.PLAYER, 400);
+        Assertions.assertFalse(breakers.tryAcquire("WEB", InnertubeEndpoint.PLAYER));
+        Assertions.assertTrue(breakers.tryAcquire("WEB", InnertubeEndpoint.SEARCH));
+        Assertions.assertTrue(breakers.tryAcquire("MUSIC", InnertubeEndpoint.PLAYER));
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breakers.getStates().get("WEB").get(InnertubeEndpoint.PLAYER));
+
+        CircuitBreakers disabled = new CircuitBreakers(0, 60_000);
+        disabled.recordResponse("WEB", InnertubeEndpoint.PLAYER, 429);
+        Assertions.assertTrue(disabled.tryAcquire("WEB", InnertubeEndpoint.PLAYER));
+    }
+
+    @Test
+    public void testEndpointFromUri() {
+        Assertions.assertEquals(InnertubeEndpoint.PLAYER, InnertubeEndpoint.of(URI.create(Client.PLAYER_URL)));
+        Assertions.assertEquals(InnertubeEndpoint.SEARCH, InnertubeEndpoint.of(URI.create(Client.MUSIC_SEARCH_URL)));
+        Assertions.assertEquals(InnertubeEndpoint.BROWSE, InnertubeEndpoint.of(URI.create(Client.BROWSE_URL)));
+        Assertions.assertEquals(InnertubeEndpoint.NEXT, InnertubeEndpoint.of(URI.create(Client.NEXT_URL)));
+        Assertions.assertNull(InnertubeEndpoint.of(URI.create("https://rr1---sn-abc.googlevideo.com/videoplayback?itag=251")));
+        Assertions.assertNull(InnertubeEndpoint.of(URI.create("https://www.youtube.com/youtubei/v1/players")));
+    }
+}
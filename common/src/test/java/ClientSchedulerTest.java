@@ -0,0 +1,93 @@
+import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.scheduler.ClientOperation;
+import dev.lavalink.youtube.scheduler.ClientScheduler;
+import dev.lavalink.youtube.scheduler.ClientStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+public class ClientSchedulerTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Client first = client("FIRST");
+    private final Client second = client("SECOND");
+    private final Client third = client("THIRD");
+    private final Client[] clients = { first, second, third };
+
+    @Test
+    public void testKeepsConfiguredOrderWhenNotAdaptive() {
+        ClientScheduler scheduler = new ClientScheduler(false, 10, 1, 0, 1, 60_000);
+        scheduler.recordFailure(first, ClientOperation.VIDEO, 5 * MS);
+
+        Assertions.assertEquals(Arrays.asList(clients), scheduler.order(clients, ClientOperation.VIDEO));
+        Assertions.assertEquals(1, scheduler.getStats("FIRST", ClientOperation.VIDEO).getConsecutiveFailures());
+    }
+
+    @Test
+    public void testFailingClientsMoveBackPerOperation() {
+        ClientScheduler scheduler = new ClientScheduler(true, 10, 4, 0, 100, 60_000);
+
+        for (int i = 0; i < 4; i++) {
+            scheduler.recordFailure(first, ClientOperation.SEARCH, 5 * MS);
+            scheduler.recordSuccess(second, ClientOperation.SEARCH, 900 * MS);
+            scheduler.recordSuccess(third, ClientOperation.SEARCH, 100 * MS);
+        }
+
+        Assertions.assertEquals(Arrays.asList(third, second, first), scheduler.order(clients, ClientOperation.SEARCH));
+        Assertions.assertEquals(Arrays.asList(clients), scheduler.order(clients, ClientOperation.VIDEO));
+    }
+
+    @Test
+    public void testBenchesClientsThatKeepFailing() {
+        ClientScheduler scheduler = new ClientScheduler(true, 10, 100, 0, 3, 60_000);
+
+        for (int i = 0; i < 3; i++) {
+            scheduler.recordFailure(first, ClientOperation.FORMATS, 5 * MS);
+        }
+
+        ClientStats stats = scheduler.getStats("FIRST", ClientOperation.FORMATS);
+        Assertions.assertTrue(stats.isBenched());
+        Assertions.assertEquals(0, stats.getSuccessRate());
+        Assertions.assertEquals(Arrays.asList(second, third, first), scheduler.order(clients, ClientOperation.FORMATS));
+
+        scheduler.recordSuccess(first, ClientOperation.FORMATS, 5 * MS);
+        Assertions.assertEquals(0, scheduler.getStats("FIRST", ClientOperation.FORMATS).getConsecutiveFailures());
+    }
+
+    @Test
+    public void testRollingWindowAndPercentiles() {
+        ClientScheduler scheduler = new ClientScheduler(false, 4, 1, 0, 100, 60_000);
+        scheduler.recordFailure(first, ClientOperation.MIX, 5 * MS);
+
+        for (int latency = 10; latency <= 40; latency += 10) {
+            scheduler.recordSuccess(first, ClientOperation.MIX, latency * MS);
+        }
+
+        ClientStats stats = scheduler.getStats("FIRST", ClientOperation.MIX);
+        Assertions.assertEquals(4, stats.getSamples());
+        Assertions.assertEquals(1, stats.getSuccessRate());
+        Assertions.assertEquals(20, stats.getP50LatencyMs());
+        Assertions.assertEquals(40, stats.getP99LatencyMs());
+        Assertions.assertTrue(scheduler.getStats().containsKey("FIRST"));
+        Assertions.assertFalse(scheduler.getStats().containsKey("SECOND"));
+    }
+
+    private static Client client(String identifier) {
+        return (Client) Proxy.newProxyInstance(Client.class.getClassLoader(), new Class<?>[] { Client.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getIdentifier":
+                case "toString":
+                    return identifier;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
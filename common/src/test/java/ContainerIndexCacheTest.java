@@ -0,0 +1,85 @@
+import dev.lavalink.youtube.cache.ContainerIndexCache;
+import dev.lavalink.youtube.track.YoutubePersistentHttpStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ContainerIndexCacheTest {
+    private static final byte[] CONTENT = content(4096);
+
+    @Test
+    public void testEntriesAreKeyedByVideoItagAndLength() {
+        ContainerIndexCache cache = new ContainerIndexCache(16);
+        byte[] header = Arrays.copyOf(CONTENT, 1000);
+
+        cache.put("dQw4w9WgXcQ", 251, 3_000_000, header);
+
+        Assertions.assertSame(header, cache.get("dQw4w9WgXcQ", 251, 3_000_000, 1000));
+        Assertions.assertNull(cache.get("dQw4w9WgXcQ", 140, 3_000_000, 1000));
+        Assertions.assertNull(cache.get("dQw4w9WgXcQ", 251, 3_000_000, 1200), "Headers of another length must not be used");
+        Assertions.assertNull(cache.get("dQw4w9WgXcQ", 251, 3_100_000, 1000), "Headers of another audio track must not be used");
+
+        cache.invalidate("dQw4w9WgXcQ", 251, 3_000_000);
+        Assertions.assertNull(cache.get("dQw4w9WgXcQ", 251, 3_000_000, 1000));
+    }
+
+    @Test
+    public void testHeaderIsServedFromMemory() throws IOException {
+        FakeStream stream = new FakeStream();
+        stream.setHeader(Arrays.copyOf(CONTENT, 1000));
+
+        byte[] buffer = new byte[1500];
+        Assertions.assertEquals(1000, stream.read(buffer, 0, 1500));
+        Assertions.assertEquals(0, stream.connections);
+
+        Assertions.assertEquals(500, stream.read(buffer, 1000, 500));
+        Assertions.assertEquals(1, stream.connections);
+        Assertions.assertArrayEquals(Arrays.copyOf(CONTENT, 1500), buffer);
+    }
+
+    @Test
+    public void testHeaderIsRecordedWhileReading() throws IOException {
+        FakeStream stream = new FakeStream();
+        AtomicReference<byte[]> recorded = new AtomicReference<>();
+        stream.recordHeader(1000, recorded::set);
+
+        byte[] buffer = new byte[600];
+        stream.read(buffer, 0, 600);
+        Assertions.assertNull(recorded.get());
+
+        // Skipped bytes of the header are read, so the header can still be completed.
+        Assertions.assertEquals(300, stream.skip(300));
+        stream.read(buffer, 0, 600);
+
+        Assertions.assertArrayEquals(Arrays.copyOf(CONTENT, 1000), recorded.get());
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+
+        return content;
+    }
+
+    private static class FakeStream extends YoutubePersistentHttpStream {
+        private int connections;
+
+        private FakeStream() {
+            super(null, URI.create("https://rr1---sn-abc.googlevideo.com/videoplayback?itag=251"), CONTENT.length);
+        }
+
+        @Override
+        protected void connect(boolean skipStatusCheck) {
+            connections++;
+            currentContent = new ByteArrayInputStream(CONTENT, (int) position, CONTENT.length - (int) position);
+        }
+    }
+}
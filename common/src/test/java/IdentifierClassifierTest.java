@@ -0,0 +1,180 @@
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import dev.lavalink.youtube.IdentifierClassifier;
+import dev.lavalink.youtube.IdentifierClassifier.Classification;
+import dev.lavalink.youtube.IdentifierClassifier.Kind;
+import dev.lavalink.youtube.UrlTools;
+import dev.lavalink.youtube.UrlTools.UrlInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class IdentifierClassifierTest {
+    private static final String PROTOCOL_REGEX = "(?:http://|https://|)";
+    private static final String DOMAIN_REGEX = "(?:www\\.|m\\.|music\\.|)youtube\\.com";
+    private static final String SHORT_DOMAIN_REGEX = "(?:www\\.|)youtu\\.be";
+
+    private static final Pattern directVideoIdPattern = Pattern.compile("^[a-zA-Z0-9_-]{11}$");
+    private static final Pattern directPlaylistIdPattern = Pattern.compile("^(PL|UU)[a-zA-Z0-9_-]+$");
+    private static final Pattern mainDomainPattern = Pattern.compile("^" + PROTOCOL_REGEX + DOMAIN_REGEX + "/.*");
+    private static final Pattern shortHandPattern = Pattern.compile("^" + PROTOCOL_REGEX + "(?:" + DOMAIN_REGEX + "/(?:live|embed|shorts)|" + SHORT_DOMAIN_REGEX + ")/(?<videoId>.*)");
+
+    private static final List<String> CORPUS = Arrays.asList(
+        "dQw4w9WgXcQ",
+        "dQw4w9WgXc",
+        "dQw4w9WgXcQQ",
+        "dQw4w9WgXc!",
+        "PLabcdefghi",
+        "PL",
+        "PLx",
+        "UUabc-_123",
+        "RDdQw4w9WgXcQ",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ",
+        "http://youtube.com/watch?v=dQw4w9WgXcQ",
+        "youtube.com/watch?v=dQw4w9WgXcQ",
+        "m.youtube.com/watch?v=dQw4w9WgXcQ&t=42",
+        "https://music.youtube.com/watch?v=dQw4w9WgXcQ&list=RDAMVMdQw4w9WgXcQ",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ&list=PLabc123",
+        "https://www.youtube.com/watch?list=PLabc123&v=dQw4w9WgXcQ",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ;list=PLabc123",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ&list=LL",
+        "https://www.youtube.com/watch?v=first123456&v=second12345",
+        "https://www.youtube.com/watch?v&v=dQw4w9WgXcQ",
+        "https://www.youtube.com/watch?v=",
+        "https://www.youtube.com/watch?feature=share",
+        "https://www.youtube.com/watch",
+        "https://www.youtube.com/watch/",
+        "https://www.youtube.com//watch?v=dQw4w9WgXcQ",
+        "https://www.youtube.com/wat%63h?%76=dQw4w9WgXcQ",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ%26list%3DPLabc",
+        "https://www.youtube.com/watch?v=dQw4+w9WgXcQ",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ#t=10",
+        "https://www.youtube.com/watch#?v=dQw4w9WgXcQ",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ#a#b",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ%",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ%zz",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ&name=two words",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ&q=café",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ&q=%C3%A9",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ\n",
+        "https://www.youtube.com/playlist?list=PLabc123",
+        "https://www.youtube.com/playlist?list=RDdQw4w9WgXcQ",
+        "https://www.youtube.com/playlist?list=",
+        "https://www.youtube.com/playlist",
+        "https://www.youtube.com/watch_videos?video_ids=dQw4w9WgXcQ,aaaaaaaaaaa",
+        "https://www.youtube.com/watch_videos",
+        "https://www.youtube.com/shorts/dQw4w9WgXcQ",
+        "https://youtube.com/shorts/dQw4w9WgXcQ?feature=share",
+        "https://www.youtube.com/live/dQw4w9WgXcQ?si=abc",
+        "https://www.youtube.com/embed/dQw4w9WgXcQ",
+        "https://www.youtube.com/embed/",
+        "https://www.youtube.com/channel/UCabc",
+        "https://youtu.be/dQw4w9WgXcQ",
+        "https://youtu.be/dQw4w9WgXcQ?list=PLabc123",
+        "www.youtu.be/dQw4w9WgXcQ",
+        "youtu.be/dQw",
+        "https://youtu.be/dQw4w9WgXcQ\nmore",
+        "https://m.youtu.be/dQw4w9WgXcQ",
+        "https://youtube.com",
+        "https://youtube.com:443/watch?v=dQw4w9WgXcQ",
+        "https://notyoutube.com/watch?v=dQw4w9WgXcQ",
+        "https://www.youtube.co/watch?v=dQw4w9WgXcQ",
+        "https://WWW.YOUTUBE.COM/watch?v=dQw4w9WgXcQ",
+        "HTTPS://www.youtube.com/watch?v=dQw4w9WgXcQ",
+        "ftp://www.youtube.com/watch?v=dQw4w9WgXcQ",
+        "https://soundcloud.com/artist/track",
+        "https://open.spotify.com/track/abc",
+        "local/file.mp3",
+        "",
+        "music.youtube.com/playlist?list=OLAK5uy_abc"
+    );
+
+    @Test
+    public void testMatchesRegexRouterOnCorpus() {
+        List<String> mismatches = new ArrayList<>();
+
+        for (String identifier : CORPUS) {
+            for (boolean allowIds : new boolean[] { true, false }) {
+                String expected = legacyDescribe(identifier, allowIds, allowIds);
+                String actual = describe(identifier, allowIds, allowIds);
+
+                if (!expected.equals(actual)) {
+                    mismatches.add(identifier + " (ids " + allowIds + "): expected " + expected + ", got " + actual);
+                }
+            }
+        }
+
+        Assertions.assertEquals(new ArrayList<>(), mismatches);
+    }
+
+    @Test
+    public void testDirectIdPrecedence() {
+        Assertions.assertEquals(Kind.VIDEO_ID, IdentifierClassifier.classify("PLabcdefghi", true, true).kind);
+        Assertions.assertEquals(Kind.PLAYLIST_ID, IdentifierClassifier.classify("PLabcdefghi", false, true).kind);
+        Assertions.assertSame(IdentifierClassifier.UNKNOWN, IdentifierClassifier.classify("PLabcdefghi", false, false));
+    }
+
+    private static String describe(String identifier, boolean allowDirectVideoIds, boolean allowDirectPlaylistIds) {
+        try {
+            Classification classification = IdentifierClassifier.classify(identifier, allowDirectVideoIds, allowDirectPlaylistIds);
+            return expect(classification.kind, classification.videoId, classification.playlistId);
+        } catch (FriendlyException e) {
+            return "error";
+        }
+    }
+
+    private static String legacyDescribe(String identifier, boolean allowDirectVideoIds, boolean allowDirectPlaylistIds) {
+        try {
+            return legacyClassify(identifier, allowDirectVideoIds, allowDirectPlaylistIds);
+        } catch (FriendlyException e) {
+            return "error";
+        }
+    }
+
+    /**
+     * The regex cascade {@code YoutubeAudioSourceManager.getRouter} used before the classifier.
+     */
+    private static String legacyClassify(String identifier, boolean allowDirectVideoIds, boolean allowDirectPlaylistIds) {
+        if (mainDomainPattern.matcher(identifier).matches()) {
+            UrlInfo urlInfo = UrlTools.getUrlInfo(identifier, false);
+
+            if ("/watch".equals(urlInfo.path)) {
+                String videoId = urlInfo.parameters.get("v");
+
+                if (videoId != null) return expect(Kind.WATCH, videoId, urlInfo.parameters.get("list"));
+            } else if ("/playlist".equals(urlInfo.path)) {
+                String playlistId = urlInfo.parameters.get("list");
+
+                if (playlistId != null) return expect(Kind.PLAYLIST, null, playlistId);
+            } else if ("/watch_videos".equals(urlInfo.path)) {
+                String videoIds = urlInfo.parameters.get("video_ids");
+
+                if (videoIds != null) return expect(Kind.WATCH_VIDEOS, videoIds, null);
+            }
+        }
+
+        if (allowDirectVideoIds && directVideoIdPattern.matcher(identifier).matches()) {
+            return expect(Kind.VIDEO_ID, identifier, null);
+        }
+
+        if (allowDirectPlaylistIds && directPlaylistIdPattern.matcher(identifier).matches()) {
+            return expect(Kind.PLAYLIST_ID, null, identifier);
+        }
+
+        Matcher shortHandMatcher = shortHandPattern.matcher(identifier);
+
+        if (shortHandMatcher.matches()) {
+            return expect(Kind.SHORT_URL, shortHandMatcher.group("videoId"), null);
+        }
+
+        return expect(Kind.UNKNOWN, null, null);
+    }
+
+    private static String expect(Kind kind, String videoId, String playlistId) {
+        return kind + "|" + videoId + "|" + playlistId;
+    }
+}
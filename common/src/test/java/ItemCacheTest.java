@@ -0,0 +1,94 @@
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.BasicAudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.DelegatedAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.LocalAudioTrackExecutor;
+import dev.lavalink.youtube.cache.CachedItem;
+import dev.lavalink.youtube.cache.InMemoryItemCache;
+import dev.lavalink.youtube.cache.ItemCachePolicy;
+import dev.lavalink.youtube.cache.RouteKey;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class ItemCacheTest {
+    @Test
+    public void testSearchKeysAreNormalized() {
+        Assertions.assertEquals(RouteKey.search("never gonna give you up"), RouteKey.search("  Never  Gonna give YOU up "));
+        Assertions.assertNotEquals(RouteKey.search("query"), RouteKey.musicSearch("query"));
+        Assertions.assertNotEquals(RouteKey.playlist("PL123", null), RouteKey.playlist("PL123", "dQw4w9WgXcQ"));
+    }
+
+    @Test
+    public void testPlaylistIsRebuiltWithFreshTracks() {
+        InMemoryItemCache cache = new InMemoryItemCache();
+        AudioTrack first = track("aaaaaaaaaaa", false);
+        AudioTrack second = track("bbbbbbbbbbb", false);
+        RouteKey key = RouteKey.playlist("PL123", "bbbbbbbbbbb");
+
+        cache.put(key, new BasicAudioPlaylist("Playlist", Arrays.asList(first, second), second, false));
+        CachedItem cached = cache.get(key);
+
+        Assertions.assertNotNull(cached);
+        Assertions.assertFalse(cached.isStale());
+
+        AudioPlaylist playlist = (AudioPlaylist) cached.toAudioItem(TestTrack::new);
+
+        Assertions.assertEquals("Playlist", playlist.getName());
+        Assertions.assertEquals(2, playlist.getTracks().size());
+        Assertions.assertNotSame(second, playlist.getSelectedTrack());
+        Assertions.assertSame(playlist.getTracks().get(1), playlist.getSelectedTrack());
+        Assertions.assertEquals("bbbbbbbbbbb", playlist.getSelectedTrack().getInfo().identifier);
+    }
+
+    @Test
+    public void testNegativeResultsAndLiveStreams() {
+        InMemoryItemCache cache = new InMemoryItemCache();
+        RouteKey empty = RouteKey.search("nothing to find here");
+        RouteKey live = RouteKey.video("ccccccccccc");
+
+        cache.put(empty, AudioReference.NO_TRACK);
+        cache.put(live, track("ccccccccccc", true));
+
+        Assertions.assertSame(AudioReference.NO_TRACK, cache.get(empty).toAudioItem(TestTrack::new));
+        Assertions.assertNull(cache.get(live));
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws InterruptedException {
+        Map<RouteKey.Type, ItemCachePolicy> policies = new EnumMap<>(RouteKey.Type.class);
+        policies.put(RouteKey.Type.VIDEO, new ItemCachePolicy(16, 50, 60_000));
+        InMemoryItemCache cache = new InMemoryItemCache(policies, 0);
+        RouteKey video = RouteKey.video("ddddddddddd");
+        RouteKey search = RouteKey.search("not cached");
+
+        cache.put(video, track("ddddddddddd", false));
+        cache.put(search, new BasicAudioPlaylist("Search", Collections.singletonList(track("eeeeeeeeeee", false)), null, true));
+        Thread.sleep(100);
+
+        CachedItem cached = cache.get(video);
+        Assertions.assertNotNull(cached);
+        Assertions.assertTrue(cached.isStale());
+        Assertions.assertNull(cache.get(search));
+    }
+
+    private static AudioTrack track(String videoId, boolean isStream) {
+        return new TestTrack(new AudioTrackInfo("Title", "Author", 1000, videoId, isStream, "https://www.youtube.com/watch?v=" + videoId));
+    }
+
+    private static class TestTrack extends DelegatedAudioTrack {
+        private TestTrack(AudioTrackInfo trackInfo) {
+            super(trackInfo);
+        }
+
+        @Override
+        public void process(LocalAudioTrackExecutor executor) {
+        }
+    }
+}
@@ -0,0 +1,64 @@
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import dev.lavalink.youtube.http.JsonFieldExtractor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class JsonFieldExtractorTest {
+    private static final Set<String> PLAYER_FIELDS = new HashSet<>(Arrays.asList("playabilityStatus", "videoDetails", "streamingData"));
+
+    private static final String PLAYER_RESPONSE = "{" +
+        "\"responseContext\":{\"visitorData\":\"abc\",\"serviceTrackingParams\":[{\"service\":\"GFEEDBACK\",\"params\":[{\"key\":\"e\",\"value\":\"1\"}]}]}," +
+        "\"playabilityStatus\":{\"status\":\"OK\",\"playableInEmbed\":true}," +
+        "\"streamingData\":{\"expiresInSeconds\":\"21540\",\"adaptiveFormats\":[{\"itag\":251,\"bitrate\":135000,\"loudnessDb\":-1.25,\"mimeType\":\"audio/webm; codecs=\\\"opus\\\"\"}]}," +
+        "\"videoDetails\":{\"videoId\":\"dQw4w9WgXcQ\",\"title\":\"Café \\u2013 \\\"live\\\"\",\"lengthSeconds\":\"212\",\"isLive\":false,\"keywords\":[\"a\",\"b\"],\"rating\":null,\"viewCount\":12345678901234567}," +
+        "\"microformat\":{\"playerMicroformatRenderer\":{\"title\":{\"simpleText\":\"x\"}}}," +
+        "\"trackingParams\":\"CAAQu2kiEwi\"" +
+    "}";
+
+    @Test
+    public void testKeepsOnlySelectedFields() throws IOException {
+        JsonBrowser json = JsonBrowser.parse(JsonFieldExtractor.extract(stream(PLAYER_RESPONSE), PLAYER_FIELDS));
+
+        Assertions.assertTrue(json.get("responseContext").isNull());
+        Assertions.assertTrue(json.get("microformat").isNull());
+        Assertions.assertTrue(json.get("trackingParams").isNull());
+        Assertions.assertEquals("OK", json.get("playabilityStatus").get("status").text());
+        Assertions.assertTrue(json.get("playabilityStatus").get("playableInEmbed").asBoolean(false));
+    }
+
+    @Test
+    public void testValuesMatchFullParse() throws IOException {
+        JsonBrowser full = JsonBrowser.parse(PLAYER_RESPONSE);
+        JsonBrowser extracted = JsonBrowser.parse(JsonFieldExtractor.extract(stream(PLAYER_RESPONSE), PLAYER_FIELDS));
+
+        for (String field : PLAYER_FIELDS) {
+            Assertions.assertEquals(full.get(field).format(), extracted.get(field).format());
+        }
+
+        JsonBrowser videoDetails = extracted.get("videoDetails");
+        Assertions.assertEquals("Café – \"live\"", videoDetails.get("title").text());
+        Assertions.assertEquals(212, videoDetails.get("lengthSeconds").asLong(0));
+        Assertions.assertEquals(12345678901234567L, videoDetails.get("viewCount").asLong(0));
+        Assertions.assertTrue(videoDetails.get("rating").isNull());
+        Assertions.assertEquals(2, videoDetails.get("keywords").values().size());
+        Assertions.assertEquals(251, extracted.get("streamingData").get("adaptiveFormats").index(0).get("itag").asLong(0));
+    }
+
+    @Test
+    public void testRejectsMalformedJson() {
+        Assertions.assertThrows(IOException.class, () -> JsonFieldExtractor.extract(stream("{\"videoDetails\":{\"videoId\":"), PLAYER_FIELDS));
+        Assertions.assertThrows(IOException.class, () -> JsonFieldExtractor.extract(stream("[1,2]"), PLAYER_FIELDS));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
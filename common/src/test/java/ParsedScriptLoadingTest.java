@@ -0,0 +1,222 @@
+import com.sedmelluq.discord.lavaplayer.tools.http.HttpContextFilter;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import dev.lavalink.youtube.cipher.LocalSignatureCipherManager;
+import dev.lavalink.youtube.cipher.ParsedPlayerScript;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests that concurrent lookups of the same player script share a single load.
+ */
+public class ParsedScriptLoadingTest {
+    private static final String SCRIPT_URL = "https://www.youtube.com/s/player/00000000/player_ias.vflset/en_US/base.js";
+    private static final String OTHER_SCRIPT_URL = "https://www.youtube.com/s/player/11111111/player_ias.vflset/en_US/base.js";
+    private static final int CALLERS = 8;
+
+    private FakeScriptServer server;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        server = new FakeScriptServer();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.release();
+        executor.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+        LocalSignatureCipherManager cipherManager = new LocalSignatureCipherManager();
+        List<Future<ParsedPlayerScript>> results = startCallers(cipherManager, SCRIPT_URL);
+
+        server.release();
+
+        ParsedPlayerScript first = results.get(0).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("12345", first.getTimestamp());
+
+        for (Future<ParsedPlayerScript> result : results) {
+            Assertions.assertSame(first, result.get(5, TimeUnit.SECONDS), "All callers must receive the same script");
+        }
+
+        Assertions.assertEquals(1, server.getRequestCount(SCRIPT_URL), "The script must only be requested once");
+        Assertions.assertSame(first, cipherManager.getParsedScript(server, SCRIPT_URL), "The loaded script must be cached");
+        Assertions.assertEquals(1, server.getRequestCount(SCRIPT_URL));
+    }
+
+    @Test
+    public void testOtherScriptsAreNotBlocked() throws Exception {
+        LocalSignatureCipherManager cipherManager = new LocalSignatureCipherManager();
+        List<Future<ParsedPlayerScript>> results = startCallers(cipherManager, SCRIPT_URL);
+
+        ParsedPlayerScript other = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> cipherManager.getParsedScript(server, OTHER_SCRIPT_URL),
+            "Loading one script must not wait for the load of another");
+
+        Assertions.assertEquals(OTHER_SCRIPT_URL, other.url);
+        Assertions.assertFalse(results.get(0).isDone(), "The first script must still be loading");
+
+        server.release();
+        Assertions.assertEquals(SCRIPT_URL, results.get(0).get(5, TimeUnit.SECONDS).url);
+    }
+
+    @Test
+    public void testFailedLoadIsSharedAndNotCached() throws Exception {
+        LocalSignatureCipherManager cipherManager = new LocalSignatureCipherManager();
+        server.fail(SCRIPT_URL, 500);
+
+        List<Future<ParsedPlayerScript>> results = startCallers(cipherManager, SCRIPT_URL);
+        server.release();
+
+        for (Future<ParsedPlayerScript> result : results) {
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(IOException.class, e.getCause(), "Waiting callers must receive the failure of the load");
+        }
+
+        Assertions.assertEquals(1, server.getRequestCount(SCRIPT_URL));
+
+        ParsedPlayerScript retried = cipherManager.getParsedScript(server, SCRIPT_URL);
+        Assertions.assertEquals("12345", retried.getTimestamp());
+        Assertions.assertEquals(2, server.getRequestCount(SCRIPT_URL), "A failed load must be retried by the next caller");
+    }
+
+    /**
+     * Starts the callers once the first of them is loading the script, so that the others find the load pending.
+     */
+    private List<Future<ParsedPlayerScript>> startCallers(LocalSignatureCipherManager cipherManager, String url) throws InterruptedException {
+        List<Future<ParsedPlayerScript>> results = new ArrayList<>();
+        results.add(executor.submit(() -> cipherManager.getParsedScript(server, url)));
+
+        Assertions.assertTrue(server.awaitRequested(), "The first caller must request the script");
+
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> cipherManager.getParsedScript(server, url)));
+        }
+
+        // Give the other callers time to find the pending load. Any that come later hit the cache instead, which
+        // still must not cause another request.
+        Thread.sleep(100);
+        return results;
+    }
+
+    private static final HttpContextFilter noOpFilter = new HttpContextFilter() {
+        @Override
+        public void onContextOpen(HttpClientContext context) {
+
+        }
+
+        @Override
+        public void onContextClose(HttpClientContext context) {
+
+        }
+
+        @Override
+        public void onRequest(HttpClientContext context, HttpUriRequest request, boolean isRepetition) {
+
+        }
+
+        @Override
+        public boolean onRequestResponse(HttpClientContext context, HttpUriRequest request, HttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public boolean onRequestException(HttpClientContext context, HttpUriRequest request, Throwable error) {
+            return false;
+        }
+    };
+
+    /**
+     * Serves a script that only contains a timestamp. Requests for {@link #SCRIPT_URL} are held until released.
+     */
+    private static class FakeScriptServer extends HttpInterface {
+        private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+        private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+        private final CountDownLatch requested = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        private FakeScriptServer() {
+            super(HttpClients.createDefault(), new HttpClientContext(), true, noOpFilter);
+        }
+
+        private void fail(String url, int statusCode) {
+            failures.put(url, statusCode);
+        }
+
+        private void release() {
+            released.countDown();
+        }
+
+        private boolean awaitRequested() throws InterruptedException {
+            return requested.await(5, TimeUnit.SECONDS);
+        }
+
+        private int getRequestCount(String url) {
+            AtomicInteger count = requestCounts.get(url);
+            return count != null ? count.get() : 0;
+        }
+
+        @Override
+        public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+            String url = request.getURI().toString();
+            requestCounts.computeIfAbsent(url, key -> new AtomicInteger()).incrementAndGet();
+
+            if (url.equals(SCRIPT_URL)) {
+                requested.countDown();
+
+                try {
+                    if (!released.await(5, TimeUnit.SECONDS)) {
+                        throw new IOException("Request was never released");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+
+            Integer failure = failures.remove(url);
+            return new FakeResponse(failure != null ? failure : 200, "var config={signatureTimestamp:12345};");
+        }
+    }
+
+    private static class FakeResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        private FakeResponse(int statusCode, String body) {
+            super(HttpVersion.HTTP_1_1, statusCode, null);
+            setEntity(new StringEntity(body, ContentType.TEXT_PLAIN));
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+}
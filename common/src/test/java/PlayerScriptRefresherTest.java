@@ -0,0 +1,192 @@
+import com.sedmelluq.discord.lavaplayer.tools.http.HttpContextFilter;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.cipher.CipherManager;
+import dev.lavalink.youtube.cipher.PlayerScriptRefresher;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class PlayerScriptRefresherTest {
+    private static final long LONG_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void testRefreshIsRepeatedAfterFailure() throws InterruptedException {
+        CountingCipherManager cipherManager = new CountingCipherManager(3);
+        cipherManager.failNext = true;
+
+        try (PlayerScriptRefresher refresher = new PlayerScriptRefresher(() -> cipherManager, interfaceManager, 10)) {
+            refresher.start();
+            Assertions.assertTrue(cipherManager.await(), "Refreshing must continue after a failed run");
+        }
+    }
+
+    @Test
+    public void testReplacedCipherManagerIsRefreshed() throws InterruptedException {
+        CountingCipherManager first = new CountingCipherManager(1);
+        CountingCipherManager second = new CountingCipherManager(1);
+        AtomicReference<CipherManager> current = new AtomicReference<>(first);
+
+        try (PlayerScriptRefresher refresher = new PlayerScriptRefresher(current::get, interfaceManager, 10)) {
+            refresher.start();
+            Assertions.assertTrue(first.await());
+
+            current.set(second);
+            Assertions.assertTrue(second.await(), "The current cipher manager must be refreshed");
+        }
+    }
+
+    @Test
+    public void testStartIsIdempotent() throws InterruptedException {
+        CountingCipherManager cipherManager = new CountingCipherManager(1);
+
+        try (PlayerScriptRefresher refresher = new PlayerScriptRefresher(() -> cipherManager, interfaceManager, LONG_INTERVAL_MS)) {
+            refresher.start();
+            refresher.start();
+
+            Assertions.assertTrue(cipherManager.await(), "The first refresh must run immediately");
+            Thread.sleep(100);
+            Assertions.assertEquals(1, cipherManager.refreshes.get(), "Starting again must not schedule more refreshes");
+        }
+    }
+
+    @Test
+    public void testCloseStopsRefreshing() throws InterruptedException {
+        CountingCipherManager cipherManager = new CountingCipherManager(1);
+        PlayerScriptRefresher refresher = new PlayerScriptRefresher(() -> cipherManager, interfaceManager, 10);
+
+        refresher.start();
+        Assertions.assertTrue(cipherManager.await());
+        refresher.close();
+
+        Thread.sleep(50);
+        int refreshes = cipherManager.refreshes.get();
+        Thread.sleep(100);
+        Assertions.assertEquals(refreshes, cipherManager.refreshes.get(), "No refresh may run once closed");
+    }
+
+    @Test
+    public void testClosedRefresherCannotBeStarted() throws InterruptedException {
+        CountingCipherManager cipherManager = new CountingCipherManager(1);
+        PlayerScriptRefresher refresher = new PlayerScriptRefresher(() -> cipherManager, interfaceManager, 10);
+
+        refresher.close();
+        refresher.start();
+
+        Thread.sleep(100);
+        Assertions.assertEquals(0, cipherManager.refreshes.get());
+    }
+
+    /**
+     * Only counts refreshes, none of the other methods are used by the refresher.
+     */
+    private static class CountingCipherManager implements CipherManager {
+        private final AtomicInteger refreshes = new AtomicInteger();
+        private final CountDownLatch refreshed;
+        private volatile boolean failNext;
+
+        private CountingCipherManager(int expectedRefreshes) {
+            this.refreshed = new CountDownLatch(expectedRefreshes);
+        }
+
+        private boolean await() throws InterruptedException {
+            return refreshed.await(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void refreshPlayerScript(@NotNull HttpInterface httpInterface) {
+            refreshes.incrementAndGet();
+            refreshed.countDown();
+
+            if (failNext) {
+                failNext = false;
+                throw new RuntimeException("Failed to fetch player script");
+            }
+        }
+
+        @NotNull
+        @Override
+        public URI resolveFormatUrl(@NotNull HttpInterface httpInterface, @NotNull String playerScript, @NotNull StreamFormat format) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getTimestamp(HttpInterface httpInterface, String sourceUrl) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final HttpContextFilter noOpFilter = new HttpContextFilter() {
+        @Override
+        public void onContextOpen(HttpClientContext context) {
+
+        }
+
+        @Override
+        public void onContextClose(HttpClientContext context) {
+
+        }
+
+        @Override
+        public void onRequest(HttpClientContext context, HttpUriRequest request, boolean isRepetition) {
+
+        }
+
+        @Override
+        public boolean onRequestResponse(HttpClientContext context, HttpUriRequest request, HttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public boolean onRequestException(HttpClientContext context, HttpUriRequest request, Throwable error) {
+            return false;
+        }
+    };
+
+    private final HttpInterfaceManager interfaceManager = new HttpInterfaceManager() {
+        @Override
+        public HttpInterface getInterface() {
+            return new HttpInterface(HttpClients.createDefault(), new HttpClientContext(), true, noOpFilter);
+        }
+
+        @Override
+        public void setHttpContextFilter(HttpContextFilter filter) {
+
+        }
+
+        @Override
+        public void configureRequests(Function<RequestConfig, RequestConfig> configurator) {
+
+        }
+
+        @Override
+        public void configureBuilder(Consumer<HttpClientBuilder> configurator) {
+
+        }
+
+        @Override
+        public void close() {
+
+        }
+    };
+}
@@ -0,0 +1,344 @@
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+import com.grack.nanojson.JsonWriter;
+import com.sedmelluq.discord.lavaplayer.tools.http.HttpContextFilter;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.lavalink.youtube.cipher.RemoteCipherManager;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Tests batching against a local stub of the remote cipher service. The stub "deciphers" by prefixing values,
+ * and fails any n parameter named "bad" when it is part of a batch.
+ */
+public class RemoteCipherManagerTest {
+    private static final String PLAYER_SCRIPT = "https://www.youtube.com/s/player/test/player_ias.vflset/en_US/base.js";
+
+    private final AtomicInteger batchRequests = new AtomicInteger();
+    private final AtomicInteger singleRequests = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpInterface httpInterface;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/resolve_url", exchange -> {
+            singleRequests.incrementAndGet();
+            JsonObject request = readJson(exchange);
+            respond(exchange, 200, JsonWriter.string().object().value("resolved_url", resolve(request)).end().done());
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        httpInterface = new HttpInterface(HttpClients.createDefault(), new HttpClientContext(), true, noOpFilter);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        httpInterface.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testBatchResolvesInOneRequest() throws IOException {
+        enableBatchEndpoint();
+        RemoteCipherManager cipherManager = new RemoteCipherManager(getServerUrl());
+
+        List<URI> urls = cipherManager.resolveFormatUrls(httpInterface, PLAYER_SCRIPT, Arrays.asList(
+            format("one", "s1", "n1"),
+            format("two", "s2", "n2"),
+            format("three", null, "n3")
+        ));
+
+        Assertions.assertEquals(1, batchRequests.get());
+        Assertions.assertEquals(0, singleRequests.get());
+        Assertions.assertEquals("https://example.com/videoplayback?id=one&sig=Ds1&n=Tn1", urls.get(0).toString());
+        Assertions.assertEquals("https://example.com/videoplayback?id=two&sig=Ds2&n=Tn2", urls.get(1).toString());
+        Assertions.assertEquals("https://example.com/videoplayback?id=three&n=Tn3", urls.get(2).toString());
+    }
+
+    @Test
+    public void testPartialFailureFallsBackToSingleResolve() throws IOException {
+        enableBatchEndpoint();
+        RemoteCipherManager cipherManager = new RemoteCipherManager(getServerUrl());
+
+        List<URI> urls = cipherManager.resolveFormatUrls(httpInterface, PLAYER_SCRIPT, Arrays.asList(
+            format("one", "s1", "n1"),
+            format("two", null, "bad")
+        ));
+
+        Assertions.assertEquals(1, batchRequests.get());
+        Assertions.assertEquals(1, singleRequests.get());
+        Assertions.assertEquals("https://example.com/videoplayback?id=one&sig=Ds1&n=Tn1", urls.get(0).toString());
+        Assertions.assertEquals("https://example.com/videoplayback?id=two&n=Tbad", urls.get(1).toString());
+    }
+
+    @Test
+    public void testUnsupportedBatchEndpoint() throws IOException {
+        server.createContext("/batch_resolve_url", exchange -> {
+            batchRequests.incrementAndGet();
+            respond(exchange, 404, "Not Found");
+        });
+
+        RemoteCipherManager cipherManager = new RemoteCipherManager(getServerUrl());
+
+        cipherManager.resolveFormatUrls(httpInterface, PLAYER_SCRIPT, Arrays.asList(format("one", null, "n1"), format("two", null, "n2")));
+        cipherManager.resolveFormatUrls(httpInterface, PLAYER_SCRIPT, Arrays.asList(format("three", null, "n3"), format("four", null, "n4")));
+
+        Assertions.assertEquals(1, batchRequests.get());
+        Assertions.assertEquals(4, singleRequests.get());
+    }
+
+    @Test
+    public void testResolvedValuesAreMemoized() throws IOException {
+        enableBatchEndpoint();
+        RemoteCipherManager cipherManager = new RemoteCipherManager(getServerUrl());
+        List<StreamFormat> formats = Arrays.asList(format("one", "s1", "n1"), format("two", "s2", "n2"));
+
+        List<URI> first = cipherManager.resolveFormatUrls(httpInterface, PLAYER_SCRIPT, formats);
+        List<URI> second = cipherManager.resolveFormatUrls(httpInterface, PLAYER_SCRIPT, formats);
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(1, batchRequests.get());
+        Assertions.assertEquals(0, singleRequests.get());
+    }
+
+    @Test
+    public void testRequestsCarryAuthentication() throws IOException {
+        AtomicReference<String> authorization = new AtomicReference<>();
+        server.createContext("/get_sts", exchange -> {
+            authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            respond(exchange, 200, JsonWriter.string().object().value("sts", "12345").end().done());
+        });
+
+        try (RemoteCipherManager cipherManager = new RemoteCipherManager(getServerUrl(), "secret", "test")) {
+            Assertions.assertEquals("12345", cipherManager.getTimestamp(httpInterface, PLAYER_SCRIPT));
+            Assertions.assertEquals("secret", authorization.get());
+        }
+    }
+
+    @Test
+    public void testRequestDeadline() {
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/get_sts", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+
+            respond(exchange, 200, JsonWriter.string().object().value("sts", "12345").end().done());
+        });
+
+        try (RemoteCipherManager cipherManager = new RemoteCipherManager(getServerUrl(), null, null, 200, 4)) {
+            long start = System.nanoTime();
+            IOException exception = Assertions.assertThrows(IOException.class, () -> cipherManager.getTimestamp(httpInterface, PLAYER_SCRIPT));
+
+            Assertions.assertTrue(exception.getMessage().contains("200 ms"), exception.getMessage());
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testRequestsUseTheCallersInterface() throws IOException {
+        server.createContext("/get_sts", exchange -> respond(exchange, 200, JsonWriter.string().object().value("sts", "12345").end().done()));
+        AtomicInteger executed = new AtomicInteger();
+
+        HttpInterface countingInterface = new HttpInterface(HttpClients.createDefault(), new HttpClientContext(), true, noOpFilter) {
+            @Override
+            public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+                executed.incrementAndGet();
+                return super.execute(request);
+            }
+        };
+
+        try (RemoteCipherManager cipherManager = new RemoteCipherManager(getServerUrl())) {
+            Assertions.assertEquals("12345", cipherManager.getTimestamp(countingInterface, PLAYER_SCRIPT));
+            Assertions.assertEquals(1, executed.get());
+        } finally {
+            countingInterface.close();
+        }
+    }
+
+    @Test
+    public void testAsyncRequestsRunInParallel() throws Exception {
+        CountDownLatch arrived = new CountDownLatch(2);
+        server.createContext("/get_sts", exchange -> {
+            arrived.countDown();
+
+            try {
+                // Only answers once both requests reached the server, which fails if requests are serialized.
+                arrived.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+
+            respond(exchange, 200, JsonWriter.string().object().value("sts", "12345").end().done());
+        });
+
+        try (RemoteCipherManager cipherManager = new RemoteCipherManager(interfaceManager, getServerUrl(), null, null, 2000, 4)) {
+            CompletableFuture<String> first = cipherManager.getTimestampAsync(PLAYER_SCRIPT);
+            CompletableFuture<String> second = cipherManager.getTimestampAsync(PLAYER_SCRIPT);
+
+            Assertions.assertEquals("12345", first.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals("12345", second.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private void enableBatchEndpoint() {
+        server.createContext("/batch_resolve_url", exchange -> {
+            batchRequests.incrementAndGet();
+            JsonArray requests = readJson(exchange).getArray("requests");
+            JsonArray results = new JsonArray();
+
+            for (Object request : requests) {
+                JsonObject result = new JsonObject();
+
+                if ("bad".equals(((JsonObject) request).getString("n_param"))) {
+                    result.put("error", "Failed to transform n parameter");
+                } else {
+                    result.put("resolved_url", resolve((JsonObject) request));
+                }
+
+                results.add(result);
+            }
+
+            respond(exchange, 200, JsonWriter.string().object().value("results", results).end().done());
+        });
+    }
+
+    private String getServerUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static String resolve(JsonObject request) {
+        StringBuilder url = new StringBuilder(request.getString("stream_url"));
+
+        if (request.has("encrypted_signature")) {
+            url.append('&').append(request.getString("signature_key")).append("=D").append(request.getString("encrypted_signature"));
+        }
+
+        if (request.has("n_param")) {
+            url.append("&n=T").append(request.getString("n_param"));
+        }
+
+        return url.toString();
+    }
+
+    private static JsonObject readJson(HttpExchange exchange) throws IOException {
+        try {
+            return JsonParser.object().from(exchange.getRequestBody());
+        } catch (JsonParserException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static StreamFormat format(String id, String signature, String nParameter) {
+        return new StreamFormat(
+            ContentType.parse("audio/webm; codecs=\"opus\""),
+            251,
+            160000,
+            1000,
+            2,
+            "https://example.com/videoplayback?id=" + id,
+            nParameter,
+            signature,
+            "sig",
+            true,
+            false
+        );
+    }
+
+    private final HttpInterfaceManager interfaceManager = new HttpInterfaceManager() {
+        @Override
+        public HttpInterface getInterface() {
+            return new HttpInterface(HttpClients.createDefault(), new HttpClientContext(), true, noOpFilter);
+        }
+
+        @Override
+        public void setHttpContextFilter(HttpContextFilter filter) {
+        }
+
+        @Override
+        public void configureRequests(Function<RequestConfig, RequestConfig> configurator) {
+        }
+
+        @Override
+        public void configureBuilder(Consumer<HttpClientBuilder> configurator) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final HttpContextFilter noOpFilter = new HttpContextFilter() {
+        @Override
+        public void onContextOpen(HttpClientContext context) {
+        }
+
+        @Override
+        public void onRequest(HttpClientContext context, HttpUriRequest request, boolean isRepetition) {
+        }
+
+        @Override
+        public boolean onRequestResponse(HttpClientContext context, HttpUriRequest request, HttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public boolean onRequestException(HttpClientContext context, HttpUriRequest request, Throwable exception) {
+            return false;
+        }
+
+        @Override
+        public void onContextClose(HttpClientContext context) {
+        }
+    };
+}
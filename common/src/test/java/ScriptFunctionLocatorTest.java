@@ -0,0 +1,42 @@
+import dev.lavalink.youtube.cipher.ScriptFunctionLocator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ScriptFunctionLocatorTest {
+    private static final String SIG_ACTIONS = "var Xy={ab:function(a){a.reverse()},cd:function(a,b){a.splice(0,b)}," +
+        "ef:function(a,b){var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c}};";
+    private static final String SIG_FUNCTION = "function(a){a=a.split(\"\");Xy.cd(a,2);Xy.ab(a,43);return a.join(\"\")};";
+    private static final String N_FUNCTION = "function(a){var b=a[K[0]](K[1]),c=[\"}\",/[}{]/g,`${{x:1}.x}`];" +
+        "try{c[0]=a.replace(/\\/}/,\"\")}catch(d){return K[4]+a}return b[K[2]](K[3])};";
+
+    /**
+     * Braces and function-like text inside strings, templates, regular expressions and comments
+     * must not throw off the located function bounds.
+     */
+    private static final String SCRIPT = "var K=\"split,,join,x,enhanced_except_\".split(\",\");\n" +
+        "// }} function(a){var b=a[K[0]](K[1])\n" +
+        "var decoy=\"function(a){var b=a[K[0]](K[1])}\";/* { */var t=`}${\"{\"}`;var r=/\\}{/;\n" +
+        "var half=10/2/1;\n" +
+        SIG_ACTIONS + "\n" +
+        "var Zq=" + SIG_FUNCTION + "\n" +
+        "var Nn=" + N_FUNCTION + "\n" +
+        "var other={a:1};function unrelated(a){return{b:a}};\n";
+
+    @Test
+    public void testLocatesCipherFunctions() {
+        ScriptFunctionLocator locator = new ScriptFunctionLocator(SCRIPT);
+
+        Assertions.assertEquals(SIG_ACTIONS, locator.findSigActions());
+        Assertions.assertEquals(SIG_FUNCTION, locator.findSigFunction());
+        Assertions.assertEquals(N_FUNCTION, locator.findNFunction());
+    }
+
+    @Test
+    public void testMissingFunctions() {
+        ScriptFunctionLocator locator = new ScriptFunctionLocator("var a={b:function(c){return c}};function d(e){return e};");
+
+        Assertions.assertNull(locator.findSigActions());
+        Assertions.assertNull(locator.findSigFunction());
+        Assertions.assertNull(locator.findNFunction());
+    }
+}
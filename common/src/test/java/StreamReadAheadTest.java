@@ -0,0 +1,349 @@
+import com.sedmelluq.discord.lavaplayer.tools.http.HttpContextFilter;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import dev.lavalink.youtube.track.ChunkSizeStrategy;
+import dev.lavalink.youtube.track.YoutubePersistentHttpStream;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tests reading ahead across range boundaries against a fake media server, which serves the requested range of
+ * {@link #CONTENT} for every request.
+ */
+public class StreamReadAheadTest {
+    private static final byte[] CONTENT = content(250_000);
+    private static final int CHUNK_SIZE = 100_000;
+    private static final Pattern RANGE_PATTERN = Pattern.compile("range=(\\d+)-(\\d+)");
+
+    private FakeMediaServer server;
+    private ExecutorService readAheadExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        server = new FakeMediaServer();
+        readAheadExecutor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        readAheadExecutor.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    public void testReadAheadContinuesAtRangeBoundary() throws IOException {
+        int pooledBefore = YoutubePersistentHttpStream.getPooledBufferCount();
+
+        try (YoutubePersistentHttpStream stream = createStream(Runnable::run)) {
+            Assertions.assertArrayEquals(CONTENT, readFully(stream, CONTENT.length));
+        }
+
+        Assertions.assertEquals(Arrays.asList("0-100000", "100000-200000", "200000-250000"), server.requestedRanges);
+        Assertions.assertTrue(server.responses.stream().allMatch(response -> response.closed), "All responses must be closed");
+        Assertions.assertTrue(YoutubePersistentHttpStream.getPooledBufferCount() > 0, "Buffers must be returned to the pool");
+        Assertions.assertTrue(YoutubePersistentHttpStream.getPooledBufferCount() >= pooledBefore, "No pooled buffer may be lost");
+    }
+
+    @Test
+    public void testReadingContinuesBeforeReadAheadIsBuffered() throws Exception {
+        GatedContent gated = server.gate("100000-200000", 1000);
+
+        try (YoutubePersistentHttpStream stream = createStream(readAheadExecutor)) {
+            byte[] start = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> readFully(stream, CHUNK_SIZE + 1000),
+                "Reading must not wait until the whole read-ahead range is buffered");
+
+            Assertions.assertArrayEquals(Arrays.copyOf(CONTENT, CHUNK_SIZE + 1000), start);
+
+            gated.open();
+            byte[] rest = readFully(stream, CONTENT.length - start.length);
+            Assertions.assertArrayEquals(Arrays.copyOfRange(CONTENT, start.length, CONTENT.length), rest);
+        }
+
+        Assertions.assertEquals(Arrays.asList("0-100000", "100000-200000", "200000-250000"), server.requestedRanges);
+    }
+
+    @Test
+    public void testReadAheadIsDiscardedOnSeek() throws Exception {
+        GatedContent gated = server.gate("100000-200000", 0);
+
+        try (YoutubePersistentHttpStream stream = createStream(readAheadExecutor)) {
+            readFully(stream, 1000);
+            Assertions.assertTrue(gated.awaitReading(), "Read-ahead must be requested while the first range is read");
+
+            stream.seek(150_000);
+            Assertions.assertTrue(server.getResponse("100000-200000").closed, "The read-ahead response must be closed");
+
+            byte[] read = readFully(stream, 1000);
+            Assertions.assertArrayEquals(Arrays.copyOfRange(CONTENT, 150_000, 151_000), read);
+        }
+
+        Assertions.assertEquals(Arrays.asList("0-100000", "100000-200000", "150000-250000"), server.requestedRanges);
+    }
+
+    @Test
+    public void testReadAheadIsDiscardedOnClose() throws Exception {
+        GatedContent gated = server.gate("100000-200000", 70_000);
+
+        YoutubePersistentHttpStream stream = createStream(readAheadExecutor);
+        readFully(stream, 1000);
+        Assertions.assertTrue(gated.awaitBlocked(), "Read-ahead must be requested while the first range is read");
+
+        // The read-ahead now holds two buffers, one full and one that is still being filled.
+        int expectedPooled = Math.min(YoutubePersistentHttpStream.getPooledBufferCount() + 2, 64);
+        stream.close();
+
+        Assertions.assertTrue(server.getResponse("100000-200000").closed, "The read-ahead response must be closed");
+        Assertions.assertTrue(gated.awaitClosed(), "Buffering must stop once the read-ahead is discarded");
+
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (YoutubePersistentHttpStream.getPooledBufferCount() < expectedPooled && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertEquals(expectedPooled, YoutubePersistentHttpStream.getPooledBufferCount(),
+            "Buffers of the discarded read-ahead must be returned to the pool");
+    }
+
+    @Test
+    public void testFailedReadAheadFallsBackToConnect() throws IOException {
+        server.fail("100000-200000", 403);
+
+        try (YoutubePersistentHttpStream stream = createStream(Runnable::run)) {
+            Assertions.assertArrayEquals(CONTENT, readFully(stream, CONTENT.length));
+        }
+
+        Assertions.assertEquals(Arrays.asList("0-100000", "100000-200000", "100000-200000", "200000-250000"), server.requestedRanges);
+    }
+
+    private YoutubePersistentHttpStream createStream(Executor executor) {
+        YoutubePersistentHttpStream stream = new YoutubePersistentHttpStream(server, URI.create("https://rr1---sn-abc.googlevideo.com/videoplayback?itag=251"),
+            CONTENT.length, -1, ChunkSizeStrategy.fixed(CHUNK_SIZE));
+
+        stream.setReadAhead(executor);
+        return stream;
+    }
+
+    private static byte[] readFully(InputStream stream, int length) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+
+        while (output.size() < length) {
+            int result = stream.read(buffer, 0, Math.min(buffer.length, length - output.size()));
+
+            if (result < 0) {
+                break;
+            }
+
+            output.write(buffer, 0, result);
+        }
+
+        return output.toByteArray();
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+
+        return content;
+    }
+
+    private static final HttpContextFilter noOpFilter = new HttpContextFilter() {
+        @Override
+        public void onContextOpen(HttpClientContext context) {
+
+        }
+
+        @Override
+        public void onContextClose(HttpClientContext context) {
+
+        }
+
+        @Override
+        public void onRequest(HttpClientContext context, HttpUriRequest request, boolean isRepetition) {
+
+        }
+
+        @Override
+        public boolean onRequestResponse(HttpClientContext context, HttpUriRequest request, HttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public boolean onRequestException(HttpClientContext context, HttpUriRequest request, Throwable error) {
+            return false;
+        }
+    };
+
+    /**
+     * Serves ranges of the content like the media server does, including the byte at the end of the range.
+     */
+    private static class FakeMediaServer extends HttpInterface {
+        private final List<String> requestedRanges = new CopyOnWriteArrayList<>();
+        private final List<FakeResponse> responses = new CopyOnWriteArrayList<>();
+        private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+        private final Map<String, GatedContent> gates = new ConcurrentHashMap<>();
+
+        private FakeMediaServer() {
+            super(HttpClients.createDefault(), new HttpClientContext(), true, noOpFilter);
+        }
+
+        private void fail(String range, int statusCode) {
+            failures.put(range, statusCode);
+        }
+
+        private GatedContent gate(String range, int openBytes) {
+            GatedContent gated = new GatedContent(openBytes);
+            gates.put(range, gated);
+            return gated;
+        }
+
+        private FakeResponse getResponse(String range) {
+            return responses.get(requestedRanges.indexOf(range));
+        }
+
+        @Override
+        public CloseableHttpResponse execute(HttpUriRequest request) {
+            Matcher matcher = RANGE_PATTERN.matcher(request.getURI().getQuery());
+            Assertions.assertTrue(matcher.find(), "Requests must specify a range");
+
+            String range = matcher.group(1) + "-" + matcher.group(2);
+            int start = Integer.parseInt(matcher.group(1));
+            int end = Math.min(Integer.parseInt(matcher.group(2)) + 1, CONTENT.length);
+
+            Integer failure = failures.remove(range);
+            InputStream body = new ByteArrayInputStream(CONTENT, start, end - start);
+            GatedContent gated = gates.remove(range);
+
+            if (gated != null) {
+                body = gated.wrap(body);
+            }
+
+            FakeResponse response = new FakeResponse(failure != null ? failure : 200, body);
+            requestedRanges.add(range);
+            responses.add(response);
+            return response;
+        }
+    }
+
+    private static class FakeResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        private final InputStream body;
+        private volatile boolean closed;
+
+        private FakeResponse(int statusCode, InputStream body) {
+            super(HttpVersion.HTTP_1_1, statusCode, null);
+            this.body = body;
+            setEntity(new InputStreamEntity(body));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            body.close();
+        }
+    }
+
+    /**
+     * Content of which only the first bytes arrive, until it is opened.
+     */
+    private static class GatedContent {
+        private final int openBytes;
+        private final CountDownLatch opened = new CountDownLatch(1);
+        private final CountDownLatch reading = new CountDownLatch(1);
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        private GatedContent(int openBytes) {
+            this.openBytes = openBytes;
+        }
+
+        private void open() {
+            opened.countDown();
+        }
+
+        private boolean awaitReading() throws InterruptedException {
+            return reading.await(5, TimeUnit.SECONDS);
+        }
+
+        private boolean awaitBlocked() throws InterruptedException {
+            return blocked.await(5, TimeUnit.SECONDS);
+        }
+
+        private boolean awaitClosed() throws InterruptedException {
+            return closed.await(5, TimeUnit.SECONDS);
+        }
+
+        private InputStream wrap(InputStream delegate) {
+            return new InputStream() {
+                private int served;
+
+                @Override
+                public int read() throws IOException {
+                    byte[] single = new byte[1];
+                    return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    reading.countDown();
+
+                    if (served >= openBytes) {
+                        blocked.countDown();
+
+                        try {
+                            while (!opened.await(10, TimeUnit.MILLISECONDS)) {
+                                if (closed.getCount() == 0) {
+                                    throw new IOException("Connection was closed");
+                                }
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IOException(e);
+                        }
+                    }
+
+                    int limit = served < openBytes ? Math.min(len, openBytes - served) : len;
+                    int result = delegate.read(b, off, limit);
+                    served += Math.max(0, result);
+                    return result;
+                }
+
+                @Override
+                public void close() {
+                    closed.countDown();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import dev.lavalink.youtube.cache.StreamUrlCache;
+import dev.lavalink.youtube.track.FormatWithUrl;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+public class StreamUrlCacheTest {
+    private static final long MARGIN_MS = TimeUnit.MINUTES.toMillis(5);
+
+    @Test
+    public void testEntriesAreKeyedByVideoAndClient() {
+        StreamUrlCache cache = new StreamUrlCache(16, MARGIN_MS);
+        FormatWithUrl format = format(TimeUnit.HOURS.toMillis(6));
+
+        cache.put("dQw4w9WgXcQ", "WEB", format);
+
+        Assertions.assertSame(format, cache.get("dQw4w9WgXcQ", "WEB"));
+        Assertions.assertNull(cache.get("dQw4w9WgXcQ", "ANDROID"));
+        Assertions.assertNull(cache.get("aaaaaaaaaaa", "WEB"));
+
+        cache.invalidate("dQw4w9WgXcQ", "WEB");
+        Assertions.assertNull(cache.get("dQw4w9WgXcQ", "WEB"));
+    }
+
+    @Test
+    public void testUrlsCloseToExpiryAreNotCached() {
+        StreamUrlCache cache = new StreamUrlCache(16, MARGIN_MS);
+
+        cache.put("dQw4w9WgXcQ", "WEB", format(MARGIN_MS - TimeUnit.MINUTES.toMillis(1)));
+        cache.put("aaaaaaaaaaa", "WEB", new FormatWithUrl(streamFormat(), URI.create("https://rr1---sn-abc.googlevideo.com/videoplayback?itag=251")));
+
+        Assertions.assertNull(cache.get("dQw4w9WgXcQ", "WEB"));
+        Assertions.assertNull(cache.get("aaaaaaaaaaa", "WEB"));
+        Assertions.assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    public void testExpiryIsReadFromUrl() {
+        long expiresAtMs = TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 60);
+        FormatWithUrl format = new FormatWithUrl(streamFormat(), URI.create("https://rr1---sn-abc.googlevideo.com/videoplayback?expire=" + (expiresAtMs / 1000) + "&itag=251"));
+
+        Assertions.assertEquals(expiresAtMs, format.getExpiresAtMs());
+        Assertions.assertFalse(format.isExpired());
+        Assertions.assertTrue(format(-1000).isExpired());
+    }
+
+    private static FormatWithUrl format(long expiresInMs) {
+        long expire = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() + expiresInMs);
+        return new FormatWithUrl(streamFormat(), URI.create("https://rr1---sn-abc.googlevideo.com/videoplayback?expire=" + expire + "&itag=251"));
+    }
+
+    private static StreamFormat streamFormat() {
+        return new StreamFormat(ContentType.parse("audio/webm; codecs=\"opus\""), 251, 135000, 3400000, 2,
+            "https://rr1---sn-abc.googlevideo.com/videoplayback?itag=251", null, null, "signature", true, false);
+    }
+}
@@ -0,0 +1,150 @@
+package dev.lavalink.youtube.cipher;
+
+import dev.lavalink.youtube.YoutubeSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lives in the cipher package, as the disk cache is only reachable from there.
+ */
+public class CipherDiskCacheTest {
+    private static final String SCRIPT_URL = "/s/player/00000000/player_ias.vflset/en_US/base.js";
+    private static final int MAGIC = 0x59545343;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testCipherRoundTrip() throws IOException {
+        CipherDiskCache cache = new CipherDiskCache(directory);
+        ParsedPlayerScript written = createScript(SCRIPT_URL, System.currentTimeMillis());
+
+        cache.write(written);
+
+        ParsedPlayerScript read = cache.read(SCRIPT_URL);
+        Assertions.assertNotNull(read);
+        Assertions.assertEquals(written.url, read.url);
+        Assertions.assertEquals(written.timestamp, read.timestamp);
+        Assertions.assertEquals(written.scriptLength, read.scriptLength);
+        Assertions.assertEquals(written.parsedAtMs, read.parsedAtMs);
+        Assertions.assertEquals(written.cipher.globalVars, read.cipher.globalVars);
+        Assertions.assertEquals(written.cipher.sigActions, read.cipher.sigActions);
+        Assertions.assertEquals(written.cipher.sigFunction, read.cipher.sigFunction);
+        Assertions.assertEquals(written.cipher.nFunction, read.cipher.nFunction);
+        Assertions.assertNull(read.failure);
+
+        Assertions.assertNull(cache.read("/s/player/11111111/player_ias.vflset/en_US/base.js"));
+        Assertions.assertEquals(1, cache.loadAll().size());
+    }
+
+    @Test
+    public void testFailedExtractionIsNotWritten() throws IOException {
+        CipherDiskCache cache = new CipherDiskCache(directory);
+
+        cache.write(new ParsedPlayerScript(SCRIPT_URL, "12345", null,
+            new ScriptExtractionException("Must find sig function", ScriptExtractionException.ExtractionFailureType.DECIPHER_FUNCTION_NOT_FOUND),
+            1000, System.currentTimeMillis()));
+
+        Assertions.assertNull(cache.read(SCRIPT_URL));
+        Assertions.assertTrue(listCipherFiles().isEmpty());
+    }
+
+    @Test
+    public void testFilesOfOtherVersionsAreRemoved() throws IOException {
+        CipherDiskCache cache = new CipherDiskCache(directory);
+
+        writeHeader(directory.resolve("magic.cipher"), 0, 1, YoutubeSource.VERSION);
+        writeHeader(directory.resolve("format.cipher"), MAGIC, 2, YoutubeSource.VERSION);
+        writeHeader(directory.resolve("source.cipher"), MAGIC, 1, YoutubeSource.VERSION + "-other");
+        Files.write(directory.resolve("truncated.cipher"), new byte[] { 0x59, 0x54 });
+
+        Assertions.assertTrue(cache.loadAll().isEmpty());
+        Assertions.assertTrue(listCipherFiles().isEmpty(), "Files of other versions must be removed");
+    }
+
+    @Test
+    public void testOldFilesAreRemoved() throws IOException {
+        CipherDiskCache cache = new CipherDiskCache(directory);
+
+        cache.write(createScript(SCRIPT_URL, System.currentTimeMillis() - TimeUnit.DAYS.toMillis(8)));
+        Assertions.assertEquals(1, listCipherFiles().size());
+
+        Assertions.assertNull(cache.read(SCRIPT_URL), "Ciphers older than a week must not be used");
+        Assertions.assertTrue(listCipherFiles().isEmpty(), "Ciphers older than a week must be removed");
+    }
+
+    @Test
+    public void testPlayerScriptRoundTrip() throws IOException {
+        CipherDiskCache cache = new CipherDiskCache(directory);
+        long expireTimestampMs = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+
+        Assertions.assertNull(cache.readPlayerScript());
+
+        cache.writePlayerScript(new CipherManager.CachedPlayerScript(SCRIPT_URL, "12345", expireTimestampMs));
+
+        CipherManager.CachedPlayerScript read = cache.readPlayerScript();
+        Assertions.assertNotNull(read);
+        Assertions.assertEquals(SCRIPT_URL, read.url);
+        Assertions.assertEquals("12345", read.signatureTimestamp);
+        Assertions.assertEquals(expireTimestampMs, read.expireTimestampMs);
+        Assertions.assertTrue(cache.loadAll().isEmpty(), "The player script must not be read as a cipher");
+    }
+
+    @Test
+    public void testExpiredPlayerScriptIsRemoved() throws IOException {
+        CipherDiskCache cache = new CipherDiskCache(directory);
+
+        cache.writePlayerScript(new CipherManager.CachedPlayerScript(SCRIPT_URL, "12345", System.currentTimeMillis() - 1));
+
+        Assertions.assertNull(cache.readPlayerScript());
+        Assertions.assertFalse(Files.exists(directory.resolve("current-player-script")));
+    }
+
+    @Test
+    public void testPlayerScriptOfOtherVersionIsRemoved() throws IOException {
+        CipherDiskCache cache = new CipherDiskCache(directory);
+        Path file = directory.resolve("current-player-script");
+
+        writeHeader(file, MAGIC, 1, YoutubeSource.VERSION + "-other");
+
+        Assertions.assertNull(cache.readPlayerScript());
+        Assertions.assertFalse(Files.exists(file));
+    }
+
+    private List<Path> listCipherFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.cipher")) {
+            stream.forEach(files::add);
+        }
+
+        return files;
+    }
+
+    private static ParsedPlayerScript createScript(String url, long parsedAtMs) {
+        SignatureCipher cipher = new SignatureCipher("12345", "var a=1", "var b={}", "function(a){return a}", "function(n){return n}");
+        return new ParsedPlayerScript(url, "12345", cipher, null, 1000, parsedAtMs);
+    }
+
+    private static void writeHeader(Path file, int magic, int formatVersion, String version) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(file))) {
+            byte[] versionBytes = version.getBytes(StandardCharsets.UTF_8);
+
+            output.writeInt(magic);
+            output.writeInt(formatVersion);
+            output.writeInt(versionBytes.length);
+            output.write(versionBytes);
+        }
+    }
+}
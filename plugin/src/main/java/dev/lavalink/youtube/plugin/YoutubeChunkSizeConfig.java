@@ -0,0 +1,33 @@
+package dev.lavalink.youtube.plugin;
+
+import dev.lavalink.youtube.track.ChunkSizeStrategy;
+
+public class YoutubeChunkSizeConfig {
+    private String strategy = "fixed";
+    private long bytes = ChunkSizeStrategy.THROTTLING_THRESHOLD;
+    private long targetSeconds = 60;
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getTargetSeconds() {
+        return targetSeconds;
+    }
+
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public void setTargetSeconds(long targetSeconds) {
+        this.targetSeconds = targetSeconds;
+    }
+}
@@ -1,6 +1,7 @@
 package dev.lavalink.youtube.plugin;
 
 import dev.lavalink.youtube.clients.ClientOptions;
+import dev.lavalink.youtube.scheduler.CircuitBreakers;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -19,6 +20,18 @@ public class YoutubeConfig {
     private String[] clients;
     private Map<String, ClientOptions> clientOptions = new HashMap<>();
     private YoutubeOauthConfig oauth = null;
+    private long playerScriptRefreshIntervalMs = 0;
+    private String cipherCacheDirectory = null;
+    private long hedgedLoadDelayMs = -1;
+    private YoutubeItemCacheConfig itemCache = null;
+    private boolean adaptiveClientOrdering = false;
+    private int circuitBreakerFailureThreshold = CircuitBreakers.DEFAULT_FAILURE_THRESHOLD;
+    private long circuitBreakerOpenDurationMs = CircuitBreakers.DEFAULT_OPEN_DURATION_MS;
+    private boolean useVirtualThreads = false;
+    private int streamUrlCacheSize = 0;
+    private int containerIndexCacheSize = 0;
+    private boolean streamReadAhead = false;
+    private YoutubeChunkSizeConfig chunkSize = null;
 
     public boolean getEnabled() {
         return enabled;
@@ -92,4 +105,100 @@ public class YoutubeConfig {
         this.remoteCipher = remoteCipher;
     }
 
+    public long getPlayerScriptRefreshIntervalMs() {
+        return playerScriptRefreshIntervalMs;
+    }
+
+    public void setPlayerScriptRefreshIntervalMs(long playerScriptRefreshIntervalMs) {
+        this.playerScriptRefreshIntervalMs = playerScriptRefreshIntervalMs;
+    }
+
+    public String getCipherCacheDirectory() {
+        return cipherCacheDirectory;
+    }
+
+    public void setCipherCacheDirectory(String cipherCacheDirectory) {
+        this.cipherCacheDirectory = cipherCacheDirectory;
+    }
+
+    public long getHedgedLoadDelayMs() {
+        return hedgedLoadDelayMs;
+    }
+
+    public void setHedgedLoadDelayMs(long hedgedLoadDelayMs) {
+        this.hedgedLoadDelayMs = hedgedLoadDelayMs;
+    }
+
+    public YoutubeItemCacheConfig getItemCache() {
+        return itemCache;
+    }
+
+    public void setItemCache(YoutubeItemCacheConfig itemCache) {
+        this.itemCache = itemCache;
+    }
+
+    public boolean getAdaptiveClientOrdering() {
+        return adaptiveClientOrdering;
+    }
+
+    public void setAdaptiveClientOrdering(boolean adaptiveClientOrdering) {
+        this.adaptiveClientOrdering = adaptiveClientOrdering;
+    }
+
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    public void setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    }
+
+    public long getCircuitBreakerOpenDurationMs() {
+        return circuitBreakerOpenDurationMs;
+    }
+
+    public void setCircuitBreakerOpenDurationMs(long circuitBreakerOpenDurationMs) {
+        this.circuitBreakerOpenDurationMs = circuitBreakerOpenDurationMs;
+    }
+
+    public boolean getUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    public int getStreamUrlCacheSize() {
+        return streamUrlCacheSize;
+    }
+
+    public void setStreamUrlCacheSize(int streamUrlCacheSize) {
+        this.streamUrlCacheSize = streamUrlCacheSize;
+    }
+
+    public int getContainerIndexCacheSize() {
+        return containerIndexCacheSize;
+    }
+
+    public void setContainerIndexCacheSize(int containerIndexCacheSize) {
+        this.containerIndexCacheSize = containerIndexCacheSize;
+    }
+
+    public boolean getStreamReadAhead() {
+        return streamReadAhead;
+    }
+
+    public void setStreamReadAhead(boolean streamReadAhead) {
+        this.streamReadAhead = streamReadAhead;
+    }
+
+    public YoutubeChunkSizeConfig getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(YoutubeChunkSizeConfig chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
 }
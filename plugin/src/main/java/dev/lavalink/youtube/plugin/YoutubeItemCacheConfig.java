@@ -0,0 +1,69 @@
+package dev.lavalink.youtube.plugin;
+
+import dev.lavalink.youtube.cache.InMemoryItemCache;
+
+public class YoutubeItemCacheConfig {
+    private boolean enabled = false;
+    private long negativeTtlMs = InMemoryItemCache.DEFAULT_NEGATIVE_TTL_MS;
+    private YoutubeItemCacheRouteConfig search;
+    private YoutubeItemCacheRouteConfig musicSearch;
+    private YoutubeItemCacheRouteConfig playlist;
+    private YoutubeItemCacheRouteConfig mix;
+    private YoutubeItemCacheRouteConfig video;
+
+    public boolean getEnabled() {
+        return enabled;
+    }
+
+    public long getNegativeTtlMs() {
+        return negativeTtlMs;
+    }
+
+    public YoutubeItemCacheRouteConfig getSearch() {
+        return search;
+    }
+
+    public YoutubeItemCacheRouteConfig getMusicSearch() {
+        return musicSearch;
+    }
+
+    public YoutubeItemCacheRouteConfig getPlaylist() {
+        return playlist;
+    }
+
+    public YoutubeItemCacheRouteConfig getMix() {
+        return mix;
+    }
+
+    public YoutubeItemCacheRouteConfig getVideo() {
+        return video;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setNegativeTtlMs(long negativeTtlMs) {
+        this.negativeTtlMs = negativeTtlMs;
+    }
+
+    public void setSearch(YoutubeItemCacheRouteConfig search) {
+        this.search = search;
+    }
+
+    public void setMusicSearch(YoutubeItemCacheRouteConfig musicSearch) {
+        this.musicSearch = musicSearch;
+    }
+
+    public void setPlaylist(YoutubeItemCacheRouteConfig playlist) {
+        this.playlist = playlist;
+    }
+
+    public void setMix(YoutubeItemCacheRouteConfig mix) {
+        this.mix = mix;
+    }
+
+    public void setVideo(YoutubeItemCacheRouteConfig video) {
+        this.video = video;
+    }
+}
@@ -0,0 +1,32 @@
+package dev.lavalink.youtube.plugin;
+
+public class YoutubeItemCacheRouteConfig {
+    // null values fall back to the defaults of InMemoryItemCache.
+    private Integer maxEntries;
+    private Long ttlMs;
+    private Long staleWhileRevalidateMs;
+
+    public Integer getMaxEntries() {
+        return maxEntries;
+    }
+
+    public Long getTtlMs() {
+        return ttlMs;
+    }
+
+    public Long getStaleWhileRevalidateMs() {
+        return staleWhileRevalidateMs;
+    }
+
+    public void setMaxEntries(Integer maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public void setTtlMs(Long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public void setStaleWhileRevalidateMs(Long staleWhileRevalidateMs) {
+        this.staleWhileRevalidateMs = staleWhileRevalidateMs;
+    }
+}
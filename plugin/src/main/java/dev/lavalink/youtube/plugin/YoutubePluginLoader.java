@@ -10,8 +10,14 @@ import dev.arbjerg.lavalink.api.AudioPlayerManagerConfiguration;
 import dev.lavalink.youtube.YoutubeAudioSourceManager;
 import dev.lavalink.youtube.YoutubeSource;
 import dev.lavalink.youtube.YoutubeSourceOptions;
+import dev.lavalink.youtube.cache.InMemoryItemCache;
+import dev.lavalink.youtube.cache.ItemCachePolicy;
+import dev.lavalink.youtube.cache.RouteKey;
+import dev.lavalink.youtube.cache.ContainerIndexCache;
+import dev.lavalink.youtube.cache.StreamUrlCache;
 import dev.lavalink.youtube.clients.ClientOptions;
 import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.track.ChunkSizeStrategy;
 import lavalink.server.config.RateLimitConfig;
 import lavalink.server.config.ServerConfig;
 import org.slf4j.Logger;
@@ -87,6 +93,45 @@ public class YoutubePluginLoader implements AudioPlayerManagerConfiguration {
         return clientOptions.get(clientName);
     }
 
+    private ChunkSizeStrategy buildChunkSizeStrategy(YoutubeChunkSizeConfig config) {
+        switch (config.getStrategy().toLowerCase()) {
+            case "fixed":
+                return ChunkSizeStrategy.fixed(config.getBytes());
+            case "bitrate":
+                return ChunkSizeStrategy.bitrate(config.getTargetSeconds());
+            case "adaptive":
+                return ChunkSizeStrategy.adaptive(config.getTargetSeconds());
+            default:
+                throw new IllegalArgumentException("Unknown chunk size strategy \"" + config.getStrategy() + "\", expected fixed, bitrate or adaptive");
+        }
+    }
+
+    private InMemoryItemCache buildItemCache(YoutubeItemCacheConfig config) {
+        Map<RouteKey.Type, ItemCachePolicy> policies = InMemoryItemCache.defaultPolicies();
+        applyItemCachePolicy(policies, RouteKey.Type.SEARCH, config.getSearch());
+        applyItemCachePolicy(policies, RouteKey.Type.MUSIC_SEARCH, config.getMusicSearch());
+        applyItemCachePolicy(policies, RouteKey.Type.PLAYLIST, config.getPlaylist());
+        applyItemCachePolicy(policies, RouteKey.Type.MIX, config.getMix());
+        applyItemCachePolicy(policies, RouteKey.Type.VIDEO, config.getVideo());
+        return new InMemoryItemCache(policies, config.getNegativeTtlMs());
+    }
+
+    private void applyItemCachePolicy(Map<RouteKey.Type, ItemCachePolicy> policies,
+                                      RouteKey.Type type,
+                                      YoutubeItemCacheRouteConfig config) {
+        if (config == null) {
+            return;
+        }
+
+        ItemCachePolicy defaults = policies.get(type);
+
+        policies.put(type, new ItemCachePolicy(
+            config.getMaxEntries() != null ? config.getMaxEntries() : defaults.getMaxEntries(),
+            config.getTtlMs() != null ? config.getTtlMs() : defaults.getTtlMs(),
+            config.getStaleWhileRevalidateMs() != null ? config.getStaleWhileRevalidateMs() : defaults.getStaleWhileRevalidateMs()
+        ));
+    }
+
     private IpBlock getIpBlock(String cidr) {
         if (Ipv4Block.isIpv4CidrBlock(cidr)) {
             return new Ipv4Block(cidr);
@@ -182,7 +227,36 @@ public class YoutubePluginLoader implements AudioPlayerManagerConfiguration {
 
             if (cipherConfig != null && cipherConfig.getUrl() != null) {
                 log.info("Using remote cipher server with URL \"{}\"", cipherConfig.getUrl());
-                sourceOptions.setRemoteCipher(cipherConfig.getUrl(), cipherConfig.getPassword(), cipherConfig.getUserAgent());
+                sourceOptions.setRemoteCipher(cipherConfig.getUrl(), cipherConfig.getPassword(), cipherConfig.getUserAgent())
+                    .setRemoteCipherRequestTimeoutMs(cipherConfig.getRequestTimeoutMs())
+                    .setRemoteCipherMaxConcurrentRequests(cipherConfig.getMaxConcurrentRequests());
+            }
+
+            sourceOptions.setPlayerScriptRefreshIntervalMs(youtubeConfig.getPlayerScriptRefreshIntervalMs());
+            sourceOptions.setCipherCacheDirectory(youtubeConfig.getCipherCacheDirectory());
+            sourceOptions.setHedgedLoadDelayMs(youtubeConfig.getHedgedLoadDelayMs());
+            sourceOptions.setAdaptiveClientOrdering(youtubeConfig.getAdaptiveClientOrdering());
+            sourceOptions.setCircuitBreakerFailureThreshold(youtubeConfig.getCircuitBreakerFailureThreshold());
+            sourceOptions.setCircuitBreakerOpenDurationMs(youtubeConfig.getCircuitBreakerOpenDurationMs());
+            sourceOptions.setUseVirtualThreads(youtubeConfig.getUseVirtualThreads());
+            sourceOptions.setStreamReadAhead(youtubeConfig.getStreamReadAhead());
+
+            if (youtubeConfig.getChunkSize() != null) {
+                sourceOptions.setChunkSizeStrategy(buildChunkSizeStrategy(youtubeConfig.getChunkSize()));
+            }
+
+            if (youtubeConfig.getStreamUrlCacheSize() > 0) {
+                sourceOptions.setStreamUrlCache(new StreamUrlCache(youtubeConfig.getStreamUrlCacheSize()));
+            }
+
+            if (youtubeConfig.getContainerIndexCacheSize() > 0) {
+                sourceOptions.setContainerIndexCache(new ContainerIndexCache(youtubeConfig.getContainerIndexCacheSize()));
+            }
+
+            YoutubeItemCacheConfig itemCacheConfig = youtubeConfig.getItemCache();
+
+            if (itemCacheConfig != null && itemCacheConfig.getEnabled()) {
+                sourceOptions.setItemCache(buildItemCache(itemCacheConfig));
             }
         }
 
@@ -1,9 +1,13 @@
 package dev.lavalink.youtube.plugin;
 
+import dev.lavalink.youtube.cipher.RemoteCipherManager;
+
 public class YoutubeRemoteCipherConfig {
     private String url;
     private String password;
     private String userAgent = "yt-source";
+    private long requestTimeoutMs = RemoteCipherManager.DEFAULT_REQUEST_TIMEOUT_MS;
+    private int maxConcurrentRequests = RemoteCipherManager.DEFAULT_MAX_CONCURRENT_REQUESTS;
 
     public String getUrl() {
         return url;
@@ -17,6 +21,14 @@ public class YoutubeRemoteCipherConfig {
         return userAgent;
     }
 
+    public long getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
     public void setUrl(String url) {
         this.url = url;
     }
@@ -29,4 +41,12 @@ public class YoutubeRemoteCipherConfig {
         this.userAgent = userAgent;
     }
 
+    public void setRequestTimeoutMs(long requestTimeoutMs) {
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
 }
@@ -3,15 +3,24 @@ package dev.lavalink.youtube.plugin;
 import com.grack.nanojson.JsonObject;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.tools.Units;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
 import dev.lavalink.youtube.CannotBeLoaded;
 import dev.lavalink.youtube.ClientInformation;
+import dev.lavalink.youtube.IdentifierClassifier;
 import dev.lavalink.youtube.YoutubeAudioSourceManager;
 import dev.lavalink.youtube.clients.Web;
 import dev.lavalink.youtube.clients.WebEmbedded;
 import dev.lavalink.youtube.clients.skeleton.Client;
 import dev.lavalink.youtube.plugin.rest.MinimalConfigRequest;
 import dev.lavalink.youtube.plugin.rest.MinimalConfigResponse;
+import dev.lavalink.youtube.scheduler.CircuitBreaker;
+import dev.lavalink.youtube.scheduler.ClientOperation;
+import dev.lavalink.youtube.scheduler.ClientStats;
+import dev.lavalink.youtube.scheduler.InnertubeEndpoint;
+import dev.lavalink.youtube.track.YoutubeAudioTrack;
 import dev.lavalink.youtube.track.YoutubePersistentHttpStream;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import dev.lavalink.youtube.track.format.TrackFormats;
@@ -27,7 +36,10 @@ import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBo
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RestController
@@ -79,6 +91,7 @@ public class YoutubeRestHandler {
 
             log.debug("Loading formats for {} with client {}", videoId, client.getIdentifier());
             httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+            httpInterface.getContext().setAttribute(Client.IDENTIFIER_ATTRIBUTE, client.getIdentifier());
 
             TrackFormats formats;
 
@@ -181,6 +194,57 @@ public class YoutubeRestHandler {
         return MinimalConfigResponse.from(getYoutubeSource());
     }
 
+    @GetMapping("/youtube/clients/stats")
+    public Map<String, Map<ClientOperation, ClientStats>> getClientStats() {
+        return getYoutubeSource().getClientScheduler().getStats();
+    }
+
+    @GetMapping("/youtube/clients/breakers")
+    public Map<String, Map<InnertubeEndpoint, CircuitBreaker.State>> getCircuitBreakerStates() {
+        return getYoutubeSource().getCircuitBreakers().getStates();
+    }
+
+    @PostMapping("/youtube/prefetch/{videoId}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void prefetchVideo(@PathVariable("videoId") String videoId,
+                              @RequestParam(name = "checkUrl", required = false, defaultValue = "false") boolean checkUrl) {
+        if (!IdentifierClassifier.isVideoId(videoId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid video ID.");
+        }
+
+        YoutubeAudioSourceManager source = getYoutubeSource();
+        AudioTrackInfo info = new AudioTrackInfo("", "", Units.DURATION_MS_UNKNOWN, videoId, false, "https://www.youtube.com/watch?v=" + videoId);
+
+        source.prefetch(new YoutubeAudioTrack(info, source), checkUrl).whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.debug("Failed to prefetch {}", videoId, e);
+            }
+        });
+    }
+
+    @PostMapping("/youtube/prefetch")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void prefetchVideos(@RequestBody List<String> videoIds,
+                               @RequestParam(name = "checkUrl", required = false, defaultValue = "false") boolean checkUrl) {
+        if (videoIds.stream().anyMatch(videoId -> !IdentifierClassifier.isVideoId(videoId))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid video ID.");
+        }
+
+        YoutubeAudioSourceManager source = getYoutubeSource();
+        List<AudioTrack> tracks = new ArrayList<>(videoIds.size());
+
+        for (String videoId : videoIds) {
+            AudioTrackInfo info = new AudioTrackInfo("", "", Units.DURATION_MS_UNKNOWN, videoId, false, "https://www.youtube.com/watch?v=" + videoId);
+            tracks.add(new YoutubeAudioTrack(info, source));
+        }
+
+        source.prefetch(tracks, checkUrl).whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.debug("Failed to prefetch {} videos", videoIds.size(), e);
+            }
+        });
+    }
+
     @GetMapping("/youtube/oauth/{refreshToken}")
     public String createNewAccessToken(@PathVariable("refreshToken") String refreshToken) {
         // TODO: This probably won't have content type set to JSON anymore as JsonBrowser doesn't extend Map, so have to return